@@ -0,0 +1,69 @@
+package com.example.benchmarks;
+
+import com.example.common.BFSResult;
+import com.example.common.Graph;
+import com.example.common.PageRankResult;
+import com.example.common.ShortestPathResult;
+import com.example.common.SpanningForest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// 单机图算法：每组参数只构建一次 CSR，只测算法本身（不含 HTTP / JSON / 文件 I/O）
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class AlgorithmBenchmark {
+
+    private static final double DAMPING = 0.85;
+    private static final double TOLERANCE = 1e-6;
+    private static final int MAX_ITER = 100;
+
+    private Graph graph;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void build(GraphState state) {
+        graph = GraphState.load(state.edges);
+        graph.buildCSR();
+        source = state.source;
+    }
+
+    @Benchmark
+    public BFSResult parallelBFS() {
+        return graph.parallelBFS(source);
+    }
+
+    @Benchmark
+    public BFSResult fullParallelBFS() {
+        return graph.fullParallelBFS();
+    }
+
+    @Benchmark
+    public PageRankResult pageRank() {
+        return graph.pageRank(DAMPING, TOLERANCE, MAX_ITER);
+    }
+
+    @Benchmark
+    public SpanningForest minimumSpanningTree() {
+        return graph.minimumSpanningTree();
+    }
+
+    @Benchmark
+    public ShortestPathResult singleSourceShortestPath() {
+        return graph.singleSourceShortestPath(source);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// 基准入口：总是挂上 GC 分析器（输出 gc.alloc.rate / gc.alloc.rate.norm 与吞吐一同报告），
+// 结果写入 jmh-results.csv；其余命令行参数与 JMH 自带入口一致（如 -p nodes=100000 AlgorithmBenchmark.pageRank）
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result("jmh-results.csv")
+                .build();
+        new Runner(options).run();
+    }
+}
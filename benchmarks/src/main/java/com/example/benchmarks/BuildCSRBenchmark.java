@@ -0,0 +1,39 @@
+package com.example.benchmarks;
+
+import com.example.common.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// CSR 构建：构建会原地改写边缓冲，因此每次调用前重新装载边（装载不计时）
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class BuildCSRBenchmark {
+
+    private Graph graph;
+
+    @Setup(Level.Invocation)
+    public void load(GraphState state) {
+        graph = GraphState.load(state.edges);
+    }
+
+    @Benchmark
+    public int buildCSR() {
+        graph.buildCSR();
+        return graph.getEdgeCount();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.benchmarks;
+
+import com.example.common.ComputeScheduler;
+import com.example.common.EdgeList;
+import com.example.common.Graph;
+import com.example.common.GraphGenerators;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+// 基准共用的图参数：规模、度分布、计算并行度；同一组参数下固定随机种子，结果可复现
+@State(Scope.Benchmark)
+public class GraphState {
+
+    static final int AVG_DEGREE = 3;
+    static final int COMPONENTS = 100;
+    static final long SEED = 42;
+
+    @Param({"100000", "1000000"})
+    public int nodes;
+
+    // uniform：连通随机图；powerlaw：幂律出度 + 枢纽入度；components：多个互不相连的分量
+    @Param({"uniform", "powerlaw", "components"})
+    public String distribution;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    public EdgeList edges;
+    public int source;      // 出度最大的节点作为单源算法起点（幂律图中节点 0 往往只有自环）
+
+    @Setup(Level.Trial)
+    public void generate() {
+        ComputeScheduler.configure(threads);
+        edges = generate(distribution, nodes);
+        int[] outDegree = new int[nodes];
+        for (int e = 0; e < edges.size(); e++) {
+            if (edges.source(e) != edges.target(e)) outDegree[edges.source(e)]++;
+        }
+        for (int v = 1; v < nodes; v++) if (outDegree[v] > outDegree[source]) source = v;
+    }
+
+    static EdgeList generate(String distribution, int nodes) {
+        Random rand = new Random(SEED);
+        return switch (distribution) {
+            case "uniform" -> GraphGenerators.connected(nodes, AVG_DEGREE, rand);
+            case "powerlaw" -> GraphGenerators.powerLaw(nodes, AVG_DEGREE, rand);
+            case "components" -> GraphGenerators.components(nodes, COMPONENTS, AVG_DEGREE, rand);
+            default -> throw new IllegalArgumentException("Unknown distribution " + distribution);
+        };
+    }
+
+    static Graph load(EdgeList edges) {
+        Graph graph = new Graph();
+        graph.addEdges(edges);
+        return graph;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 基于 CAS 的定长原子位图，用作并行遍历的 visited 集合
+public class AtomicBitSet {
+
+    private final AtomicLongArray words;
+    private final int size;
+
+    public AtomicBitSet(int size) {
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean get(int i) {
+        return (words.get(i >>> 6) & (1L << i)) != 0;
+    }
+
+    // --- 置位；仅当本次调用把该位从 0 变为 1 时返回 true ---
+    public boolean set(int i) {
+        int w = i >>> 6;
+        long mask = 1L << i;
+        while (true) {
+            long old = words.get(w);
+            if ((old & mask) != 0) return false;
+            if (words.compareAndSet(w, old, old | mask)) return true;
+        }
+    }
+
+    public long getWord(int w) {
+        return words.get(w);
+    }
+
+    public int wordCount() {
+        return words.length();
+    }
+
+    public int cardinality() {
+        int c = 0;
+        for (int w = 0; w < words.length(); w++) c += Long.bitCount(words.get(w));
+        return c;
+    }
+
+    // --- 下一个未置位的下标（>= from），不存在返回 -1 ---
+    public int nextClearBit(int from) {
+        if (from >= size) return -1;
+        int w = from >>> 6;
+        long word = ~words.get(w) & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                return i < size ? i : -1;
+            }
+            if (++w >= words.length()) return -1;
+            word = ~words.get(w);
+        }
+    }
+}
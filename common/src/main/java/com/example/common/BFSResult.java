@@ -0,0 +1,22 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// BFS 结果：按 CSR 下标存放的层数与父节点（未到达为 -1）
+public class BFSResult {
+
+    public final int[] distance;
+    public final int[] parent;
+    public int reached;
+    public int levels;
+    public int topDownSteps;
+    public int bottomUpSteps;
+    public int[] nodeIds;       // 计算时的 下标 -> 真实 ID（nodeMap 快照），延后格式化时不受之后的合并 / 重排影响
+
+    public BFSResult(int n) {
+        this.distance = new int[n];
+        this.parent = new int[n];
+        Arrays.fill(distance, -1);
+        Arrays.fill(parent, -1);
+    }
+}
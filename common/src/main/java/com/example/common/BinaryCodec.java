@@ -0,0 +1,50 @@
+package com.example.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// worker 之间批量二进制消息的编解码（小端序）
+public final class BinaryCodec {
+
+    private BinaryCodec() {}
+
+    public static byte[] encodeInts(int[] values, int offset, int length) {
+        ByteBuffer buf = ByteBuffer.allocate(4 * length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asIntBuffer().put(values, offset, length);
+        return buf.array();
+    }
+
+    public static byte[] encodeInts(int[] values) {
+        return encodeInts(values, 0, values.length);
+    }
+
+    public static int[] decodeInts(byte[] bytes) {
+        int[] out = new int[bytes.length / 4];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(out);
+        return out;
+    }
+
+    public static byte[] encodeDoubles(double[] values, int offset, int length) {
+        ByteBuffer buf = ByteBuffer.allocate(8 * length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asDoubleBuffer().put(values, offset, length);
+        return buf.array();
+    }
+
+    public static double[] decodeDoubles(byte[] bytes) {
+        double[] out = new double[bytes.length / 8];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(out);
+        return out;
+    }
+
+    public static byte[] encodeLongs(long[] values) {
+        ByteBuffer buf = ByteBuffer.allocate(8 * values.length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asLongBuffer().put(values);
+        return buf.array();
+    }
+
+    public static long[] decodeLongs(byte[] bytes) {
+        long[] out = new long[bytes.length / 8];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(out);
+        return out;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.common;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// 并行 Borůvka 最小生成森林：CSR 边按无向处理，每轮为每个分量选出 (权重, 边位置) 最小的出边并合并，
+// 全序打破平局保证所选边无环；分量由无锁并查集维护
+public class BoruvkaMST {
+
+    private static final int VERTEX_CHUNK = 4096;
+
+    private final int[] index;
+    private final int[] edges;
+    private final double[] weights;
+    private final int n;
+    private final ComputeScheduler.Job job;
+
+    public BoruvkaMST(int[] index, int[] edges, double[] weights, ComputeScheduler.Job job) {
+        this.index = index;
+        this.edges = edges;
+        this.weights = weights;
+        this.n = index.length - 1;
+        this.job = job;
+    }
+
+    // --- 返回的端点为 CSR 下标 ---
+    public SpanningForest run() {
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(n);
+        int[] comp = new int[n];
+        AtomicIntegerArray best = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) best.lazySet(v, -1);
+        int chunks = Math.max(1, (n + VERTEX_CHUNK - 1) / VERTEX_CHUNK);
+
+        int[] chosen = new int[Math.max(0, n - 1)];
+        int count = 0;
+        int rounds = 0;
+        while (true) {
+            job.parallelFor(chunks, c -> {
+                for (int v = c * VERTEX_CHUNK, hi = Math.min(n, v + VERTEX_CHUNK); v < hi; v++) comp[v] = uf.find(v);
+            });
+
+            // 每个分量的最轻出边（两端分量都参与竞争）
+            job.parallelFor(chunks, c -> {
+                for (int u = c * VERTEX_CHUNK, hi = Math.min(n, u + VERTEX_CHUNK); u < hi; u++) {
+                    int cu = comp[u];
+                    for (int j = index[u], end = index[u + 1]; j < end; j++) {
+                        int cv = comp[edges[j]];
+                        if (cu == cv) continue;
+                        offer(best, cu, j);
+                        offer(best, cv, j);
+                    }
+                }
+            });
+
+            // 合并：同一条边可能被两端分量同时选中，只有成功合并的一次计入
+            int[][] outs = new int[chunks][];
+            int[] outSizes = new int[chunks];
+            job.parallelFor(chunks, c -> {
+                int lo = c * VERTEX_CHUNK;
+                int hi = Math.min(n, lo + VERTEX_CHUNK);
+                int[] buf = new int[16];
+                int size = 0;
+                for (int r = lo; r < hi; r++) {
+                    int e = best.get(r);
+                    if (e < 0) continue;
+                    best.set(r, -1);
+                    if (!uf.union(sourceOf(e), edges[e])) continue;
+                    if (size == buf.length) buf = Arrays.copyOf(buf, size * 2);
+                    buf[size++] = e;
+                }
+                outs[c] = buf;
+                outSizes[c] = size;
+            });
+
+            rounds++;
+            int added = 0;
+            for (int c = 0; c < chunks; c++) {
+                System.arraycopy(outs[c], 0, chosen, count, outSizes[c]);
+                count += outSizes[c];
+                added += outSizes[c];
+            }
+            if (added == 0) break;
+        }
+
+        int[] source = new int[count];
+        int[] target = new int[count];
+        double[] weight = new double[count];
+        Arrays.sort(chosen, 0, count);
+        for (int i = 0; i < count; i++) {
+            int e = chosen[i];
+            source[i] = sourceOf(e);
+            target[i] = edges[e];
+            weight[i] = weights[e];
+        }
+        SpanningForest forest = new SpanningForest(source, target, weight, count);
+        forest.rounds = rounds;
+        return forest;
+    }
+
+    // --- 以 (权重, 边位置) 全序比较，CAS 保留更小者 ---
+    private void offer(AtomicIntegerArray best, int comp, int e) {
+        double w = weights[e];
+        while (true) {
+            int cur = best.get(comp);
+            if (cur >= 0 && (weights[cur] < w || (weights[cur] == w && cur <= e))) return;
+            if (best.compareAndSet(comp, cur, e)) return;
+        }
+    }
+
+    // --- 边位置所属的源顶点：csrIndex 上二分 ---
+    private int sourceOf(int e) {
+        int lo = 0;
+        int hi = n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (index[mid] <= e) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+}
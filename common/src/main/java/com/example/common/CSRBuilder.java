@@ -0,0 +1,213 @@
+package com.example.common;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// 基于原始数组的 CSR 构建器：可增长 int 边缓冲 + 计数/前缀和 + 开放寻址 ID 映射
+public class CSRBuilder {
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    // --- 边缓冲（构建阶段） ---
+    private int[] src = new int[INITIAL_CAPACITY];
+    private int[] dst = new int[INITIAL_CAPACITY];
+    private double[] weights;   // 未提供权重时为 null，NaN 表示该边需随机生成权重
+    private int size;
+
+    // --- 构建结果 ---
+    private int[] csrIndex;
+    private int[] csrEdges;
+    private int[] nodeMap;
+    private double[] edgeWeights;
+    private IntIntHashMap nodeToIndex;
+
+    // --- 远端边：目标点不在本地的边（按本地源点分组，目标为真实 ID） ---
+    private int[] remoteIndex;
+    private int[] remoteTargets;
+    private double[] remoteWeights;
+
+    // --- 构建统计 ---
+    private long peakBytes;
+    private long buildMillis;
+
+    public synchronized void add(int u, int v) {
+        ensureCapacity(size + 1);
+        src[size] = u;
+        dst[size] = v;
+        if (weights != null) weights[size] = Double.NaN;
+        size++;
+    }
+
+    public synchronized void add(int u, int v, double w) {
+        ensureCapacity(size + 1);
+        if (weights == null) {
+            weights = new double[src.length];
+            Arrays.fill(weights, 0, size, Double.NaN);
+        }
+        src[size] = u;
+        dst[size] = v;
+        weights[size] = w;
+        size++;
+    }
+
+    // --- 批量追加（weights 为 null 表示这批边不带权重） ---
+    public synchronized void addAll(int[] us, int[] vs, double[] ws, int count) {
+        ensureCapacity(size + count);
+        if (ws != null && weights == null) {
+            weights = new double[src.length];
+            Arrays.fill(weights, 0, size, Double.NaN);
+        }
+        System.arraycopy(us, 0, src, size, count);
+        System.arraycopy(vs, 0, dst, size, count);
+        if (ws != null) {
+            System.arraycopy(ws, 0, weights, size, count);
+        } else if (weights != null) {
+            Arrays.fill(weights, size, size + count, Double.NaN);
+        }
+        size += count;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= src.length) return;
+        int cap = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, (long) src.length * 3 / 2));
+        src = Arrays.copyOf(src, cap);
+        dst = Arrays.copyOf(dst, cap);
+        if (weights != null) weights = Arrays.copyOf(weights, cap);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // --- 构建 CSR：目标点也拥有本地出边的边进入 CSR（与原 buildCSR 语义一致），其余作为远端边保留 ---
+    public synchronized void build(Random rand) {
+        long t0 = System.nanoTime();
+        int m = size;
+        peakBytes = 0;
+
+        // 1. 收集源点并排序，得到 index -> realNodeId
+        IntIntHashMap ids = new IntIntHashMap(Math.max(16, m / 4));
+        int[] uniq = new int[Math.max(16, m / 4)];
+        int n = 0;
+        for (int e = 0; e < m; e++) {
+            if (ids.putIfAbsent(src[e], n) < 0) {
+                if (n == uniq.length) uniq = Arrays.copyOf(uniq, uniq.length * 2);
+                uniq[n++] = src[e];
+            }
+        }
+        int[] nodes = Arrays.copyOf(uniq, n);
+        uniq = null;
+        Arrays.sort(nodes);
+        for (int i = 0; i < n; i++) ids.put(nodes[i], i);
+
+        // 2. 原地把源点真实 ID 换成下标；目标点不在本地的边记为远端边，保留其真实 ID
+        int[] index = new int[n + 1];
+        int[] rIndex = new int[n + 1];
+        long[] remote = new long[(m + 63) >>> 6];
+        int kept = 0;
+        for (int e = 0; e < m; e++) {
+            int s = ids.get(src[e]);
+            int d = ids.get(dst[e]);
+            src[e] = s;
+            if (d >= 0) {
+                dst[e] = d;
+                index[s]++;
+                kept++;
+            } else {
+                remote[e >>> 6] |= 1L << e;
+                rIndex[s]++;
+            }
+        }
+
+        // 3. 前缀和：index[i] 暂存 i 的结束位置，逆序回填时递减为起始位置（保持插入顺序）
+        for (int i = 1; i < n; i++) {
+            index[i] += index[i - 1];
+            rIndex[i] += rIndex[i - 1];
+        }
+        index[n] = kept;
+        rIndex[n] = m - kept;
+
+        int[] edges = new int[kept];
+        double[] w = new double[kept];
+        int[] rTargets = new int[m - kept];
+        double[] rw = new double[m - kept];
+        trackPeak(bufferBytes() + ids.memoryBytes() + 4L * nodes.length + 8L * index.length
+                + 8L * remote.length + 12L * m);
+
+        for (int e = m - 1; e >= 0; e--) {
+            double we = weights != null ? weights[e] : Double.NaN;
+            if ((remote[e >>> 6] & (1L << e)) != 0) {
+                int pos = --rIndex[src[e]];
+                rTargets[pos] = dst[e];
+                rw[pos] = we;
+            } else {
+                int pos = --index[src[e]];
+                edges[pos] = dst[e];
+                w[pos] = we;
+            }
+        }
+        fillRandomWeights(w, rand);
+        fillRandomWeights(rw, rand);
+
+        csrIndex = index;
+        csrEdges = edges;
+        edgeWeights = w;
+        nodeMap = nodes;
+        nodeToIndex = ids;
+        remoteIndex = rIndex;
+        remoteTargets = rTargets;
+        remoteWeights = rw;
+
+        // 构建完成后释放边缓冲
+        resetBuffers();
+        buildMillis = (System.nanoTime() - t0) / 1_000_000;
+    }
+
+    private static void fillRandomWeights(double[] w, Random rand) {
+        for (int i = 0; i < w.length; i++) {
+            if (Double.isNaN(w[i])) w[i] = 1.0 + rand.nextDouble() * 9.0; // 权重 ∈ [1, 10)
+        }
+    }
+
+    private long bufferBytes() {
+        return 8L * src.length + (weights != null ? 8L * weights.length : 0);
+    }
+
+    private void trackPeak(long bytes) {
+        peakBytes = Math.max(peakBytes, bytes);
+    }
+
+    private void resetBuffers() {
+        src = new int[INITIAL_CAPACITY];
+        dst = new int[INITIAL_CAPACITY];
+        weights = null;
+        size = 0;
+    }
+
+    public synchronized void clear() {
+        resetBuffers();
+        csrIndex = null;
+        csrEdges = null;
+        nodeMap = null;
+        edgeWeights = null;
+        nodeToIndex = null;
+        remoteIndex = null;
+        remoteTargets = null;
+        remoteWeights = null;
+        peakBytes = 0;
+        buildMillis = 0;
+    }
+
+    public int[] getCsrIndex() { return csrIndex; }
+    public int[] getCsrEdges() { return csrEdges; }
+    public int[] getNodeMap() { return nodeMap; }
+    public double[] getEdgeWeights() { return edgeWeights; }
+    public IntIntHashMap getNodeToIndex() { return nodeToIndex; }
+    public int[] getRemoteIndex() { return remoteIndex; }
+    public int[] getRemoteTargets() { return remoteTargets; }
+    public double[] getRemoteWeights() { return remoteWeights; }
+
+    // 构建过程中各原始数组同时存活的估算峰值（字节）
+    public long getPeakBytes() { return peakBytes; }
+    public long getBuildMillis() { return buildMillis; }
+}
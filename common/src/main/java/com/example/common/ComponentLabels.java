@@ -0,0 +1,17 @@
+package com.example.common;
+
+// 连通分量标号：按 CSR 下标存放的稠密分量编号及各分量大小
+public class ComponentLabels {
+
+    public final int[] label;
+    public final int[] sizes;
+    public final int count;
+    public int[] nodeIds;       // 计算时的 下标 -> 真实 ID（nodeMap 快照）；PageRank 结果与分量标号下标一致，共用此映射
+
+    public ComponentLabels(int[] label, int count) {
+        this.label = label;
+        this.count = count;
+        this.sizes = new int[count];
+        for (int c : label) sizes[c]++;
+    }
+}
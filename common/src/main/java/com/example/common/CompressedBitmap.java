@@ -0,0 +1,320 @@
+package com.example.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+// Roaring 风格压缩位图（顶点集合）：按高 16 位分桶，每桶按体积最小原则选用数组 / 位图 / 游程容器；
+// 支持按位或合并、基数统计和小端序二进制序列化。整数按无符号顺序排列
+public class CompressedBitmap {
+
+    public static final int MAGIC = 0x50414D42;     // "BMAP"
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final byte ARRAY = 0;
+    private static final byte BITMAP = 1;
+    private static final byte RUN = 2;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public CompressedBitmap() {
+        this(4);
+    }
+
+    private CompressedBitmap(int capacity) {
+        this.keys = new char[capacity];
+        this.containers = new Container[capacity];
+    }
+
+    // --- 由任意顺序的整数构建（会对副本排序；已按无符号升序时直接使用） ---
+    public static CompressedBitmap of(int[] values, int count) {
+        int[] sorted = Arrays.copyOf(values, count);
+        boolean ordered = true;
+        for (int i = 1; i < count && ordered; i++) ordered = Integer.compareUnsigned(sorted[i - 1], sorted[i]) <= 0;
+        if (!ordered) {
+            for (int i = 0; i < count; i++) sorted[i] ^= Integer.MIN_VALUE;
+            Arrays.sort(sorted);
+            for (int i = 0; i < count; i++) sorted[i] ^= Integer.MIN_VALUE;
+        }
+        CompressedBitmap bm = new CompressedBitmap();
+        char[] low = new char[Math.min(count, 1 << 16)];
+        int i = 0;
+        while (i < count) {
+            int high = sorted[i] >>> 16;
+            int n = 0;
+            int prev = -1;
+            for (; i < count && sorted[i] >>> 16 == high; i++) {
+                int lo = sorted[i] & 0xFFFF;
+                if (lo != prev) low[n++] = (char) lo;
+                prev = lo;
+            }
+            bm.append((char) high, fromSorted(low, n));
+        }
+        return bm;
+    }
+
+    private void append(char key, Container c) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        keys[size] = key;
+        containers[size++] = c;
+    }
+
+    public long cardinality() {
+        long c = 0;
+        for (int i = 0; i < size; i++) c += containers[i].cardinality;
+        return c;
+    }
+
+    public boolean contains(int value) {
+        int k = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return k >= 0 && containers[k].contains((char) value);
+    }
+
+    public int[] toArray() {
+        int[] out = new int[Math.toIntExact(cardinality())];
+        int pos = 0;
+        for (int i = 0; i < size; i++) pos = containers[i].fill(out, pos, keys[i] << 16);
+        return out;
+    }
+
+    // --- 按位或合并到当前位图（原地），返回自身 ---
+    public CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap merged = new CompressedBitmap(Math.max(4, size + other.size));
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                merged.append(keys[i], containers[i++]);
+            } else if (i == size || other.keys[j] < keys[i]) {
+                merged.append(other.keys[j], other.containers[j++]);
+            } else {
+                merged.append(keys[i], orContainers(containers[i++], other.containers[j++]));
+            }
+        }
+        keys = merged.keys;
+        containers = merged.containers;
+        size = merged.size;
+        return this;
+    }
+
+    private static Container orContainers(Container a, Container b) {
+        if (a.type == ARRAY && b.type == ARRAY && a.cardinality + b.cardinality <= ARRAY_MAX) {
+            char[] x = a.values;
+            char[] y = b.values;
+            char[] out = new char[a.cardinality + b.cardinality];
+            int i = 0, j = 0, n = 0;
+            while (i < a.cardinality || j < b.cardinality) {
+                char v;
+                if (j == b.cardinality || (i < a.cardinality && x[i] < y[j])) v = x[i++];
+                else if (i == a.cardinality || y[j] < x[i]) v = y[j++];
+                else {
+                    v = x[i++];
+                    j++;
+                }
+                out[n++] = v;
+            }
+            return fromSorted(out, n);
+        }
+        long[] bits = a.toBits();
+        long[] other = b.toBits();
+        for (int w = 0; w < BITMAP_WORDS; w++) bits[w] |= other[w];
+        return fromBits(bits);
+    }
+
+    // ---------- 序列化：magic, 容器数, 每个容器 (key u16, type u8, 基数 i32, 负载) ----------
+
+    public byte[] serialize() {
+        ByteBuffer bb = ByteBuffer.allocate(serializedBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        bb.putInt(MAGIC).putInt(size);
+        for (int i = 0; i < size; i++) {
+            Container c = containers[i];
+            bb.putChar(keys[i]).put(c.type).putInt(c.cardinality);
+            switch (c.type) {
+                case ARRAY -> bb.asCharBuffer().put(c.values, 0, c.cardinality);
+                case RUN -> {
+                    bb.putChar((char) (c.runs - 1));
+                    bb.asCharBuffer().put(c.values, 0, 2 * c.runs);
+                }
+                default -> bb.asLongBuffer().put(c.words);
+            }
+            bb.position(bb.position() + (c.type == RUN ? c.payloadBytes() - 2 : c.payloadBytes()));
+        }
+        return bb.array();
+    }
+
+    public static CompressedBitmap deserialize(byte[] data) {
+        ByteBuffer bb = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        if (bb.getInt() != MAGIC) throw new IllegalArgumentException("Not a compressed bitmap");
+        int count = bb.getInt();
+        CompressedBitmap bm = new CompressedBitmap(Math.max(4, count));
+        for (int i = 0; i < count; i++) {
+            char key = bb.getChar();
+            byte type = bb.get();
+            int card = bb.getInt();
+            Container c;
+            switch (type) {
+                case ARRAY -> {
+                    char[] values = new char[card];
+                    bb.asCharBuffer().get(values);
+                    c = new Container(ARRAY, card, values, 0, null);
+                }
+                case RUN -> {
+                    int runs = bb.getChar() + 1;
+                    char[] values = new char[2 * runs];
+                    bb.asCharBuffer().get(values);
+                    c = new Container(RUN, card, values, runs, null);
+                }
+                case BITMAP -> {
+                    long[] words = new long[BITMAP_WORDS];
+                    bb.asLongBuffer().get(words);
+                    c = new Container(BITMAP, card, null, 0, words);
+                }
+                default -> throw new IllegalArgumentException("Unknown container type " + type);
+            }
+            bb.position(bb.position() + (type == RUN ? c.payloadBytes() - 2 : c.payloadBytes()));
+            bm.append(key, c);
+        }
+        return bm;
+    }
+
+    public int serializedBytes() {
+        int bytes = 8;
+        for (int i = 0; i < size; i++) bytes += 7 + containers[i].payloadBytes();
+        return bytes;
+    }
+
+    // ---------- 容器 ----------
+
+    // --- 由升序去重的低 16 位构建，按体积选择容器 ---
+    private static Container fromSorted(char[] low, int n) {
+        int runs = 0;
+        for (int i = 0; i < n; i++) if (i == 0 || low[i] != low[i - 1] + 1) runs++;
+        if (4 * runs + 2 < Math.min(2 * n, 8 * BITMAP_WORDS)) {
+            char[] pairs = new char[2 * runs];
+            int r = -1;
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || low[i] != low[i - 1] + 1) {
+                    pairs[2 * ++r] = low[i];
+                    pairs[2 * r + 1] = 0;
+                } else {
+                    pairs[2 * r + 1]++;
+                }
+            }
+            return new Container(RUN, n, pairs, runs, null);
+        }
+        if (n <= ARRAY_MAX) return new Container(ARRAY, n, Arrays.copyOf(low, n), 0, null);
+        long[] words = new long[BITMAP_WORDS];
+        for (int i = 0; i < n; i++) words[low[i] >>> 6] |= 1L << low[i];
+        return new Container(BITMAP, n, null, 0, words);
+    }
+
+    private static Container fromBits(long[] words) {
+        int card = 0;
+        int runs = 0;
+        long carry = 0;
+        for (long w : words) {
+            card += Long.bitCount(w);
+            runs += Long.bitCount(w & ~((w << 1) | carry));
+            carry = w >>> 63;
+        }
+        if (4 * runs + 2 < Math.min(2 * card, 8 * BITMAP_WORDS) || card <= ARRAY_MAX) {
+            char[] low = new char[card];
+            int n = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    low[n++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return fromSorted(low, n);
+        }
+        return new Container(BITMAP, card, null, 0, words);
+    }
+
+    // 数组容器：values 为升序低 16 位；游程容器：values 为 (起点, 长度-1) 对；位图容器：words 为 65536 位
+    private static final class Container {
+        final byte type;
+        final int cardinality;
+        final char[] values;
+        final int runs;
+        final long[] words;
+
+        Container(byte type, int cardinality, char[] values, int runs, long[] words) {
+            this.type = type;
+            this.cardinality = cardinality;
+            this.values = values;
+            this.runs = runs;
+            this.words = words;
+        }
+
+        int payloadBytes() {
+            return switch (type) {
+                case ARRAY -> 2 * cardinality;
+                case RUN -> 2 + 4 * runs;
+                default -> 8 * BITMAP_WORDS;
+            };
+        }
+
+        boolean contains(char low) {
+            switch (type) {
+                case ARRAY:
+                    return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+                case RUN:
+                    for (int r = 0; r < runs; r++) {
+                        int start = values[2 * r];
+                        if (low < start) return false;
+                        if (low <= start + values[2 * r + 1]) return true;
+                    }
+                    return false;
+                default:
+                    return (words[low >>> 6] & (1L << low)) != 0;
+            }
+        }
+
+        long[] toBits() {
+            if (type == BITMAP) return words.clone();
+            long[] bits = new long[BITMAP_WORDS];
+            if (type == ARRAY) {
+                for (int i = 0; i < cardinality; i++) bits[values[i] >>> 6] |= 1L << values[i];
+            } else {
+                for (int r = 0; r < runs; r++) {
+                    int start = values[2 * r];
+                    int end = start + values[2 * r + 1];
+                    for (int v = start; v <= end; v++) bits[v >>> 6] |= 1L << v;
+                }
+            }
+            return bits;
+        }
+
+        int fill(int[] out, int pos, int high) {
+            switch (type) {
+                case ARRAY:
+                    for (int i = 0; i < cardinality; i++) out[pos++] = high | values[i];
+                    return pos;
+                case RUN:
+                    for (int r = 0; r < runs; r++) {
+                        int start = values[2 * r];
+                        int end = start + values[2 * r + 1];
+                        for (int v = start; v <= end; v++) out[pos++] = high | v;
+                    }
+                    return pos;
+                default:
+                    for (int w = 0; w < BITMAP_WORDS; w++) {
+                        long word = words[w];
+                        while (word != 0) {
+                            out[pos++] = high | ((w << 6) + Long.numberOfTrailingZeros(word));
+                            word &= word - 1;
+                        }
+                    }
+                    return pos;
+            }
+        }
+    }
+}
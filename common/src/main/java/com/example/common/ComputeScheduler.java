@@ -0,0 +1,174 @@
+package com.example.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+// Worker 级共享计算调度器：所有 Graph 算法共用一个 ForkJoinPool，
+// 并行度来自配置或 CPU 核数；每个请求作为一个 Job，按活跃 Job 数公平分配并行通道
+public class ComputeScheduler {
+
+    public static final String PARALLELISM_PROPERTY = "graph.compute.parallelism";
+    private static final String PARALLELISM_ENV = "GRAPH_COMPUTE_PARALLELISM";
+
+    private static volatile ComputeScheduler shared;
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final ThreadLocal<Job> current = new ThreadLocal<>();     // 本线程最外层的未关闭 Job
+    private boolean retired;                                           // 已被 configure 替换，guarded by this
+
+    // --- 指标 ---
+    private final AtomicInteger activeJobs = new AtomicInteger();
+    private final AtomicInteger runningTasks = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong completedJobs = new AtomicLong();
+
+    public ComputeScheduler(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        this.pool = new ForkJoinPool(this.parallelism, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("graph-compute-" + t.getPoolIndex());
+            return t;
+        }, null, false);
+    }
+
+    // --- 全局实例：首次使用时按系统属性 / 环境变量 / CPU 核数创建 ---
+    public static ComputeScheduler shared() {
+        ComputeScheduler s = shared;
+        if (s == null) {
+            synchronized (ComputeScheduler.class) {
+                if (shared == null) shared = new ComputeScheduler(defaultParallelism());
+                s = shared;
+            }
+        }
+        return s;
+    }
+
+    // --- 重新配置并行度（替换全局实例；旧实例上已打开的 Job 继续使用旧线程池，最后一个关闭时才关闭旧线程池） ---
+    public static synchronized void configure(int parallelism) {
+        ComputeScheduler old = shared;
+        shared = new ComputeScheduler(parallelism > 0 ? parallelism : defaultParallelism());
+        if (old != null) old.retire();
+    }
+
+    private synchronized void retire() {
+        retired = true;
+        if (activeJobs.get() == 0) pool.shutdown();
+    }
+
+    private static int defaultParallelism() {
+        String v = System.getProperty(PARALLELISM_PROPERTY, System.getenv(PARALLELISM_ENV));
+        if (v != null && !v.isBlank()) {
+            try {
+                int p = Integer.parseInt(v.trim());
+                if (p > 0) return p;
+            } catch (NumberFormatException ignored) {}
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    // --- 同一线程上嵌套打开的 Job 与外层共用份额，不计入活跃数；已退役的实例把新 Job 转给当前全局实例 ---
+    public Job openJob(String name) {
+        Job outer = current.get();
+        if (outer != null && !outer.closed) return new Job(name, false);
+        synchronized (this) {
+            if (!retired) {
+                activeJobs.incrementAndGet();
+                Job job = new Job(name, true);
+                current.set(job);
+                return job;
+            }
+        }
+        return shared().openJob(name);
+    }
+
+    private synchronized void release() {
+        if (activeJobs.decrementAndGet() == 0 && retired) pool.shutdown();
+    }
+
+    // 当前每个 Job 可用的并行通道数
+    public int fairShare() {
+        return Math.max(1, parallelism / Math.max(1, activeJobs.get()));
+    }
+
+    public Map<String, Number> metrics() {
+        Map<String, Number> m = new LinkedHashMap<>();
+        m.put("parallelism", parallelism);
+        m.put("activeJobs", activeJobs.get());
+        m.put("fairShare", fairShare());
+        m.put("runningTasks", runningTasks.get());
+        m.put("activeThreads", pool.getActiveThreadCount());
+        m.put("queuedSubmissions", pool.getQueuedSubmissionCount());
+        m.put("queuedTasks", pool.getQueuedTaskCount());
+        m.put("completedTasks", completedTasks.get());
+        m.put("completedJobs", completedJobs.get());
+        m.put("stealCount", pool.getStealCount());
+        return m;
+    }
+
+    // --- 一个请求的计算作业：关闭后释放公平份额 ---
+    public class Job implements AutoCloseable {
+
+        private final String name;
+        private final boolean counted;
+        private volatile boolean closed;
+
+        private Job(String name, boolean counted) {
+            this.name = name;
+            this.counted = counted;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // --- 并行执行 chunks 个块：按公平份额启动若干通道，每个通道循环领取块下标 ---
+        public void parallelFor(int chunks, IntConsumer body) {
+            if (chunks <= 0) return;
+            int lanes = Math.min(chunks, fairShare());
+            if (lanes == 1 || isPoolThread()) {
+                for (int c = 0; c < chunks; c++) body.accept(c);
+                return;
+            }
+            AtomicInteger next = new AtomicInteger();
+            Runnable lane = () -> {
+                runningTasks.incrementAndGet();
+                try {
+                    int c;
+                    while ((c = next.getAndIncrement()) < chunks) body.accept(c);
+                } finally {
+                    runningTasks.decrementAndGet();
+                    completedTasks.incrementAndGet();
+                }
+            };
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[lanes];
+            for (int i = 0; i < lanes; i++) tasks[i] = pool.submit(lane);
+            for (ForkJoinTask<?> t : tasks) t.join();
+        }
+
+        private boolean isPoolThread() {
+            return Thread.currentThread() instanceof ForkJoinWorkerThread
+                    && ((ForkJoinWorkerThread) Thread.currentThread()).getPool() == pool;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            if (!counted) return;
+            if (current.get() == this) current.remove();
+            completedJobs.incrementAndGet();
+            release();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.common;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// 无锁并查集（稠密下标）：CAS 路径减半的 find，按下标链接（大根挂到小根下）保证无环
+public class ConcurrentUnionFind {
+
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentUnionFind(int n) {
+        this.parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) parent.lazySet(i, i);
+    }
+
+    public int size() {
+        return parent.length();
+    }
+
+    // --- 迭代 find，顺带把 x 指向祖父节点 ---
+    public int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) return x;
+            int gp = parent.get(p);
+            if (gp == p) return p;
+            parent.compareAndSet(x, p, gp);
+            x = gp;
+        }
+    }
+
+    // --- 合并；仅当本次调用把两个不同集合连起来时返回 true ---
+    public boolean union(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) return false;
+            if (a < b) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            if (parent.compareAndSet(a, a, b)) return true;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// 直接写字节的 CSV 输出：64KB 缓冲，整数手工转十进制，逗号与换行自动处理，不经过 String 拼接或 printf
+public final class CsvWriter {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long NEGATIVE_ZERO = Double.doubleToRawLongBits(-0.0);
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[BUFFER_BYTES];
+    private final byte[] digits = new byte[20];
+    private int pos;
+    private boolean rowStarted;
+    private long rows;
+
+    public CsvWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public CsvWriter header(String line) throws IOException {
+        writeAscii(line);
+        put((byte) '\n');
+        return this;
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separator();
+        writeLong(value);
+        return this;
+    }
+
+    // --- double 按 Double.toString 输出（可精确往返，含 Infinity / NaN）；小整数值走快速路径 ---
+    public CsvWriter field(double value) throws IOException {
+        separator();
+        if (value == (long) value && Math.abs(value) < 1e7 && Double.doubleToRawLongBits(value) != NEGATIVE_ZERO) {
+            writeLong((long) value);
+            writeAscii(".0");
+        } else {
+            writeAscii(Double.toString(value));
+        }
+        return this;
+    }
+
+    private void writeLong(long value) throws IOException {
+        ensure(digits.length + 1);
+        if (value < 0) {
+            buf[pos++] = '-';
+            if (value == Long.MIN_VALUE) {
+                writeAscii("9223372036854775808");
+                return;
+            }
+            value = -value;
+        }
+        int d = digits.length;
+        do {
+            digits[--d] = (byte) ('0' + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        System.arraycopy(digits, d, buf, pos, digits.length - d);
+        pos += digits.length - d;
+    }
+
+    public CsvWriter endRow() throws IOException {
+        put((byte) '\n');
+        rowStarted = false;
+        rows++;
+        return this;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) put((byte) ',');
+        rowStarted = true;
+    }
+
+    private void writeAscii(String s) throws IOException {
+        if (s.length() > buf.length) {
+            drain();
+            out.write(s.getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) buf[pos++] = (byte) s.charAt(i);
+    }
+
+    private void put(byte b) throws IOException {
+        ensure(1);
+        buf[pos++] = b;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.length - pos < bytes) drain();
+    }
+
+    private void drain() throws IOException {
+        out.write(buf, 0, pos);
+        pos = 0;
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 增量合并：把封存的增量层并入现有 CSR，生成一组新数组（旧数组不动，仍可供持有它们的读者使用）。
+// 已有顶点下标保持不变，新源点按 ID 升序追加在末尾；没有增量的顶点整段拷贝，两趟线性扫描完成，不排序边
+class DeltaCompactor {
+
+    private static final int VERTEX_CHUNK = 4096;
+
+    // --- 底层 CSR ---
+    private final int[] baseIndex;
+    private final int[] baseEdges;
+    private final double[] baseWeights;
+    private final int[] baseRemoteIndex;
+    private final int[] baseRemoteTargets;
+    private final double[] baseRemoteWeights;
+    private final int baseCount;
+    private final GraphDelta delta;
+
+    // --- 合并结果 ---
+    private int[] csrIndex;
+    private int[] csrEdges;
+    private double[] edgeWeights;
+    private int[] nodeMap;
+    private IntIntHashMap nodeToIndex;
+    private int[] remoteIndex;
+    private int[] remoteTargets;
+    private double[] remoteWeights;
+
+    private GraphDelta.VertexDelta[] deltaOf;
+    private boolean grown;      // 有新顶点时，底层远端边的目标可能变成本地
+
+    DeltaCompactor(int[] index, int[] edges, double[] weights, int[] nodeMap, IntIntHashMap nodeToIndex,
+                   int[] remoteIndex, int[] remoteTargets, double[] remoteWeights, GraphDelta delta) {
+        this.baseIndex = index;
+        this.baseEdges = edges;
+        this.baseWeights = weights;
+        this.baseRemoteIndex = remoteIndex;
+        this.baseRemoteTargets = remoteTargets;
+        this.baseRemoteWeights = remoteWeights;
+        this.baseCount = nodeMap.length;
+        this.nodeMap = nodeMap;
+        this.nodeToIndex = nodeToIndex;
+        this.delta = delta;
+    }
+
+    void run(ComputeScheduler.Job job) {
+        // 1. 新源点追加到下标末尾
+        int[] sources = delta.sources();
+        int[] fresh = new int[sources.length];
+        int k = 0;
+        for (int s : sources) {
+            if (!nodeToIndex.containsKey(s)) fresh[k++] = s;
+        }
+        Arrays.sort(fresh, 0, k);
+        int n = baseCount + k;
+        grown = k > 0;
+        if (grown) {
+            nodeToIndex = nodeToIndex.copy();
+            nodeMap = Arrays.copyOf(nodeMap, n);
+            for (int i = 0; i < k; i++) {
+                nodeMap[baseCount + i] = fresh[i];
+                nodeToIndex.put(fresh[i], baseCount + i);
+            }
+        }
+        deltaOf = new GraphDelta.VertexDelta[n];
+        for (int s : sources) deltaOf[nodeToIndex.get(s)] = delta.get(s);
+
+        // 2. 计数并前缀求和
+        int[] index = new int[n + 1];
+        int[] rIndex = new int[n + 1];
+        int chunks = Math.max(1, (n + VERTEX_CHUNK - 1) / VERTEX_CHUNK);
+        job.parallelFor(chunks, c -> {
+            for (int u = c * VERTEX_CHUNK, hi = Math.min(n, u + VERTEX_CHUNK); u < hi; u++) {
+                long counts = scan(u, false);
+                index[u + 1] = (int) (counts >>> 32);
+                rIndex[u + 1] = (int) counts;
+            }
+        });
+        for (int u = 0; u < n; u++) {
+            index[u + 1] += index[u];
+            rIndex[u + 1] += rIndex[u];
+        }
+        csrIndex = index;
+        remoteIndex = rIndex;
+        csrEdges = new int[index[n]];
+        edgeWeights = new double[index[n]];
+        remoteTargets = new int[rIndex[n]];
+        remoteWeights = new double[rIndex[n]];
+
+        // 3. 按同样的顺序填充
+        job.parallelFor(chunks, c -> {
+            for (int u = c * VERTEX_CHUNK, hi = Math.min(n, u + VERTEX_CHUNK); u < hi; u++) scan(u, true);
+        });
+    }
+
+    // --- 顶点 u 合并后的出边：底层本地边、底层远端边（目标已成为本地的转为本地边）、新增边，
+    //     跳过被墓碑屏蔽的底层边；fill 为 false 时只计数，返回 (本地数 << 32) | 远端数 ---
+    private long scan(int u, boolean fill) {
+        GraphDelta.VertexDelta d = deltaOf[u];
+        int lp = fill ? csrIndex[u] : 0;
+        int rp = fill ? remoteIndex[u] : 0;
+        if (u < baseCount && d == null && !grown) {
+            int local = baseIndex[u + 1] - baseIndex[u];
+            int remote = baseRemoteIndex[u + 1] - baseRemoteIndex[u];
+            if (!fill) return ((long) local << 32) | remote;
+            System.arraycopy(baseEdges, baseIndex[u], csrEdges, lp, local);
+            System.arraycopy(baseWeights, baseIndex[u], edgeWeights, lp, local);
+            System.arraycopy(baseRemoteTargets, baseRemoteIndex[u], remoteTargets, rp, remote);
+            System.arraycopy(baseRemoteWeights, baseRemoteIndex[u], remoteWeights, rp, remote);
+            return 0;
+        }
+        if (u < baseCount) {
+            for (int j = baseIndex[u]; j < baseIndex[u + 1]; j++) {
+                if (d != null && d.isRemoved(nodeMap[baseEdges[j]])) continue;
+                if (fill) {
+                    csrEdges[lp] = baseEdges[j];
+                    edgeWeights[lp] = baseWeights[j];
+                }
+                lp++;
+            }
+            for (int e = baseRemoteIndex[u]; e < baseRemoteIndex[u + 1]; e++) {
+                int t = baseRemoteTargets[e];
+                if (d != null && d.isRemoved(t)) continue;
+                int ti = grown ? nodeToIndex.get(t) : -1;
+                if (ti >= 0) {
+                    if (fill) {
+                        csrEdges[lp] = ti;
+                        edgeWeights[lp] = baseRemoteWeights[e];
+                    }
+                    lp++;
+                } else {
+                    if (fill) {
+                        remoteTargets[rp] = t;
+                        remoteWeights[rp] = baseRemoteWeights[e];
+                    }
+                    rp++;
+                }
+            }
+        }
+        if (d != null) {
+            for (int i = 0; i < d.addCount; i++) {
+                int ti = nodeToIndex.get(d.added[i]);
+                if (ti >= 0) {
+                    if (fill) {
+                        csrEdges[lp] = ti;
+                        edgeWeights[lp] = d.weights[i];
+                    }
+                    lp++;
+                } else {
+                    if (fill) {
+                        remoteTargets[rp] = d.added[i];
+                        remoteWeights[rp] = d.weights[i];
+                    }
+                    rp++;
+                }
+            }
+        }
+        return fill ? 0 : ((long) lp << 32) | rp;
+    }
+
+    int[] getCsrIndex() { return csrIndex; }
+    int[] getCsrEdges() { return csrEdges; }
+    double[] getEdgeWeights() { return edgeWeights; }
+    int[] getNodeMap() { return nodeMap; }
+    IntIntHashMap getNodeToIndex() { return nodeToIndex; }
+    int[] getRemoteIndex() { return remoteIndex; }
+    int[] getRemoteTargets() { return remoteTargets; }
+    double[] getRemoteWeights() { return remoteWeights; }
+}
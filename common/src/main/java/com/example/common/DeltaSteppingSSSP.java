@@ -0,0 +1,178 @@
+package com.example.common;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Delta-stepping 单源最短路：距离按 delta 宽度分桶，按桶序处理；
+// 当前桶的顶点并行松弛全部出边（CAS 取最小），回落到当前桶的顶点在下一阶段重新处理，直到桶清空
+public class DeltaSteppingSSSP {
+
+    private static final int SERIAL_THRESHOLD = 1024;
+    private static final int FRONTIER_CHUNK = 256;
+
+    private final int[] index;
+    private final int[] edges;
+    private final double[] weights;
+    private final int n;
+    private final double delta;
+    private final double bound;
+    private final ComputeScheduler.Job job;
+
+    // 距离以 double 位模式存放，非负 double 的位序与数值序一致
+    private final AtomicLongArray dist;
+    private final int[] stamp;
+
+    // --- 待处理桶：桶号 -> 顶点列表（可能含重复与过期项，取出时过滤） ---
+    private final TreeMap<Long, Bin> pending = new TreeMap<>();
+    private long cachedBucket = -1;
+    private Bin cachedBin;
+
+    // --- bound 为距离上界（超出的顶点不再扩展，结果为 +∞）；delta <= 0 时按最大边权与平均度自动选取。
+    //     权重须非负，由调用方在安装边权时校验一次（maxWeight 即当时算出的最大边权），这里不再逐边扫描 ---
+    public DeltaSteppingSSSP(int[] index, int[] edges, double[] weights, double maxWeight, double delta, double bound,
+                             ComputeScheduler.Job job) {
+        this.index = index;
+        this.edges = edges;
+        this.weights = weights;
+        this.n = index.length - 1;
+        this.delta = delta > 0 ? delta : defaultDelta(n, weights.length, maxWeight);
+        this.bound = bound;
+        this.job = job;
+        this.dist = new AtomicLongArray(n);
+        this.stamp = new int[n];
+        long inf = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) dist.lazySet(v, inf);
+    }
+
+    // --- 经验取值：最大权重 / 平均出度 ---
+    private static double defaultDelta(int n, int m, double maxWeight) {
+        if (!(maxWeight > 0.0)) return 1.0;
+        double avgDegree = Math.max(1.0, (double) m / Math.max(1, n));
+        return maxWeight / avgDegree;
+    }
+
+    public ShortestPathResult run(int source) {
+        ShortestPathResult result = new ShortestPathResult(n);
+        result.delta = delta;
+        if (source < 0 || source >= n) return result;
+
+        dist.set(source, Double.doubleToRawLongBits(0.0));
+        push(0, source);
+        int round = 0;
+        long lastBucket = -1;
+        while (!pending.isEmpty()) {
+            Map.Entry<Long, Bin> first = pending.pollFirstEntry();
+            cachedBin = null;
+            long bucket = first.getKey();
+            int[] frontier = collect(first.getValue(), bucket, ++round);
+            if (frontier.length == 0) continue;
+            result.relaxations += relax(frontier);
+            result.phases++;
+            if (bucket != lastBucket) {
+                result.buckets++;
+                lastBucket = bucket;
+            }
+        }
+
+        for (int v = 0; v < n; v++) {
+            double d = distance(v);
+            result.distance[v] = d;
+            if (d != Double.POSITIVE_INFINITY) result.reached++;
+        }
+        return result;
+    }
+
+    private double distance(int v) {
+        return Double.longBitsToDouble(dist.get(v));
+    }
+
+    private long bucketOf(double d) {
+        return (long) (d / delta);
+    }
+
+    private void push(long bucket, int v) {
+        if (cachedBin == null || bucket != cachedBucket) {
+            cachedBin = pending.computeIfAbsent(bucket, k -> new Bin());
+            cachedBucket = bucket;
+        }
+        cachedBin.add(v);
+    }
+
+    // --- 取出桶内有效顶点：去重，并跳过距离已降到更小桶的过期项 ---
+    private int[] collect(Bin bin, long bucket, int round) {
+        int[] out = new int[bin.size];
+        int count = 0;
+        for (int k = 0; k < bin.size; k++) {
+            int v = bin.items[k];
+            if (stamp[v] == round || bucketOf(distance(v)) != bucket) continue;
+            stamp[v] = round;
+            out[count++] = v;
+        }
+        return count == out.length ? out : Arrays.copyOf(out, count);
+    }
+
+    // --- 并行松弛：各块把距离变小的 (顶点, 新桶号) 写入本地缓冲，结束后串行并入待处理桶 ---
+    private long relax(int[] frontier) {
+        int nf = frontier.length;
+        int chunks = nf <= SERIAL_THRESHOLD ? 1 : Math.max(1, nf / FRONTIER_CHUNK);
+        int[][] outVertices = new int[chunks][];
+        long[][] outBuckets = new long[chunks][];
+        int[] outSizes = new int[chunks];
+        long[] scanned = new long[chunks];
+
+        job.parallelFor(chunks, c -> {
+            int lo = (int) ((long) nf * c / chunks);
+            int hi = (int) ((long) nf * (c + 1) / chunks);
+            int[] vs = new int[Math.max(16, hi - lo)];
+            long[] bs = new long[vs.length];
+            int size = 0;
+            long edgesScanned = 0;
+            for (int k = lo; k < hi; k++) {
+                int u = frontier[k];
+                double du = distance(u);
+                for (int j = index[u], end = index[u + 1]; j < end; j++) {
+                    double nd = du + weights[j];
+                    if (nd > bound) continue;
+                    edgesScanned++;
+                    int v = edges[j];
+                    long cur = dist.get(v);
+                    while (nd < Double.longBitsToDouble(cur)) {
+                        if (dist.compareAndSet(v, cur, Double.doubleToRawLongBits(nd))) {
+                            if (size == vs.length) {
+                                vs = Arrays.copyOf(vs, size * 2);
+                                bs = Arrays.copyOf(bs, size * 2);
+                            }
+                            vs[size] = v;
+                            bs[size++] = bucketOf(nd);
+                            break;
+                        }
+                        cur = dist.get(v);
+                    }
+                }
+            }
+            outVertices[c] = vs;
+            outBuckets[c] = bs;
+            outSizes[c] = size;
+            scanned[c] = edgesScanned;
+        });
+
+        long total = 0;
+        for (int c = 0; c < chunks; c++) {
+            for (int k = 0; k < outSizes[c]; k++) push(outBuckets[c][k], outVertices[c][k]);
+            total += scanned[c];
+        }
+        return total;
+    }
+
+    private static final class Bin {
+        int[] items = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = v;
+        }
+    }
+}
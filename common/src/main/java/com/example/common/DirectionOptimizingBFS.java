@@ -0,0 +1,247 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 方向优化 BFS（Beamer）：层同步，按前沿规模在自顶向下 / 自底向上之间切换
+public class DirectionOptimizingBFS {
+
+    private static final int ALPHA = 14;            // mf > mu / ALPHA 时切换为自底向上
+    private static final int BETA = 24;             // nf < n / BETA 且前沿收缩时切回自顶向下
+    private static final int SERIAL_THRESHOLD = 1024;
+    private static final int FRONTIER_CHUNK = 256;
+    private static final int VERTEX_CHUNK = 4096;   // 64 的倍数，保证块之间不共享位图字
+
+    private final int[] index;
+    private final int[] edges;
+    private final int[] inIndex;
+    private final int[] inEdges;
+    private final int n;
+
+    private final AtomicBitSet visited;
+    private final BFSResult result;
+    private ComputeScheduler.Job job;
+    private long unexploredEdges;   // 未访问顶点的出边总数（mu）
+
+    // --- 单步统计 ---
+    private int nextSize;
+    private long nextEdges;
+
+    // --- 逐层扩展模式的方向状态 ---
+    private boolean levelBottomUp;
+    private int levelPrevNf;
+
+    public DirectionOptimizingBFS(int[] index, int[] edges, int[] inIndex, int[] inEdges,
+                                  AtomicBitSet visited, BFSResult result, ComputeScheduler.Job job) {
+        this.index = index;
+        this.edges = edges;
+        this.inIndex = inIndex;
+        this.inEdges = inEdges;
+        this.n = index.length - 1;
+        this.visited = visited;
+        this.result = result;
+        this.job = job;
+        this.unexploredEdges = edges.length;
+    }
+
+    // --- 从 source 出发遍历；已访问过的起点直接返回（全图遍历时共享 visited） ---
+    public void run(int source) {
+        if (!visited.set(source)) return;
+        result.distance[source] = 0;
+        result.parent[source] = source;
+        result.reached++;
+        unexploredEdges -= degree(source);
+
+        int[] frontier = {source};
+        long[] frontierBits = null;
+        int nf = 1;
+        long mf = degree(source);
+        boolean bottomUp = false;
+        int level = 0;
+        int prevNf = 0;
+
+        while (nf > 0) {
+            if (!bottomUp && mf > unexploredEdges / ALPHA) {
+                frontierBits = toBits(frontier, nf);
+                bottomUp = true;
+            } else if (bottomUp && nf < n / BETA && nf < prevNf) {
+                frontier = toArray(frontierBits, nf);
+                bottomUp = false;
+            }
+            prevNf = nf;
+
+            if (bottomUp) {
+                frontierBits = bottomUpStep(frontierBits, level);
+                result.bottomUpSteps++;
+            } else {
+                frontier = topDownStep(frontier, nf, level);
+                result.topDownSteps++;
+            }
+            nf = nextSize;
+            mf = nextEdges;
+            unexploredEdges -= mf;
+            result.reached += nf;
+            level++;
+        }
+        result.levels = Math.max(result.levels, level);
+    }
+
+    void setJob(ComputeScheduler.Job job) {
+        this.job = job;
+    }
+
+    // --- 外部驱动的逐层扩展（分布式 BFS）：frontier 中顶点已由调用方标记 visited 与层数，
+    //     按同样的启发式选择方向扩展一层，返回下一层本地前沿 ---
+    int[] expandLevel(int[] frontier, int nf, int level, boolean allowBottomUp) {
+        if (nf == 0) {
+            levelPrevNf = 0;
+            nextSize = 0;
+            return new int[0];
+        }
+        long mf = 0;
+        for (int k = 0; k < nf; k++) mf += degree(frontier[k]);
+        unexploredEdges -= mf;
+        if (!allowBottomUp) {
+            levelBottomUp = false;
+        } else if (!levelBottomUp && mf > unexploredEdges / ALPHA) {
+            levelBottomUp = true;
+        } else if (levelBottomUp && nf < n / BETA && nf < levelPrevNf) {
+            levelBottomUp = false;
+        }
+        levelPrevNf = nf;
+
+        int[] next;
+        if (levelBottomUp) {
+            long[] nextBits = bottomUpStep(toBits(frontier, nf), level);
+            next = toArray(nextBits, nextSize);
+            result.bottomUpSteps++;
+        } else {
+            next = topDownStep(frontier, nf, level);
+            result.topDownSteps++;
+        }
+        result.reached += nextSize;
+        return next;
+    }
+
+    private int degree(int v) {
+        return index[v + 1] - index[v];
+    }
+
+    // --- 自顶向下：按前沿数组切块，各块写入本地缓冲后拼接 ---
+    private int[] topDownStep(int[] frontier, int nf, int level) {
+        int chunks = nf <= SERIAL_THRESHOLD ? 1 : Math.max(1, nf / FRONTIER_CHUNK);
+        int[][] outs = new int[chunks][];
+        int[] outSizes = new int[chunks];
+        long[] outEdges = new long[chunks];
+        int[] dist = result.distance;
+        int[] parent = result.parent;
+
+        job.parallelFor(chunks, c -> {
+            int lo = (int) ((long) nf * c / chunks);
+            int hi = (int) ((long) nf * (c + 1) / chunks);
+            int[] buf = new int[Math.max(16, hi - lo)];
+            int size = 0;
+            long deg = 0;
+            for (int k = lo; k < hi; k++) {
+                int u = frontier[k];
+                for (int j = index[u], end = index[u + 1]; j < end; j++) {
+                    int v = edges[j];
+                    if (visited.get(v) || !visited.set(v)) continue;
+                    dist[v] = level + 1;
+                    parent[v] = u;
+                    if (size == buf.length) buf = Arrays.copyOf(buf, size * 2);
+                    buf[size++] = v;
+                    deg += degree(v);
+                }
+            }
+            outs[c] = buf;
+            outSizes[c] = size;
+            outEdges[c] = deg;
+        });
+
+        int total = 0;
+        long deg = 0;
+        for (int c = 0; c < chunks; c++) {
+            total += outSizes[c];
+            deg += outEdges[c];
+        }
+        int[] next = new int[total];
+        int pos = 0;
+        for (int c = 0; c < chunks; c++) {
+            System.arraycopy(outs[c], 0, next, pos, outSizes[c]);
+            pos += outSizes[c];
+        }
+        nextSize = total;
+        nextEdges = deg;
+        return next;
+    }
+
+    // --- 自底向上：按下标区间切块，未访问顶点扫描入边寻找前沿中的父节点 ---
+    private long[] bottomUpStep(long[] frontierBits, int level) {
+        long[] nextBits = new long[frontierBits.length];
+        int chunks = (n + VERTEX_CHUNK - 1) / VERTEX_CHUNK;
+        int[] outSizes = new int[chunks];
+        long[] outEdges = new long[chunks];
+        int[] dist = result.distance;
+        int[] parent = result.parent;
+
+        job.parallelFor(chunks, c -> {
+            int lo = c * VERTEX_CHUNK;
+            int hi = Math.min(n, lo + VERTEX_CHUNK);
+            int size = 0;
+            long deg = 0;
+            for (int v = lo; v < hi; v++) {
+                if ((v & 63) == 0 && visited.getWord(v >>> 6) == -1L) {
+                    v += 63;
+                    continue;
+                }
+                if (visited.get(v)) continue;
+                for (int k = inIndex[v], end = inIndex[v + 1]; k < end; k++) {
+                    int u = inEdges[k];
+                    if ((frontierBits[u >>> 6] & (1L << u)) == 0) continue;
+                    if (visited.set(v)) {
+                        dist[v] = level + 1;
+                        parent[v] = u;
+                        nextBits[v >>> 6] |= 1L << v;
+                        size++;
+                        deg += degree(v);
+                    }
+                    break;
+                }
+            }
+            outSizes[c] = size;
+            outEdges[c] = deg;
+        });
+
+        int total = 0;
+        long deg = 0;
+        for (int c = 0; c < chunks; c++) {
+            total += outSizes[c];
+            deg += outEdges[c];
+        }
+        nextSize = total;
+        nextEdges = deg;
+        return nextBits;
+    }
+
+    private long[] toBits(int[] frontier, int nf) {
+        long[] bits = new long[(n + 63) >>> 6];
+        for (int k = 0; k < nf; k++) {
+            int v = frontier[k];
+            bits[v >>> 6] |= 1L << v;
+        }
+        return bits;
+    }
+
+    private int[] toArray(long[] bits, int nf) {
+        int[] out = new int[nf];
+        int pos = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                out[pos++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// 二进制距离矩阵（小端序）：头 (magic, version, 行数, 列数) 后接各列的节点 ID；
+// 每行为 (源节点 ID, 宽度 u8, 列数个距离)，宽度按该行最大距离取 1 / 2 / 4 字节，未到达为该宽度的全 1
+public final class DistanceMatrixWriter {
+
+    public static final int MAGIC = 0x4642534D;     // "MSBF"
+    public static final int VERSION = 1;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final OutputStream out;
+    private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private long bytes;
+    private long rows;
+
+    public DistanceMatrixWriter(OutputStream out, int rows, int[] columnIds) throws IOException {
+        this.out = out;
+        buf.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(columnIds.length);
+        for (int id : columnIds) putInt(id);
+    }
+
+    // --- 写出 levels 的第 row 行；该行宽度按本行最大层数取，可窄于整批的存储宽度 ---
+    public void writeRow(int source, LevelRows levels, int row) throws IOException {
+        int columns = levels.getColumns();
+        int max = 0;
+        for (int v = 0; v < columns; v++) max = Math.max(max, levels.get(row, v));
+        int width = max < 0xFF ? 1 : max < 0xFFFF ? 2 : 4;
+        putInt(source);
+        if (!buf.hasRemaining()) drain();
+        buf.put((byte) width);
+        for (int v = 0; v < columns; v++) {
+            int d = levels.get(row, v);
+            if (buf.remaining() < width) drain();
+            switch (width) {
+                case 1 -> buf.put((byte) d);
+                case 2 -> buf.putShort((short) d);
+                default -> buf.putInt(d);
+            }
+        }
+        rows++;
+    }
+
+    private void putInt(int v) throws IOException {
+        if (buf.remaining() < 4) drain();
+        buf.putInt(v);
+    }
+
+    private void drain() throws IOException {
+        out.write(buf.array(), 0, buf.position());
+        bytes += buf.position();
+        buf.clear();
+    }
+
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBytes() {
+        return bytes + buf.position();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 全局边表：平行原始数组存放有向边 (source[i], target[i])，按需倍增扩容
+public class EdgeList {
+
+    private int[] source;
+    private int[] target;
+    private int size;
+
+    public EdgeList() {
+        this(1024);
+    }
+
+    public EdgeList(int expectedEdges) {
+        int cap = Math.max(16, expectedEdges);
+        this.source = new int[cap];
+        this.target = new int[cap];
+    }
+
+    public void add(int u, int v) {
+        if (size == source.length) {
+            source = Arrays.copyOf(source, size * 2);
+            target = Arrays.copyOf(target, size * 2);
+        }
+        source[size] = u;
+        target[size++] = v;
+    }
+
+    public int source(int e) {
+        return source[e];
+    }
+
+    public int target(int e) {
+        return target[e];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.common;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// 二进制边流：16 字节头（magic, version, flags, reserved）后接小端序记录 (int u, int v[, double w])
+public final class EdgeStreamCodec {
+
+    public static final int MAGIC = 0x47454447;     // "GEDG"
+    public static final int VERSION = 1;
+    public static final int FLAG_WEIGHTED = 1;
+
+    private static final int HEADER_BYTES = 16;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private EdgeStreamCodec() {}
+
+    // --- 批量接收解析出的边 ---
+    public interface EdgeSink {
+        void accept(int[] src, int[] dst, double[] weights, int count);
+    }
+
+    // --- 边到达即解析：按 64KB 块读取，块内记录转成原始数组批量交给 sink，返回边数 ---
+    public static long read(InputStream in, EdgeSink sink) throws IOException {
+        byte[] header = new byte[HEADER_BYTES];
+        readFully(in, header, HEADER_BYTES);
+        ByteBuffer hb = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+        if (hb.getInt() != MAGIC) throw new IOException("Not a binary edge stream");
+        int version = hb.getInt();
+        if (version != VERSION) throw new IOException("Unsupported edge stream version " + version);
+        boolean weighted = (hb.getInt() & FLAG_WEIGHTED) != 0;
+
+        int record = weighted ? 16 : 8;
+        int perChunk = BUFFER_BYTES / record;
+        byte[] buf = new byte[perChunk * record];
+        ByteBuffer bb = ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN);
+        int[] src = new int[perChunk];
+        int[] dst = new int[perChunk];
+        double[] w = weighted ? new double[perChunk] : null;
+
+        long total = 0;
+        int filled = 0;
+        while (true) {
+            int r = in.read(buf, filled, buf.length - filled);
+            if (r < 0) break;
+            filled += r;
+            int count = filled / record;
+            if (count == 0) continue;
+            bb.clear();
+            for (int i = 0; i < count; i++) {
+                src[i] = bb.getInt();
+                dst[i] = bb.getInt();
+                if (weighted) w[i] = bb.getDouble();
+            }
+            sink.accept(src, dst, w, count);
+            total += count;
+            // 保留不完整的尾部记录
+            int consumed = count * record;
+            System.arraycopy(buf, consumed, buf, 0, filled - consumed);
+            filled -= consumed;
+        }
+        if (filled != 0) throw new EOFException("Truncated edge record at end of stream");
+        return total;
+    }
+
+    private static void readFully(InputStream in, byte[] b, int len) throws IOException {
+        int off = 0;
+        while (off < len) {
+            int r = in.read(b, off, len - off);
+            if (r < 0) throw new EOFException("Truncated edge stream header");
+            off += r;
+        }
+    }
+
+    // --- 写端：缓冲后按块写出 ---
+    public static class Writer {
+
+        private final OutputStream out;
+        private final boolean weighted;
+        private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long count;
+
+        public Writer(OutputStream out, boolean weighted) throws IOException {
+            this.out = out;
+            this.weighted = weighted;
+            buf.putInt(MAGIC).putInt(VERSION).putInt(weighted ? FLAG_WEIGHTED : 0).putInt(0);
+        }
+
+        public void write(int u, int v) throws IOException {
+            if (weighted) throw new IllegalStateException("Weighted stream requires a weight");
+            if (buf.remaining() < 8) drain();
+            buf.putInt(u).putInt(v);
+            count++;
+        }
+
+        public void write(int u, int v, double w) throws IOException {
+            if (!weighted) throw new IllegalStateException("Unweighted stream cannot carry weights");
+            if (buf.remaining() < 16) drain();
+            buf.putInt(u).putInt(v).putDouble(w);
+            count++;
+        }
+
+        private void drain() throws IOException {
+            out.write(buf.array(), 0, buf.position());
+            buf.clear();
+        }
+
+        public void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -1,391 +1,1137 @@
 package com.example.common;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class Graph {
 
+    private static final Logger log = LoggerFactory.getLogger(Graph.class);
+
     // --- CSR 结构字段 ---
     private int[] csrIndex;
     private int[] csrEdges;
     private int[] nodeMap;              // index -> realNodeId
-    private Map<Integer, Integer> nodeToIndex; // realNodeId -> index
+    private IntIntHashMap nodeToIndex;  // realNodeId -> index
     private double[] edgeWeights; // 与 csrEdges 一一对应
+    private double maxEdgeWeight;   // 安装边权时扫描一次：最大边权，存在负权或 NaN 时为 NaN（最短路类算法据此拒绝）
+
+    // --- 远端边：目标点不在本分区的边（按本地源点分组，目标为真实 ID） ---
+    private int[] remoteIndex;
+    private int[] remoteTargets;
+    private double[] remoteWeights;
+
+    // --- 转置 CSR（入边，按需构建） ---
+    private int[] inIndex;
+    private int[] inEdges;
+    private double[] inWeights;     // 与 inEdges 对齐的边权（点对点查询用，按需构建）
+
+    // --- 点对点最短路：ALT 地标表与查询引擎，随 CSR 一起失效。构建 / 打开快照后由调用方立即建表；
+    //     增量合并与重排使其失效后（landmarksStale），由之后的第一次查询在后台重建 ---
+    private volatile LandmarkIndex landmarks;
+    private volatile PointToPointSearch pathSearch;
+    private volatile int landmarkCount;
+    private volatile long landmarkSeed;
+    private volatile boolean landmarksStale;
+    private volatile boolean landmarkRebuildScheduled;
+
+
+    // --- 边缓冲（仅用于构建阶段） ---
+    private final CSRBuilder builder = new CSRBuilder();
+    private long buildPeakBytes;
+    private long buildMillis;
+
+    // --- 顶点重排：构建后对下标空间施加的局部性排列（none / degree / hub / rcm） ---
+    private volatile String vertexOrdering = VertexReordering.NONE;
+    private long reorderMillis;
+    private int[] idOrder;          // 按真实 ID 升序排列的下标（nodeMap 升序时为 null），随 nodeMap 缓存
+    private int[] idOrderNodes;
 
+    // --- 增量层：CSR 构建后的插入 / 删除先进入 delta，合并时整体并入新 CSR 并在写锁下交换；
+    //     算法持读锁运行，合并线程只在交换数组引用的瞬间等待读者退出 ---
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "graph-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ReentrantReadWriteLock topologyLock = new ReentrantReadWriteLock();
+    private final Object compactionMonitor = new Object();
+    private volatile GraphDelta delta = new GraphDelta();
+    private volatile GraphDelta compacting;     // 正在合并的封存增量（点查询仍需看到）
+    private final AtomicLong version = new AtomicLong();
+    private final Random updateRandom = new Random();
+    private volatile long compactionThreshold = 1 << 16;
+    private volatile boolean compactionScheduled;
+    private volatile boolean compactOnRead;     // 算法调用前同步合并（读到最新写入，但每次读都要付 O(n + m) 的合并）
+    private volatile long csrVersion;           // 已并入 CSR 的图版本：算法结果与按版本缓存的键以它为准
+    private long compactions;
+    private long lastCompactionMillis;
+    private long layoutEpoch;       // 构建、打开快照、清空时递增；增量合并保持下标不变，不递增
 
-    // --- 邻接表（仅用于构建阶段） ---
-    private final Map<Integer, List<Integer>> adjList = new ConcurrentHashMap<>();
+    // --- 上一次 PageRank 结果（增量 PageRank 热启动用） ---
+    private PageRankResult lastPageRank;
+    private long lastPageRankVersion = -1;
+    private long lastPageRankEpoch = -1;
+    private double lastPageRankDamping;
+    private double lastPageRankTolerance;
+
+    // --- 上一次分量标号（同一图版本的 PageRank、分量查询共用） ---
+    private ComponentLabels lastComponents;
+    private long lastComponentsVersion = -1;
 
     // --- 添加边 ---
     public void addEdge(int u, int v) {
-        adjList.computeIfAbsent(u, k -> new ArrayList<>()).add(v);
+        builder.add(u, v);
+    }
+
+    public void addEdge(int u, int v, double w) {
+        builder.add(u, v, w);
     }
 
-    // --- 构建 CSR 结构 ---
+    // --- 批量添加（用于二进制流式加载，weights 可为 null） ---
+    public void addEdges(int[] src, int[] dst, double[] weights, int count) {
+        builder.addAll(src, dst, weights, count);
+    }
+
+    // --- 整表添加（按 64K 条分批拷贝，避免逐条加锁） ---
+    public void addEdges(EdgeList edges) {
+        int batch = 1 << 16;
+        int[] src = new int[batch];
+        int[] dst = new int[batch];
+        for (int from = 0, m = edges.size(); from < m; from += batch) {
+            int count = Math.min(batch, m - from);
+            for (int i = 0; i < count; i++) {
+                src[i] = edges.source(from + i);
+                dst[i] = edges.target(from + i);
+            }
+            builder.addAll(src, dst, null, count);
+        }
+    }
+
+    // --- 构建 CSR 结构（丢弃尚未合并的增量） ---
     public void buildCSR() {
-        List<Integer> nodes = new ArrayList<>(adjList.keySet());
-        Collections.sort(nodes);
+        synchronized (compactionMonitor) {
+            topologyLock.writeLock().lock();
+            try {
+                builder.build(new Random());
+                install(builder.getCsrIndex(), builder.getCsrEdges(), builder.getEdgeWeights(), builder.getNodeMap(),
+                        builder.getNodeToIndex(), builder.getRemoteIndex(), builder.getRemoteTargets(),
+                        builder.getRemoteWeights());
+                buildPeakBytes = builder.getPeakBytes();
+                buildMillis = builder.getBuildMillis();
+                reorderMillis = 0;
+                if (!VertexReordering.NONE.equals(vertexOrdering)) {
+                    VertexReordering r = reordering(vertexOrdering);
+                    install(r.getCsrIndex(), r.getCsrEdges(), r.getEdgeWeights(), r.getNodeMap(), r.getNodeToIndex(),
+                            r.getRemoteIndex(), r.getRemoteTargets(), r.getRemoteWeights());
+                    reorderMillis = r.getMillis();
+                }
+                delta = new GraphDelta();
+                csrVersion = version.incrementAndGet();
+                layoutEpoch++;
+            } finally {
+                topologyLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void install(int[] index, int[] edges, double[] weights, int[] nodes, IntIntHashMap ids,
+                         int[] rIndex, int[] rTargets, double[] rWeights) {
+        csrIndex = index;
+        csrEdges = edges;
+        edgeWeights = weights;
+        maxEdgeWeight = maxWeight(weights);
+        nodeMap = nodes;
+        nodeToIndex = ids;
+        remoteIndex = rIndex;
+        remoteTargets = rTargets;
+        remoteWeights = rWeights;
+        inIndex = null;
+        inEdges = null;
+        inWeights = null;
+        landmarks = null;
+        landmarksStale = false;
+        pathSearch = null;
+    }
 
-        nodeToIndex = new HashMap<>();
-        for (int i = 0; i < nodes.size(); i++) {
-            nodeToIndex.put(nodes.get(i), i);
+    // --- 非负时返回最大边权（无边为 0），否则 NaN ---
+    private static double maxWeight(double[] weights) {
+        double max = 0.0;
+        if (weights == null) return max;
+        for (double w : weights) {
+            if (!(w >= 0)) return Double.NaN;
+            max = Math.max(max, w);
         }
+        return max;
+    }
 
-        int n = nodes.size();
-        csrIndex = new int[n + 1];
-        List<Integer> edges = new ArrayList<>();
+    private void requireNonNegativeWeights(String algorithm) {
+        if (Double.isNaN(maxEdgeWeight)) {
+            throw new IllegalArgumentException(algorithm + " requires non-negative edge weights");
+        }
+    }
 
-        for (int i = 0; i < n; i++) {
-            int u = nodes.get(i);
-            csrIndex[i] = edges.size();
-            for (int v : adjList.getOrDefault(u, List.of())) {
-                Integer vi = nodeToIndex.get(v);
-                if (vi != null) edges.add(vi);
-            }
+    // ---------- 增量更新 ----------
+
+    // --- 批量插入边（weights 可为 null）：CSR 未构建时进入构建缓冲，否则进入增量层，耗时只与批大小有关 ---
+    public void insertEdges(int[] src, int[] dst, double[] weights, int count) {
+        if (csrIndex == null) {
+            builder.addAll(src, dst, weights, count);
+            return;
         }
-        csrIndex[n] = edges.size();
-        csrEdges = new int[edges.size()];
-        edgeWeights = new double[edges.size()];
-        Random rand = new Random();
+        while (!delta.insertAll(src, dst, weights, count, updateRandom)) Thread.onSpinWait();
+        afterUpdate();
+    }
 
-        for (int i = 0; i < edges.size(); i++) {
-            csrEdges[i] = edges.get(i);
-            edgeWeights[i] = 1.0 + rand.nextDouble() * 9.0; // 权重 ∈ [1, 10)
+    // --- 批量删除边：删除 u -> v 的全部平行边（含尚未合并的插入） ---
+    public void deleteEdges(int[] src, int[] dst, int count) {
+        if (csrIndex == null) throw new IllegalStateException("CSR not built");
+        while (!delta.deleteAll(src, dst, count)) Thread.onSpinWait();
+        afterUpdate();
+    }
+
+    private void afterUpdate() {
+        version.incrementAndGet();
+        if (delta.getOperationCount() >= compactionThreshold) scheduleCompaction();
+    }
+
+    private void scheduleCompaction() {
+        if (compactionScheduled) return;
+        compactionScheduled = true;
+        COMPACTOR.execute(() -> {
+            compactionScheduled = false;
+            compact();
+        });
+    }
+
+    // --- 合并增量层：封存当前增量并换上新的空增量，合并期间的更新进入新增量；返回是否有增量被合并 ---
+    public boolean compact() {
+        synchronized (compactionMonitor) {
+            GraphDelta pending = delta;
+            if (csrIndex == null || pending.isEmpty()) return false;
+            // 换下增量之前读版本：此后的更新都进入新增量，合并结果至少包含到该版本为止的全部更新
+            long merging = version.get();
+            long t0 = System.nanoTime();
+            compacting = pending;
+            delta = new GraphDelta();
+            pending.seal();
+            DeltaCompactor merged = new DeltaCompactor(csrIndex, csrEdges, edgeWeights, nodeMap, nodeToIndex,
+                    remoteIndex, remoteTargets, remoteWeights, pending);
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("compact")) {
+                merged.run(job);
+            }
+            topologyLock.writeLock().lock();
+            try {
+                install(merged.getCsrIndex(), merged.getCsrEdges(), merged.getEdgeWeights(), merged.getNodeMap(),
+                        merged.getNodeToIndex(), merged.getRemoteIndex(), merged.getRemoteTargets(),
+                        merged.getRemoteWeights());
+                landmarksStale = true;
+                csrVersion = merging;
+                compacting = null;
+                compactions++;
+                lastCompactionMillis = (System.nanoTime() - t0) / 1_000_000;
+            } finally {
+                topologyLock.writeLock().unlock();
+            }
+            return true;
         }
+    }
 
-        nodeMap = nodes.stream().mapToInt(Integer::intValue).toArray();
+    // ---------- 顶点重排 ----------
 
-        // 构建完成后可释放邻接表内存（可选）
-        adjList.clear();
+    // --- 之后每次 buildCSR 都在构建完成后按该排列重排下标（none 表示保持真实 ID 升序） ---
+    public void setVertexOrdering(String ordering) {
+        this.vertexOrdering = VertexReordering.check(ordering);
     }
 
-    public void clear() {
-        adjList.clear();
-        nodeToIndex = null;
-        nodeMap = null;
-        csrIndex = null;
-        csrEdges = null;
+    public String getVertexOrdering() {
+        return vertexOrdering;
     }
 
+    public long getReorderMillis() {
+        return reorderMillis;
+    }
 
-    // --- CSR 获取邻居 ---
-    public List<Integer> getCSRNeighbors(int nodeId) {
-        Integer idx = nodeToIndex.get(nodeId);
-        if (idx == null) return List.of();
-        int start = csrIndex[idx];
-        int end = csrIndex[idx + 1];
-        List<Integer> neighbors = new ArrayList<>(end - start);
-        for (int i = start; i < end; i++) {
-            neighbors.add(nodeMap[csrEdges[i]]);
-        }
-        return neighbors;
-    }
-
-    // --- 并行 BFS 使用 CSR ---
-    public Set<Integer> parallelBFS(int startNodeId) {
-        Set<Integer> visited = ConcurrentHashMap.newKeySet();
-        Queue<Integer> queue = new ConcurrentLinkedQueue<>();
-        visited.add(startNodeId);
-        queue.add(startNodeId);
-
-        ExecutorService executor = Executors.newFixedThreadPool(4);
-        while (!queue.isEmpty()) {
-            int levelSize = queue.size();
-            List<Future<?>> futures = new ArrayList<>();
-
-            for (int i = 0; i < levelSize; i++) {
-                Integer node = queue.poll();
-                if (node == null) continue;
-                futures.add(executor.submit(() -> {
-                    for (int neighbor : getCSRNeighbors(node)) {
-                        if (visited.add(neighbor)) {
-                            queue.add(neighbor);
-                        }
-                    }
-                }));
+    // --- 对已构建的图重排（先合并增量）：下标全部改变，图版本与布局都递增，按下标存放的旧结果随之失效；
+    //     内容不变，已并入 CSR 的版本保持合并时的值 ---
+    public void reorder(String ordering) {
+        setVertexOrdering(ordering);
+        synchronized (compactionMonitor) {
+            compact();
+            if (csrIndex == null) return;
+            VertexReordering r = reordering(vertexOrdering);
+            topologyLock.writeLock().lock();
+            try {
+                install(r.getCsrIndex(), r.getCsrEdges(), r.getEdgeWeights(), r.getNodeMap(), r.getNodeToIndex(),
+                        r.getRemoteIndex(), r.getRemoteTargets(), r.getRemoteWeights());
+                landmarksStale = true;
+                reorderMillis = r.getMillis();
+                version.incrementAndGet();
+                layoutEpoch++;
+                forgetResults();
+            } finally {
+                topologyLock.writeLock().unlock();
             }
-            for (Future<?> f : futures) {
-                try { f.get(); } catch (Exception ignored) {}
+        }
+    }
+
+    private VertexReordering reordering(String ordering) {
+        VertexReordering r = new VertexReordering(csrIndex, csrEdges, edgeWeights, nodeMap,
+                remoteIndex, remoteTargets, remoteWeights, ordering);
+        try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("reorder")) {
+            r.run(job);
+        }
+        return r;
+    }
+
+    // --- 本地边两端下标差的平均值：越小说明邻居在数组中越集中 ---
+    public double getAverageEdgeSpan() {
+        topologyLock.readLock().lock();
+        try {
+            return csrIndex == null ? 0.0 : VertexReordering.averageSpan(csrIndex, csrEdges);
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
+
+    // --- 增量达到该操作数时在后台合并 ---
+    public void setCompactionThreshold(long operations) {
+        this.compactionThreshold = Math.max(1, operations);
+    }
+
+    public long getPendingUpdates() {
+        GraphDelta c = compacting;
+        return delta.getOperationCount() + (c == null ? 0 : c.getOperationCount());
+    }
+
+    public long getCompactions() {
+        return compactions;
+    }
+
+    public long getLastCompactionMillis() {
+        return lastCompactionMillis;
+    }
+
+    // 图内容版本：每次构建、打开快照、清空与增量更新都会递增（合并不改变内容，不递增）
+    public long getVersion() {
+        return version.get();
+    }
+
+    // --- 算法调用前是否同步合并增量：默认不合并，算法在已合并的 CSR 上运行，最近的更新在后台合并后才可见；
+    //     打开后每次调用都读到最新写入，但有未合并增量时要先付一次 O(n + m) 的合并 ---
+    public void setCompactOnRead(boolean compactOnRead) {
+        this.compactOnRead = compactOnRead;
+    }
+
+    public boolean isCompactOnRead() {
+        return compactOnRead;
+    }
+
+    // 算法结果对应的图版本（按版本缓存结果时用作键）：同步合并时为最新版本，否则为已并入 CSR 的版本
+    public long getResultVersion() {
+        return compactOnRead ? version.get() : csrVersion;
+    }
+
+    // --- 算法入口：加读锁（调用方在 finally 中释放）。有未合并的增量时，compactOnRead 下先同步合并，
+    //     否则交给后台合并、本次在当前 CSR 上运行；嵌套调用时已持读锁，不再合并。点查询不合并，直接加读锁 ---
+    private void lockCurrent() {
+        if (topologyLock.getReadHoldCount() == 0 && !delta.isEmpty()) {
+            if (compactOnRead) compact();
+            else scheduleCompaction();
+        }
+        topologyLock.readLock().lock();
+    }
+
+    // --- 点查询在读锁下先取 delta 再取 compacting：合并先设 compacting 再换 delta，清空 compacting 需要写锁，
+    //     因此读到的两者要么是同一个（尚未换上新增量），要么正好是新旧两层 ---
+    private GraphDelta pendingBehind(GraphDelta active) {
+        GraphDelta pending = compacting;
+        return pending == active ? null : pending;
+    }
+
+    // --- 保存 CSR 快照（含远端边与 ID 哈希表；先合并增量） ---
+    public void saveSnapshot(Path path) throws IOException {
+        GraphSnapshot s = new GraphSnapshot();
+        compact();
+        lockCurrent();
+        try {
+            if (csrIndex == null) throw new IllegalStateException("CSR not built");
+            s.csrIndex = csrIndex;
+            s.csrEdges = csrEdges;
+            s.nodeMap = nodeMap;
+            s.edgeWeights = edgeWeights;
+            s.remoteIndex = remoteIndex;
+            s.remoteTargets = remoteTargets;
+            s.remoteWeights = remoteWeights;
+            s.nodeToIndex = nodeToIndex;
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+        s.save(path);
+    }
+
+    // --- 从快照恢复 CSR，替换当前图（无需重新加载边与 buildCSR） ---
+    public void openSnapshot(Path path) throws IOException {
+        GraphSnapshot s = GraphSnapshot.open(path);
+        synchronized (compactionMonitor) {
+            topologyLock.writeLock().lock();
+            try {
+                clear();
+                layoutEpoch++;
+                install(s.csrIndex, s.csrEdges, s.edgeWeights, s.nodeMap, s.nodeToIndex,
+                        s.remoteIndex, s.remoteTargets, s.remoteWeights);
+                csrVersion = version.get();
+            } finally {
+                topologyLock.writeLock().unlock();
             }
         }
-        executor.shutdown();
-        return visited;
     }
 
-    // --- 全图并行 BFS 使用 CSR ---
-    public Set<Integer> fullParallelBFS() {
-        Set<Integer> visited = ConcurrentHashMap.newKeySet();
-        ExecutorService executor = Executors.newFixedThreadPool(4);
-        List<Future<?>> tasks = new ArrayList<>();
-
-        for (int nodeId : nodeToIndex.keySet()) {
-            if (visited.add(nodeId)) {
-                tasks.add(executor.submit(() -> {
-                    Queue<Integer> queue = new ArrayDeque<>();
-                    queue.add(nodeId);
-                    while (!queue.isEmpty()) {
-                        Integer current = queue.poll();
-                        for (Integer neighbor : getCSRNeighbors(current)) {
-                            if (visited.add(neighbor)) {
-                                queue.add(neighbor);
-                            }
-                        }
-                    }
-                }));
+    public void clear() {
+        synchronized (compactionMonitor) {
+            topologyLock.writeLock().lock();
+            try {
+                builder.clear();
+                install(null, null, null, null, null, null, null, null);
+                delta = new GraphDelta();
+                csrVersion = version.incrementAndGet();
+                layoutEpoch++;
+                forgetResults();
+            } finally {
+                topologyLock.writeLock().unlock();
             }
         }
+    }
+
+    private synchronized void forgetResults() {
+        lastPageRank = null;
+        lastComponents = null;
+    }
+
+    public int getNodeCount() {
+        return nodeMap == null ? 0 : nodeMap.length;
+    }
 
-        for (Future<?> task : tasks) {
-            try { task.get(); } catch (Exception ignored) {}
+    public int getEdgeCount() {
+        return csrEdges == null ? 0 : csrEdges.length;
+    }
+
+    public int getRemoteEdgeCount() {
+        return remoteTargets == null ? 0 : remoteTargets.length;
+    }
+
+    // --- 当前常驻的 CSR 结构（含转置、远端边与 ID 映射）占用的数组字节数 ---
+    public long getMemoryBytes() {
+        long bytes = 4L * (length(csrIndex) + length(csrEdges) + length(nodeMap) + length(remoteIndex)
+                + length(remoteTargets) + length(inIndex) + length(inEdges))
+                + 8L * (length(edgeWeights) + length(remoteWeights) + length(inWeights));
+        LandmarkIndex lm = landmarks;
+        if (lm != null) bytes += lm.memoryBytes();
+        IntIntHashMap map = nodeToIndex;
+        return map == null ? bytes : bytes + map.memoryBytes();
+    }
+
+    private static int length(int[] a) {
+        return a == null ? 0 : a.length;
+    }
+
+    private static int length(double[] a) {
+        return a == null ? 0 : a.length;
+    }
+
+    // 最近一次 buildCSR 的估算峰值内存（字节）与耗时（毫秒）
+    public long getBuildPeakBytes() {
+        return buildPeakBytes;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    // --- 下标 <-> 真实 ID ---
+    public int getNodeId(int index) {
+        return nodeMap[index];
+    }
+
+    public int indexOf(int nodeId) {
+        return nodeToIndex == null ? -1 : nodeToIndex.get(nodeId);
+    }
+
+    // --- 构建转置 CSR：逆序回填，入边按源点下标升序 ---
+    private synchronized void ensureTranspose() {
+        if (inIndex != null) return;
+        int n = nodeMap.length;
+        int[] idx = new int[n + 1];
+        for (int v : csrEdges) idx[v]++;
+        for (int i = 1; i < n; i++) idx[i] += idx[i - 1];
+        idx[n] = csrEdges.length;
+        int[] edges = new int[csrEdges.length];
+        for (int u = n - 1; u >= 0; u--) {
+            for (int j = csrIndex[u + 1] - 1; j >= csrIndex[u]; j--) {
+                edges[--idx[csrEdges[j]]] = u;
+            }
         }
-        executor.shutdown();
-        return visited;
+        inEdges = edges;
+        inIndex = idx;
     }
 
-    // --- 并行 DFS 使用 CSR ---
-    public Set<Integer> parallelDFS(int startNodeId) {
-        Set<Integer> visited = ConcurrentHashMap.newKeySet();
-        Deque<Integer> stack = new ConcurrentLinkedDeque<>();
-        visited.add(startNodeId);
-        stack.push(startNodeId);
+    // --- 反向边权：按 ensureTranspose 的同一回填顺序写入，与 inEdges 逐位对齐 ---
+    private synchronized void ensureReverseWeights() {
+        ensureTranspose();
+        if (inWeights != null) return;
+        int n = nodeMap.length;
+        int[] cursor = Arrays.copyOfRange(inIndex, 1, n + 1);
+        double[] w = new double[csrEdges.length];
+        for (int u = n - 1; u >= 0; u--) {
+            for (int j = csrIndex[u + 1] - 1; j >= csrIndex[u]; j--) {
+                w[--cursor[csrEdges[j]]] = edgeWeights[j];
+            }
+        }
+        inWeights = w;
+    }
 
-        ExecutorService executor = Executors.newFixedThreadPool(4);
 
-        while (!stack.isEmpty()) {
-            int levelSize = stack.size();
-            List<Future<?>> futures = new ArrayList<>();
+    // --- CSR 获取邻居：叠加尚未合并的增量（墓碑屏蔽底层边，新增边直接列出，目标不区分本地 / 远端） ---
+    public List<Integer> getCSRNeighbors(int nodeId) {
+        topologyLock.readLock().lock();
+        try {
+            GraphDelta active = delta;
+            GraphDelta pending = pendingBehind(active);
+            List<Integer> neighbors = new ArrayList<>();
+            int idx = nodeToIndex == null ? -1 : nodeToIndex.get(nodeId);
+            if (idx >= 0) {
+                for (int i = csrIndex[idx]; i < csrIndex[idx + 1]; i++) {
+                    int v = nodeMap[csrEdges[i]];
+                    if ((pending == null || !pending.isRemoved(nodeId, v)) && !active.isRemoved(nodeId, v)) {
+                        neighbors.add(v);
+                    }
+                }
+            }
+            if (pending != null) {
+                for (int v : pending.added(nodeId)) {
+                    if (!active.isRemoved(nodeId, v)) neighbors.add(v);
+                }
+            }
+            for (int v : active.added(nodeId)) neighbors.add(v);
+            return neighbors;
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
 
-            for (int i = 0; i < levelSize; i++) {
-                Integer node = stack.poll();
-                if (node == null) continue;
+    // --- 方向优化并行 BFS 使用 CSR（结果按下标存放） ---
+    public BFSResult parallelBFS(int startNodeId) {
+        lockCurrent();
+        try {
+            int n = nodeMap.length;
+            BFSResult result = new BFSResult(n);
+            result.nodeIds = nodeMap;
+            int start = nodeToIndex.get(startNodeId);
+            if (start < 0) return result;
+            ensureTranspose();
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("bfs")) {
+                new DirectionOptimizingBFS(csrIndex, csrEdges, inIndex, inEdges, new AtomicBitSet(n), result, job)
+                        .run(start);
+            }
+            return result;
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
 
-                futures.add(executor.submit(() -> {
-                    for (Integer neighbor : getCSRNeighbors(node)) {
-                        if (visited.add(neighbor)) {
-                            stack.push(neighbor);
-                        }
+    // --- 全图方向优化 BFS：共享 visited，按真实 ID 升序从每个未访问顶点出发，得到 BFS 森林
+    //     （根的顺序与下标排列无关，重排或合并追加顶点后森林划分与层数不变） ---
+    public BFSResult fullParallelBFS() {
+        lockCurrent();
+        try {
+            int n = nodeMap.length;
+            BFSResult result = new BFSResult(n);
+            result.nodeIds = nodeMap;
+            ensureTranspose();
+            int[] roots = idOrder();
+            AtomicBitSet visited = new AtomicBitSet(n);
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("bfs_all")) {
+                DirectionOptimizingBFS bfs =
+                        new DirectionOptimizingBFS(csrIndex, csrEdges, inIndex, inEdges, visited, result, job);
+                if (roots == null) {
+                    for (int root = visited.nextClearBit(0); root >= 0; root = visited.nextClearBit(root + 1)) {
+                        bfs.run(root);
                     }
-                }));
+                } else {
+                    for (int root : roots) bfs.run(root);
+                }
             }
+            return result;
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
 
-            for (Future<?> f : futures) {
-                try { f.get(); } catch (Exception e) { e.printStackTrace(); }
+    // --- 按真实 ID 升序排列的下标；nodeMap 本身升序（未重排且没有追加）时返回 null ---
+    private synchronized int[] idOrder() {
+        int[] nodes = nodeMap;
+        if (idOrderNodes == nodes) return idOrder;
+        int[] order = null;
+        for (int i = 1; i < nodes.length; i++) {
+            if (nodes[i] > nodes[i - 1]) continue;
+            long[] keyed = new long[nodes.length];
+            for (int j = 0; j < nodes.length; j++) keyed[j] = ((long) nodes[j] << 32) | j;
+            Arrays.sort(keyed);
+            order = new int[nodes.length];
+            for (int j = 0; j < nodes.length; j++) order[j] = (int) keyed[j];
+            break;
+        }
+        idOrder = order;
+        idOrderNodes = nodes;
+        return order;
+    }
+
+    // --- 多源位并行 BFS：每 64 个源一批，一次 CSR 扫描同时推进整批；不在本图中的源对应行全为 -1 ---
+    public MultiSourceBFSResult multiSourceBFS(int[] sourceNodeIds) {
+        lockCurrent();
+        try {
+            MultiSourceBFSResult result = new MultiSourceBFSResult(sourceNodeIds.clone());
+            int[] sources = indicesOf(sourceNodeIds);
+            ensureTranspose();
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("msbfs")) {
+                MultiSourceBFS bfs = new MultiSourceBFS(csrIndex, csrEdges, inIndex, inEdges, job);
+                LevelRows levels = new LevelRows(Math.min(MultiSourceBFS.BATCH, sources.length), nodeMap.length);
+                for (int from = 0; from < sources.length; from += MultiSourceBFS.BATCH) {
+                    int count = Math.min(MultiSourceBFS.BATCH, sources.length - from);
+                    bfs.run(sources, from, count, levels, result);
+                    for (int i = 0; i < count; i++) result.distance[from + i] = levels.toIntRow(i);
+                }
             }
+            return result;
+        } finally {
+            topologyLock.readLock().unlock();
         }
+    }
 
-        executor.shutdown();
-        return visited;
+    // --- 多源 BFS 距离矩阵：各批复用同一组紧凑行（按最大层数取 1 / 2 / 4 字节），算完立即写出，
+    //     列为本图全部节点（下标顺序）；返回统计（不含行） ---
+    public MultiSourceBFSResult writeDistanceMatrix(int[] sourceNodeIds, OutputStream out) throws IOException {
+        lockCurrent();
+        try {
+            MultiSourceBFSResult result = new MultiSourceBFSResult(sourceNodeIds.clone());
+            int[] sources = indicesOf(sourceNodeIds);
+            ensureTranspose();
+            DistanceMatrixWriter writer = new DistanceMatrixWriter(out, sources.length, nodeMap);
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("msbfs")) {
+                MultiSourceBFS bfs = new MultiSourceBFS(csrIndex, csrEdges, inIndex, inEdges, job);
+                LevelRows levels = new LevelRows(Math.min(MultiSourceBFS.BATCH, sources.length), nodeMap.length);
+                for (int from = 0; from < sources.length; from += MultiSourceBFS.BATCH) {
+                    int count = Math.min(MultiSourceBFS.BATCH, sources.length - from);
+                    bfs.run(sources, from, count, levels, result);
+                    for (int i = 0; i < count; i++) writer.writeRow(result.sources[from + i], levels, i);
+                }
+            }
+            writer.flush();
+            return result;
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
+
+    private int[] indicesOf(int[] nodeIds) {
+        int[] idx = new int[nodeIds.length];
+        for (int i = 0; i < nodeIds.length; i++) idx[i] = nodeToIndex.get(nodeIds[i]);
+        return idx;
+    }
+
+    // --- 并行 DFS 使用 CSR ---
+    public Set<Integer> parallelDFS(int startNodeId) {
+        lockCurrent();
+        try {
+            AtomicBitSet visited = new AtomicBitSet(nodeMap.length);
+            int start = nodeToIndex.get(startNodeId);
+            if (start < 0) return Set.of();
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("dfs")) {
+                new ParallelDFS(csrIndex, csrEdges, visited, job).run(start);
+            }
+            return toNodeIdSet(visited);
+        } finally {
+            topologyLock.readLock().unlock();
+        }
     }
 
     // --- 全图 DFS 使用 CSR ---
     public Set<Integer> fullParallelDFS() {
-        Set<Integer> visited = ConcurrentHashMap.newKeySet();
-        ExecutorService executor = Executors.newFixedThreadPool(4);
-        List<Future<?>> tasks = new ArrayList<>();
-
-        for (int nodeId : nodeToIndex.keySet()) {
-            if (visited.add(nodeId)) {
-                tasks.add(executor.submit(() -> {
-                    Deque<Integer> stack = new ArrayDeque<>();
-                    stack.push(nodeId);
-                    while (!stack.isEmpty()) {
-                        Integer current = stack.pop();
-                        for (Integer neighbor : getCSRNeighbors(current)) {
-                            if (visited.add(neighbor)) {
-                                stack.push(neighbor);
-                            }
-                        }
-                    }
-                }));
+        lockCurrent();
+        try {
+            return toNodeIdSet(fullDFSVisited());
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
+
+    // --- 全图 DFS，结果为节点 ID 压缩位图 ---
+    public CompressedBitmap fullParallelDFSBitmap() {
+        lockCurrent();
+        try {
+            AtomicBitSet visited = fullDFSVisited();
+            int[] ids = new int[visited.cardinality()];
+            int c = 0;
+            for (int i = 0; i < nodeMap.length; i++) {
+                if (visited.get(i)) ids[c++] = nodeMap[i];
             }
+            return CompressedBitmap.of(ids, c);
+        } finally {
+            topologyLock.readLock().unlock();
         }
+    }
 
-        for (Future<?> task : tasks) {
-            try { task.get(); } catch (Exception e) { e.printStackTrace(); }
+    public int fullParallelDFSCount() {
+        lockCurrent();
+        try {
+            return fullDFSVisited().cardinality();
+        } finally {
+            topologyLock.readLock().unlock();
         }
+    }
 
-        executor.shutdown();
+    private AtomicBitSet fullDFSVisited() {
+        AtomicBitSet visited = new AtomicBitSet(nodeMap.length);
+        try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("dfs_all")) {
+            new ParallelDFS(csrIndex, csrEdges, visited, job).runAll();
+        }
         return visited;
     }
 
+    // --- BFS 结果中已到达节点的 ID 压缩位图：按结果自带的 nodeMap 快照换算，不受之后的合并 / 重排影响
+    //     （nodeMap 在未重排且没有追加时升序，无需再排序） ---
+    public CompressedBitmap toNodeIdBitmap(BFSResult result) {
+        int[] ids = new int[result.reached];
+        int c = 0;
+        for (int i = 0; i < result.distance.length; i++) {
+            if (result.distance[i] >= 0) ids[c++] = result.nodeIds[i];
+        }
+        return CompressedBitmap.of(ids, c);
+    }
+
+    private Set<Integer> toNodeIdSet(AtomicBitSet bits) {
+        Set<Integer> ids = new HashSet<>(bits.cardinality() * 2);
+        for (int i = 0; i < nodeMap.length; i++) {
+            if (bits.get(i)) ids.add(nodeMap[i]);
+        }
+        return ids;
+    }
+
     // --- 提取连通分量（BFS） ---
     public List<Set<Integer>> getConnectedComponentsBFS() {
-        Set<Integer> visited = ConcurrentHashMap.newKeySet();
-        List<Set<Integer>> components = new ArrayList<>();
-
-        for (int nodeId : nodeToIndex.keySet()) {
-            if (visited.contains(nodeId)) continue;
-
-            Set<Integer> component = ConcurrentHashMap.newKeySet();
-            Queue<Integer> queue = new ArrayDeque<>();
-            queue.add(nodeId);
-            visited.add(nodeId);
-            component.add(nodeId);
-
-            while (!queue.isEmpty()) {
-                Integer current = queue.poll();
-                for (Integer neighbor : getCSRNeighbors(current)) {
-                    if (visited.add(neighbor)) {
-                        queue.add(neighbor);
-                        component.add(neighbor);
-                    }
-                }
+        lockCurrent();
+        try {
+            ComponentLabels labels = currentComponentLabels();
+            List<Set<Integer>> components = new ArrayList<>(labels.count);
+            for (int c = 0; c < labels.count; c++) components.add(new HashSet<>(labels.sizes[c] * 2));
+            for (int i = 0; i < nodeMap.length; i++) {
+                components.get(labels.label[i]).add(nodeMap[i]);
             }
+            return components;
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
 
-            components.add(component);
+    // --- 分量标号：按真实 ID 升序逐个未访问根做 BFS（与逐个 BFS 划分一致），
+    //     再沿父指针倍增跳到根，根按真实 ID 顺序编号；同一图版本复用上次结果（调用方不得修改） ---
+    public ComponentLabels componentLabels() {
+        lockCurrent();
+        try {
+            return currentComponentLabels();
+        } finally {
+            topologyLock.readLock().unlock();
         }
+    }
 
-        return components;
+    // 持读锁调用：版本取已并入当前 CSR 的版本；缓存的标号还必须正是按当前 nodeMap 计算的
+    //     （合并可能追加顶点，布局变长），才可直接复用
+    private ComponentLabels currentComponentLabels() {
+        long v = csrVersion;
+        synchronized (this) {
+            if (lastComponents != null && lastComponentsVersion == v && lastComponents.nodeIds == nodeMap) {
+                return lastComponents;
+            }
+        }
+        ComponentLabels labels = computeComponentLabels();
+        synchronized (this) {
+            lastComponents = labels;
+            lastComponentsVersion = v;
+        }
+        return labels;
+    }
+
+    private ComponentLabels computeComponentLabels() {
+        BFSResult forest = fullParallelBFS();
+        int n = nodeMap.length;
+        int[] label = forest.parent;
+        int chunks = Math.max(1, (n + 4095) / 4096);
+        try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("components")) {
+            boolean[] changed = new boolean[chunks];
+            boolean any = true;
+            while (any) {
+                job.parallelFor(chunks, c -> {
+                    boolean ch = false;
+                    for (int v = c * 4096, hi = Math.min(n, v + 4096); v < hi; v++) {
+                        int p = label[v];
+                        int pp = label[p];
+                        if (p != pp) {
+                            label[v] = pp;
+                            ch = true;
+                        }
+                    }
+                    changed[c] = ch;
+                });
+                any = false;
+                for (boolean ch : changed) any |= ch;
+            }
+        }
+        int[] order = idOrder();
+        int[] rootId = new int[n];
+        int count = 0;
+        for (int k = 0; k < n; k++) {
+            int v = order == null ? k : order[k];
+            if (label[v] == v) rootId[v] = count++;
+        }
+        for (int v = 0; v < n; v++) label[v] = rootId[label[v]];
+        ComponentLabels labels = new ComponentLabels(label, count);
+        labels.nodeIds = nodeMap;
+        return labels;
     }
 
     // --- 获取边列表（用于主控归并） ---
     public List<int[]> getAllEdges() {
-        List<int[]> edges = new ArrayList<>();
-        if (csrIndex == null || csrEdges == null) return List.of();
+        lockCurrent();
+        try {
+            List<int[]> edges = new ArrayList<>();
+            if (csrIndex == null || csrEdges == null) return List.of();
 
-        for (int i = 0; i < nodeMap.length; i++) {
-            int u = nodeMap[i];
-            for (int j = csrIndex[i]; j < csrIndex[i + 1]; j++) {
-                int v = nodeMap[csrEdges[j]];
-                edges.add(new int[]{u, v});
+            for (int i = 0; i < nodeMap.length; i++) {
+                int u = nodeMap[i];
+                for (int j = csrIndex[i]; j < csrIndex[i + 1]; j++) {
+                    int v = nodeMap[csrEdges[j]];
+                    edges.add(new int[]{u, v});
+                }
             }
+            return edges;
+        } finally {
+            topologyLock.readLock().unlock();
         }
-        return edges;
     }
 
-    public Map<Integer, Double> computePageRank(Set<Integer> component, int maxIter, double damping) {
-        Set<Integer> compSet = new HashSet<>(component);
-        int n = nodeMap.length;
-        double[] rank = new double[n];
-        double[] next = new double[n];
-        boolean[] active = new boolean[n];
-        int[] outDegree = new int[n];
-
-        // 初始化：计算出度和激活节点
-        for (int i = 0; i < n; i++) {
-            int nodeId = nodeMap[i];
-            if (compSet.contains(nodeId)) {
-                active[i] = true;
-                rank[i] = 1.0 / component.size();
-                outDegree[i] = csrIndex[i + 1] - csrIndex[i];
-            }
-        }
-
-        // 主迭代
-        for (int iter = 0; iter < maxIter; iter++) {
-            Arrays.fill(next, 0.0);
-            for (int i = 0; i < n; i++) {
-                if (!active[i] || outDegree[i] == 0) continue;
-                double share = rank[i] / outDegree[i];
-                int start = csrIndex[i];
-                int end = csrIndex[i + 1];
-                for (int j = start; j < end; j++) {
-                    next[csrEdges[j]] += damping * share;
+    // --- 单趟并行 PageRank：所有分量一次拉取式扫描，L1 收敛或达到 maxIter 停止 ---
+    public PageRankResult pageRank(double damping, double tolerance, int maxIter) {
+        lockCurrent();
+        try {
+            return currentPageRank(damping, tolerance, maxIter);
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
+
+    private static final double BASELINE_TOLERANCE = 0.25;
+
+    // 持读锁调用
+    private PageRankResult currentPageRank(double damping, double tolerance, int maxIter) {
+        long v = csrVersion;
+        ComponentLabels components = currentComponentLabels();
+        ensureTranspose();
+        PageRankResult result;
+        try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("pagerank")) {
+            result = new PageRankEngine(csrIndex, inIndex, inEdges, components, job).run(damping, tolerance, maxIter);
+        }
+        rememberPageRank(result, v, damping, tolerance);
+        return result;
+    }
+
+    // --- 增量 PageRank：图版本未变且参数相同时直接返回上次结果；同一下标布局上（其间只有增量合并）
+    //     从上次排名热启动做残差推送；否则完整计算。版本取已并入 CSR 的版本 ---
+    public PageRankResult incrementalPageRank(double damping, double tolerance, int maxIter) {
+        lockCurrent();
+        try {
+            long v = csrVersion;
+            PageRankResult previous;
+            synchronized (this) {
+                boolean sameDamping = lastPageRank != null && lastPageRankDamping == damping;
+                if (sameDamping && lastPageRankVersion == v && lastPageRankTolerance <= tolerance) {
+                    PageRankResult cached = new PageRankResult(lastPageRank.rank, lastPageRank.components);
+                    cached.mode = PageRankResult.CACHED;
+                    cached.residual = lastPageRank.residual;
+                    return cached;
                 }
+                previous = sameDamping && lastPageRankEpoch == layoutEpoch ? lastPageRank : null;
             }
+            // 基线收敛得更紧，给之后的增量推送留出余量（否则上次遗留的残差已接近 tolerance，只能全图清理）
+            if (previous == null) return currentPageRank(damping, tolerance * BASELINE_TOLERANCE, maxIter);
 
-            double leak = 0.0;
-            for (int i = 0; i < n; i++) {
-                if (active[i]) leak += rank[i] * (outDegree[i] == 0 ? 1.0 : 0.0);
+            ComponentLabels components = currentComponentLabels();
+            ensureTranspose();
+            PageRankResult result;
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("pagerank")) {
+                PageRankEngine engine = new PageRankEngine(csrIndex, inIndex, inEdges, components, job);
+                result = new IncrementalPageRank(csrIndex, csrEdges, engine, components)
+                        .run(previous, damping, tolerance, maxIter);
             }
+            rememberPageRank(result, v, damping, tolerance);
+            return result;
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
 
-            double correction = (1.0 - damping + damping * leak) / component.size();
-            for (int i = 0; i < n; i++) {
-                if (active[i]) {
-                    next[i] += correction;
-                }
-            }
+    private synchronized void rememberPageRank(PageRankResult result, long v, double damping, double tolerance) {
+        lastPageRank = result;
+        lastPageRankVersion = v;
+        lastPageRankEpoch = layoutEpoch;
+        lastPageRankDamping = damping;
+        lastPageRankTolerance = tolerance;
+    }
 
-            double[] tmp = rank;
-            rank = next;
-            next = tmp;
+    // --- 分布式 BFS 的本地分区状态 ---
+    public PartitionedBFS partitionedBFS(OwnerMap owners, int self, boolean directionOptimizing) {
+        lockCurrent();
+        try {
+            ensureTranspose();
+            PartitionedBFS state = new PartitionedBFS(csrIndex, csrEdges, inIndex, inEdges, remoteIndex,
+                    remoteTargets, nodeToIndex, owners, self, directionOptimizing);
+            state.getResult().nodeIds = nodeMap;
+            return state;
+        } finally {
+            topologyLock.readLock().unlock();
         }
+    }
+
+    // --- 分布式连通分量的本地分区状态：构造时即完成本地合并 ---
+    public PartitionedComponents partitionedComponents() {
+        lockCurrent();
+        try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("cc")) {
+            return new PartitionedComponents(csrIndex, csrEdges, nodeMap, remoteIndex, remoteTargets,
+                    nodeToIndex, job);
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
+
+    // --- 分布式 PageRank 的本地分区状态（远端边按 owners 路由） ---
+    public PartitionedPageRank partitionedPageRank(OwnerMap owners, int self) {
+        lockCurrent();
+        try {
+            ensureTranspose();
+            return new PartitionedPageRank(csrIndex, inIndex, inEdges, remoteIndex, remoteTargets,
+                    nodeMap, nodeToIndex, owners, self);
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
 
-        // 输出
-        Map<Integer, Double> result = new HashMap<>();
-        for (int i = 0; i < n; i++) {
-            if (active[i]) {
-                result.put(nodeMap[i], rank[i]);
+    // --- 并行 Borůvka 最小生成森林（边按无向处理），端点为节点 ID ---
+    public SpanningForest minimumSpanningTree() {
+        lockCurrent();
+        try {
+            SpanningForest forest;
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("mst")) {
+                forest = new BoruvkaMST(csrIndex, csrEdges, edgeWeights, job).run();
             }
+            for (int i = 0; i < forest.edgeCount; i++) {
+                forest.source[i] = nodeMap[forest.source[i]];
+                forest.target[i] = nodeMap[forest.target[i]];
+            }
+            return forest;
+        } finally {
+            topologyLock.readLock().unlock();
         }
-        return result;
     }
 
-    public List<double[]> minimumSpanningTree() {
-        List<double[]> weightedEdges = new ArrayList<>();
-        Set<String> seen = new HashSet<>();
+    // --- 跨分区边的目标 ID 按归属 worker 分组（升序去重），供分布式 MST 向归属 worker 确认目标是否存在 ---
+    public int[][] remoteTargetsByOwner(OwnerMap owners) {
+        lockCurrent();
+        try {
+            int workers = owners.getNumWorkers();
+            long[] keys = new long[remoteTargets.length];
+            for (int e = 0; e < keys.length; e++) {
+                keys[e] = ((long) owners.ownerOf(remoteTargets[e]) << 32) | (remoteTargets[e] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(keys);
+            int[] counts = new int[workers];
+            int distinct = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (i > 0 && keys[i] == keys[i - 1]) continue;
+                keys[distinct++] = keys[i];
+                counts[(int) (keys[i] >>> 32)]++;
+            }
+            int[][] byOwner = new int[workers][];
+            int pos = 0;
+            for (int w = 0; w < workers; w++) {
+                byOwner[w] = new int[counts[w]];
+                for (int i = 0; i < counts[w]; i++) byOwner[w][i] = (int) keys[pos++];
+            }
+            return byOwner;
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
 
-        for (int i = 0; i < nodeMap.length; i++) {
-            int u = nodeMap[i];
-            for (int j = csrIndex[i]; j < csrIndex[i + 1]; j++) {
-                int v = nodeMap[csrEdges[j]];
-                double w = edgeWeights[j];
-
-                // 去重无向边
-                String key = u < v ? u + "_" + v : v + "_" + u;
-                if (seen.add(key)) {
-                    weightedEdges.add(new double[]{u, v, w});
+    // --- 分布式 MST 的候选边：本地最小生成森林 + 目标确实存在的跨分区边，以带权二进制边流写出，返回边数。
+    //     existing 为归属 worker 确认存在的远端目标 ID（升序）；归属本 worker 的远端目标全局不存在，
+    //     与分布式 PageRank 一样丢弃，避免主控把它们当作顶点并入生成树 ---
+    public long writeSpanningCandidates(int[] existing, OutputStream out) throws IOException {
+        lockCurrent();
+        try {
+            SpanningForest forest = minimumSpanningTree();
+            EdgeStreamCodec.Writer writer = new EdgeStreamCodec.Writer(out, true);
+            for (int i = 0; i < forest.edgeCount; i++) {
+                writer.write(forest.source[i], forest.target[i], forest.weight[i]);
+            }
+            for (int u = 0; u < nodeMap.length; u++) {
+                for (int e = remoteIndex[u]; e < remoteIndex[u + 1]; e++) {
+                    if (Arrays.binarySearch(existing, remoteTargets[e]) < 0) continue;
+                    writer.write(nodeMap[u], remoteTargets[e], remoteWeights[e]);
                 }
             }
+            writer.flush();
+            return writer.getCount();
+        } finally {
+            topologyLock.readLock().unlock();
         }
+    }
 
-        weightedEdges.sort(Comparator.comparingDouble(e -> e[2]));
-
-        Map<Integer, Integer> parent = new HashMap<>();
-        for (int node : nodeMap) parent.put(node, node);
+    public ShortestPathResult singleSourceShortestPath(int startNodeId) {
+        return singleSourceShortestPath(startNodeId, Double.POSITIVE_INFINITY, 0.0);
+    }
 
-        List<double[]> mst = new ArrayList<>();
-        for (double[] edge : weightedEdges) {
-            int u = (int) edge[0], v = (int) edge[1];
-            int pu = find(parent, u), pv = find(parent, v);
-            if (pu != pv) {
-                mst.add(edge);
-                parent.put(pu, pv);
+    // --- Delta-stepping 最短路：按 CSR 边位置读取权重，距离为精确 double；bound 为提前终止的距离上界 ---
+    public ShortestPathResult singleSourceShortestPath(int startNodeId, double bound, double delta) {
+        lockCurrent();
+        try {
+            requireNonNegativeWeights("Delta-stepping");
+            int start = nodeToIndex.get(startNodeId);
+            ShortestPathResult result;
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("sssp")) {
+                result = new DeltaSteppingSSSP(csrIndex, csrEdges, edgeWeights, maxEdgeWeight, delta, bound, job)
+                        .run(start);
             }
+            result.nodeIds = nodeMap;
+            return result;
+        } finally {
+            topologyLock.readLock().unlock();
         }
-        return mst;
     }
 
-    private int find(Map<Integer, Integer> parent, int x) {
-        if (parent.get(x) != x) parent.put(x, find(parent, parent.get(x)));
-        return parent.get(x);
+    // ---------- 点对点最短路 ----------
+
+    // --- 地标数与选点种子（count <= 0 关闭）：不立即构建，buildCSR / openSnapshot 之后由调用方 prepareLandmarks；
+    //     合并或重排后的第一次点对点查询在后台重建，重建完成前查询不带地标。同一图与种子选出的地标相同 ---
+    public void setLandmarks(int count, long seed) {
+        landmarkCount = Math.max(0, count);
+        landmarkSeed = seed;
+    }
+
+    public int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    // --- 立即构建 ALT 地标表（同时记下地标数与种子） ---
+    public void prepareLandmarks(int count, long seed) {
+        setLandmarks(count, seed);
+        buildLandmarks();
     }
 
-    public Map<Integer, Integer> singleSourceShortestPath(int start) {
-        Map<Integer, Integer> dist = new HashMap<>();
-        for (int node : nodeMap) dist.put(node, Integer.MAX_VALUE);
-        dist.put(start, 0);
+    private void buildLandmarks() {
+        lockCurrent();
+        try {
+            if (csrIndex == null || landmarkCount == 0) {
+                landmarks = null;
+                pathSearch = null;
+                return;
+            }
+            requireNonNegativeWeights("Landmark index");
+            ensureReverseWeights();
+            LandmarkIndex built;
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("landmarks")) {
+                built = LandmarkIndex.build(csrIndex, csrEdges, edgeWeights, inIndex, inEdges, inWeights,
+                        maxEdgeWeight, landmarkCount, new Random(landmarkSeed), job);
+            }
+            landmarks = built;
+            pathSearch = null;
+        } finally {
+            topologyLock.readLock().unlock();
+        }
+    }
 
-        PriorityQueue<int[]> pq = new PriorityQueue<>(Comparator.comparingInt(a -> a[1]));
-        pq.add(new int[]{start, 0});
+    // --- 每次失效只重建一次：负权图上建表失败时记日志，保留配置的地标数，下一次合并或重建后再尝试 ---
+    private void scheduleLandmarkBuild() {
+        if (landmarkCount == 0 || landmarkRebuildScheduled) return;
+        landmarkRebuildScheduled = true;
+        landmarksStale = false;
+        COMPACTOR.execute(() -> {
+            try {
+                buildLandmarks();
+            } catch (IllegalArgumentException e) {
+                log.warn("Landmark rebuild skipped: {}", e.getMessage());
+            } finally {
+                landmarkRebuildScheduled = false;
+            }
+        });
+    }
 
-        while (!pq.isEmpty()) {
-            int[] curr = pq.poll();
-            int u = curr[0], d = curr[1];
-            if (d > dist.get(u)) continue;
+    public LandmarkIndex getLandmarks() {
+        return landmarks;
+    }
 
-            for (int v : getCSRNeighbors(u)) {
-                double weight = getEdgeWeight(u, v);
-                int alt = d + (int)Math.round(weight);
-                if (alt < dist.get(v)) {
-                    dist.put(v, alt);
-                    pq.add(new int[]{v, alt});
-                }
+    // --- 批量点对点查询：双向 Dijkstra，有地标表时加 ALT 下界；不在本图中的端点结果为 +∞ ---
+    public PathQueryResult shortestPaths(int[] sourceIds, int[] targetIds) {
+        lockCurrent();
+        try {
+            PointToPointSearch search = pathSearch();
+            try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("p2p")) {
+                return search.run(indicesOf(sourceIds), indicesOf(targetIds), job);
             }
+        } finally {
+            topologyLock.readLock().unlock();
         }
+    }
 
-        return dist;
+    private synchronized PointToPointSearch pathSearch() {
+        requireNonNegativeWeights("Point-to-point search");
+        if (landmarks == null && landmarksStale) scheduleLandmarkBuild();
+        PointToPointSearch search = pathSearch;
+        if (search != null && search.getLandmarks() == landmarks) return search;
+        ensureReverseWeights();
+        search = new PointToPointSearch(csrIndex, csrEdges, edgeWeights, inIndex, inEdges, inWeights, landmarks);
+        pathSearch = search;
+        return search;
     }
 
+    // --- 边权：最新的增量优先（新增边取最后一次插入的权重，被删除为 +∞），否则查底层 CSR ---
     public double getEdgeWeight(int fromNodeId, int toNodeId) {
-        Integer fromIdx = nodeToIndex.get(fromNodeId);
-        Integer toIdx = nodeToIndex.get(toNodeId);
-        if (fromIdx == null || toIdx == null) return Double.POSITIVE_INFINITY;
+        topologyLock.readLock().lock();
+        try {
+            GraphDelta active = delta;
+            GraphDelta pending = pendingBehind(active);
+            for (GraphDelta d : pending == null ? List.of(active) : List.of(active, pending)) {
+                double w = d.lookup(fromNodeId, toNodeId);
+                if (w == Double.NEGATIVE_INFINITY) return Double.POSITIVE_INFINITY;
+                if (!Double.isNaN(w)) return w;
+            }
+            if (nodeToIndex == null) return Double.POSITIVE_INFINITY;
+            int fromIdx = nodeToIndex.get(fromNodeId);
+            int toIdx = nodeToIndex.get(toNodeId);
+            if (fromIdx < 0 || toIdx < 0) return Double.POSITIVE_INFINITY;
 
-        for (int i = csrIndex[fromIdx]; i < csrIndex[fromIdx + 1]; i++) {
-            if (csrEdges[i] == toIdx) return edgeWeights[i];
+            for (int i = csrIndex[fromIdx]; i < csrIndex[fromIdx + 1]; i++) {
+                if (csrEdges[i] == toIdx) return edgeWeights[i];
+            }
+            return Double.POSITIVE_INFINITY;
+        } finally {
+            topologyLock.readLock().unlock();
         }
-        return Double.POSITIVE_INFINITY;
     }
 
 }
@@ -0,0 +1,140 @@
+package com.example.common;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// CSR 之上的可变增量层：按源点真实 ID 分组的插入边缓冲与删除墓碑，只追加、不改动底层 CSR。
+// 同一 (u, v) 上后到的操作覆盖先到的：删除会撤销此前缓冲的插入，并屏蔽底层 CSR 中的 u -> v；
+// 之后再插入只新增一条边，底层的旧边仍被屏蔽
+public class GraphDelta {
+
+    private final IntIntHashMap slotOf = new IntIntHashMap();  // 源点 ID -> 槽位
+    private int[] sources = new int[16];
+    private VertexDelta[] vertices = new VertexDelta[16];
+    private int size;
+    private long operations;
+
+    private boolean sealed;     // 合并开始后封存，不再接受写入
+
+    // --- 批量插入（weights 为 null 时按 random 取 [1, 10) 的权重，与 CSR 构建一致）；已封存返回 false ---
+    public synchronized boolean insertAll(int[] src, int[] dst, double[] weights, int count, Random rand) {
+        if (sealed) return false;
+        for (int i = 0; i < count; i++) {
+            vertex(src[i]).insert(dst[i], weights != null ? weights[i] : 1.0 + rand.nextDouble() * 9.0);
+        }
+        operations += count;
+        return true;
+    }
+
+    public synchronized boolean deleteAll(int[] src, int[] dst, int count) {
+        if (sealed) return false;
+        for (int i = 0; i < count; i++) vertex(src[i]).delete(dst[i]);
+        operations += count;
+        return true;
+    }
+
+    // --- 封存后墓碑全部排好序，合并线程与点查询只读 ---
+    synchronized void seal() {
+        sealed = true;
+        for (int i = 0; i < size; i++) vertices[i].isRemoved(0);
+    }
+
+    private VertexDelta vertex(int u) {
+        int slot = slotOf.putIfAbsent(u, size);
+        if (slot >= 0) return vertices[slot];
+        if (size == sources.length) {
+            sources = Arrays.copyOf(sources, size * 2);
+            vertices = Arrays.copyOf(vertices, size * 2);
+        }
+        sources[size] = u;
+        return vertices[size++] = new VertexDelta();
+    }
+
+    public synchronized boolean isEmpty() {
+        return operations == 0;
+    }
+
+    // 已缓冲的插入 / 删除操作数（触发后台合并的依据）
+    public synchronized long getOperationCount() {
+        return operations;
+    }
+
+    public synchronized int getVertexCount() {
+        return size;
+    }
+
+    // ---------- 读取（合并与点查询使用） ----------
+
+    // --- 有增量的源点 ID（按槽位顺序） ---
+    synchronized int[] sources() {
+        return Arrays.copyOf(sources, size);
+    }
+
+    synchronized VertexDelta get(int u) {
+        int slot = slotOf.get(u);
+        return slot < 0 ? null : vertices[slot];
+    }
+
+    synchronized boolean isRemoved(int u, int v) {
+        VertexDelta d = get(u);
+        return d != null && d.isRemoved(v);
+    }
+
+    synchronized int[] added(int u) {
+        VertexDelta d = get(u);
+        return d == null ? new int[0] : Arrays.copyOf(d.added, d.addCount);
+    }
+
+    // --- u -> v 的最终状态：新增边返回其权重，被删除返回 -∞，未涉及返回 NaN ---
+    synchronized double lookup(int u, int v) {
+        VertexDelta d = get(u);
+        if (d == null) return Double.NaN;
+        for (int i = d.addCount - 1; i >= 0; i--) {
+            if (d.added[i] == v) return d.weights[i];
+        }
+        return d.isRemoved(v) ? Double.NEGATIVE_INFINITY : Double.NaN;
+    }
+
+    // 单个源点的增量：added / weights 为新增边（目标为真实 ID），removed 为屏蔽底层边的墓碑
+    static final class VertexDelta {
+        int[] added = new int[4];
+        double[] weights = new double[4];
+        int addCount;
+        int[] removed = new int[0];
+        int removeCount;
+        private boolean removedSorted = true;
+
+        void insert(int v, double w) {
+            if (addCount == added.length) {
+                added = Arrays.copyOf(added, addCount * 2);
+                weights = Arrays.copyOf(weights, addCount * 2);
+            }
+            added[addCount] = v;
+            weights[addCount++] = w;
+        }
+
+        void delete(int v) {
+            int kept = 0;
+            for (int i = 0; i < addCount; i++) {
+                if (added[i] == v) continue;
+                added[kept] = added[i];
+                weights[kept++] = weights[i];
+            }
+            addCount = kept;
+            if (isRemoved(v)) return;
+            if (removeCount == removed.length) removed = Arrays.copyOf(removed, Math.max(4, removeCount * 2));
+            removed[removeCount++] = v;
+            removedSorted = false;
+        }
+
+        // --- 墓碑查询：按需排序后二分 ---
+        boolean isRemoved(int v) {
+            if (removeCount == 0) return false;
+            if (!removedSorted) {
+                Arrays.sort(removed, 0, removeCount);
+                removedSorted = true;
+            }
+            return Arrays.binarySearch(removed, 0, removeCount, v) >= 0;
+        }
+    }
+}
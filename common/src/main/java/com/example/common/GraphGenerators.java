@@ -0,0 +1,83 @@
+package com.example.common;
+
+import java.util.Random;
+
+// 测试图生成器（主控分发与基准测试共用），节点 ID 取值 0..totalNodes-1，每个节点带一条自环保证有出边
+public final class GraphGenerators {
+
+    private static final double PARETO_ALPHA = 1.1;
+    private static final double PARETO_SCALE = 0.1;
+
+    private GraphGenerators() {}
+
+    // --- 随机生成树保证连通，再为每个点均匀随机补 0..avgDegree-1 条边 ---
+    public static EdgeList connected(int totalNodes, int avgDegree, Random rand) {
+        EdgeList edges = new EdgeList(totalNodes * (avgDegree + 1));
+
+        // 1. 生成一棵连通图的生成树（保证连通）
+        for (int i = 1; i < totalNodes; i++) {
+            int u = i;
+            int v = rand.nextInt(i); // 保证 u 和 0~i-1 中的某个点连接
+            edges.add(u, v);
+        }
+
+        // 2. 随机补充边（增强稀疏图的结构复杂性）
+        for (int u = 0; u < totalNodes; u++) {
+            int deg = rand.nextInt(avgDegree); // 控制在树结构基础上补边
+            for (int j = 0; j < deg; j++) {
+                int v = rand.nextInt(totalNodes);
+                if (u != v) {
+                    edges.add(u, v);
+                }
+            }
+        }
+
+        // 3. 添加自环，保证每个点有出边（也保证每个点出现在其所属 worker 上）
+        addSelfLoops(edges, totalNodes);
+        return edges;
+    }
+
+    // --- numComponents 个互不相连的分量，分量内随机连边（每点 1..avgDegree 条） ---
+    public static EdgeList components(int totalNodes, int numComponents, int avgDegree, Random rand) {
+        EdgeList edges = new EdgeList(totalNodes * (avgDegree + 1));
+        int nodesPerComp = totalNodes / numComponents;
+        for (int c = 0; c < numComponents; c++) {
+            int off = c * nodesPerComp;
+            for (int i = 0; i < nodesPerComp; i++) {
+                int u = off + i;
+                int deg = rand.nextInt(avgDegree) + 1;
+                for (int j = 0; j < deg; j++) {
+                    int v = off + rand.nextInt(nodesPerComp);
+                    if (u != v) edges.add(u, v);
+                }
+            }
+        }
+        // 整除余下的节点各自成为单点分量
+        addSelfLoops(edges, totalNodes);
+        return edges;
+    }
+
+    // --- 幂律度分布：生成树保证连通；补边出度取截断离散 Pareto（密度指数约 2.1，上限 sqrt(n)，
+    //     平均补边数与 connected 相近），目标按 n * x^3 取样使小 ID 成为入度集中的枢纽 ---
+    public static EdgeList powerLaw(int totalNodes, int avgDegree, Random rand) {
+        EdgeList edges = new EdgeList(totalNodes * (avgDegree + 1));
+        for (int i = 1; i < totalNodes; i++) edges.add(i, rand.nextInt(i));
+        double scale = PARETO_SCALE * avgDegree;
+        int maxDegree = Math.max(1, (int) Math.sqrt(totalNodes));
+        for (int u = 0; u < totalNodes; u++) {
+            double r = 1.0 - rand.nextDouble();
+            int deg = (int) Math.min(maxDegree, scale / Math.pow(r, 1.0 / PARETO_ALPHA));
+            for (int j = 0; j < deg; j++) {
+                double x = rand.nextDouble();
+                int v = (int) (totalNodes * x * x * x);
+                if (u != v) edges.add(u, v);
+            }
+        }
+        addSelfLoops(edges, totalNodes);
+        return edges;
+    }
+
+    private static void addSelfLoops(EdgeList edges, int totalNodes) {
+        for (int i = 0; i < totalNodes; i++) edges.add(i, i);
+    }
+}
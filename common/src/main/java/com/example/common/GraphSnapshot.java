@@ -0,0 +1,148 @@
+package com.example.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// 版本化 CSR 二进制快照（小端序）：64 字节头 + 按 8 字节对齐的原始数组段，
+// 读写都经 FileChannel.map 整段批量传输，不做逐元素解析；ID 哈希表按底层数组原样保存
+class GraphSnapshot {
+
+    static final int MAGIC = 0x504E5347;    // "GSNP"
+    static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 64;
+    private static final long WINDOW = 1L << 30;
+
+    int[] csrIndex;
+    int[] csrEdges;
+    int[] nodeMap;
+    double[] edgeWeights;
+    int[] remoteIndex;
+    int[] remoteTargets;
+    double[] remoteWeights;
+    IntIntHashMap nodeToIndex;
+
+    // --- 写入临时文件后原子替换，避免留下半个快照 ---
+    void save(Path path) throws IOException {
+        int[] hashKeys = nodeToIndex.rawKeys();
+        int[] hashValues = nodeToIndex.rawValues();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(0)
+                    .putLong(nodeMap.length).putLong(csrEdges.length).putLong(remoteTargets.length)
+                    .putInt(hashKeys.length).putInt(nodeToIndex.size())
+                    .putInt(nodeToIndex.hasZeroKey() ? 1 : 0).putInt(nodeToIndex.zeroValue());
+            header.clear();
+            ch.write(header, 0);
+
+            long off = HEADER_BYTES;
+            off = writeInts(ch, off, csrIndex);
+            off = writeInts(ch, off, csrEdges);
+            off = writeInts(ch, off, nodeMap);
+            off = writeDoubles(ch, off, edgeWeights);
+            off = writeInts(ch, off, remoteIndex);
+            off = writeInts(ch, off, remoteTargets);
+            off = writeDoubles(ch, off, remoteWeights);
+            off = writeInts(ch, off, hashKeys);
+            writeInts(ch, off, hashValues);
+            ch.force(false);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static GraphSnapshot open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer hb = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            hb.order(ByteOrder.LITTLE_ENDIAN);
+            if (hb.getInt() != MAGIC) throw new IOException("Not a graph snapshot: " + path);
+            int version = hb.getInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            hb.getInt();
+            hb.getInt();
+            int n = Math.toIntExact(hb.getLong());
+            int m = Math.toIntExact(hb.getLong());
+            int r = Math.toIntExact(hb.getLong());
+            int hashCapacity = hb.getInt();
+            int hashSize = hb.getInt();
+            boolean hasZeroKey = hb.getInt() != 0;
+            int zeroValue = hb.getInt();
+
+            GraphSnapshot s = new GraphSnapshot();
+            long off = HEADER_BYTES;
+            s.csrIndex = new int[n + 1];
+            off = readInts(ch, off, s.csrIndex);
+            s.csrEdges = new int[m];
+            off = readInts(ch, off, s.csrEdges);
+            s.nodeMap = new int[n];
+            off = readInts(ch, off, s.nodeMap);
+            s.edgeWeights = new double[m];
+            off = readDoubles(ch, off, s.edgeWeights);
+            s.remoteIndex = new int[n + 1];
+            off = readInts(ch, off, s.remoteIndex);
+            s.remoteTargets = new int[r];
+            off = readInts(ch, off, s.remoteTargets);
+            s.remoteWeights = new double[r];
+            off = readDoubles(ch, off, s.remoteWeights);
+            int[] hashKeys = new int[hashCapacity];
+            off = readInts(ch, off, hashKeys);
+            int[] hashValues = new int[hashCapacity];
+            readInts(ch, off, hashValues);
+            s.nodeToIndex = IntIntHashMap.fromRaw(hashKeys, hashValues, hashSize, hasZeroKey, zeroValue);
+            return s;
+        }
+    }
+
+    private static long padded(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    // --- 大数组按 1GB 窗口分段映射 ---
+    private static long writeInts(FileChannel ch, long off, int[] a) throws IOException {
+        long bytes = 4L * a.length;
+        for (long start = 0; start < bytes; start += WINDOW) {
+            long len = Math.min(WINDOW, bytes - start);
+            MappedByteBuffer mb = ch.map(FileChannel.MapMode.READ_WRITE, off + start, len);
+            mb.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(a, (int) (start / 4), (int) (len / 4));
+        }
+        return off + padded(bytes);
+    }
+
+    private static long writeDoubles(FileChannel ch, long off, double[] a) throws IOException {
+        long bytes = 8L * a.length;
+        for (long start = 0; start < bytes; start += WINDOW) {
+            long len = Math.min(WINDOW, bytes - start);
+            MappedByteBuffer mb = ch.map(FileChannel.MapMode.READ_WRITE, off + start, len);
+            mb.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().put(a, (int) (start / 8), (int) (len / 8));
+        }
+        return off + padded(bytes);
+    }
+
+    private static long readInts(FileChannel ch, long off, int[] a) throws IOException {
+        long bytes = 4L * a.length;
+        for (long start = 0; start < bytes; start += WINDOW) {
+            long len = Math.min(WINDOW, bytes - start);
+            MappedByteBuffer mb = ch.map(FileChannel.MapMode.READ_ONLY, off + start, len);
+            mb.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(a, (int) (start / 4), (int) (len / 4));
+        }
+        return off + padded(bytes);
+    }
+
+    private static long readDoubles(FileChannel ch, long off, double[] a) throws IOException {
+        long bytes = 8L * a.length;
+        for (long start = 0; start < bytes; start += WINDOW) {
+            long len = Math.min(WINDOW, bytes - start);
+            MappedByteBuffer mb = ch.map(FileChannel.MapMode.READ_ONLY, off + start, len);
+            mb.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(a, (int) (start / 8), (int) (len / 8));
+        }
+        return off + padded(bytes);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 热启动增量 PageRank（Gauss-Southwell 式残差推送）：从上一版本的排名出发，先用一次并行拉取扫描求出残差，
+// 只推送残差超过阈值的顶点，沿分量内出边把残差推给邻居，直到残差的 L1 范数低于 tolerance（与幂迭代的停止条件一致）。
+// 悬挂点的推送会均匀回流到整个分量，记为分量级的统一残差，按需计入各顶点；
+// 推送扫描的边数超出预算（图变化过大）时，改为从当前排名热启动的幂迭代
+public class IncrementalPageRank {
+
+    private static final int FALLBACK_SWEEPS = 8;      // 推送预算：相当于 8 轮全图扫描
+    private static final double THRESHOLD_DECAY = 8.0;  // 每轮推送阈值的缩小倍数
+
+    private final int[] index;
+    private final int[] edges;
+    private final PageRankEngine engine;
+    private final ComponentLabels components;
+    private final int n;
+
+    private int[] members;          // 按分量分组的顶点（悬挂点回流时整组重新检查，按需构建）
+    private int[] memberOffset;
+
+    public IncrementalPageRank(int[] index, int[] edges, PageRankEngine engine, ComponentLabels components) {
+        this.index = index;
+        this.edges = edges;
+        this.engine = engine;
+        this.components = components;
+        this.n = index.length - 1;
+    }
+
+    // --- previous 为上一版本的结果（可以更短：合并只在末尾追加顶点），新顶点从 1 / 分量大小 出发。
+    //     排名对随机跳转项是线性的，而随机跳转按分量大小归一化：分量大小变化时先按 旧大小 / 新大小 缩放，
+    //     否则一条合并了分量的边就会让整个分量的残差都越过阈值 ---
+    public PageRankResult run(PageRankResult previous, double damping, double tolerance, int maxIter) {
+        int[] label = components.label;
+        int[] sizes = components.sizes;
+        double[] rank = new double[n];
+        int kept = Math.min(n, previous.rank.length);
+        int[] prevLabel = previous.components.label;
+        int[] prevSizes = previous.components.sizes;
+        for (int v = 0; v < kept; v++) {
+            rank[v] = previous.rank[v] * prevSizes[prevLabel[v]] / sizes[label[v]];
+        }
+        for (int v = kept; v < n; v++) rank[v] = 1.0 / sizes[label[v]];
+
+        double[] residual = engine.residual(rank, damping);
+        double[] uniform = new double[components.count];    // 分量级统一残差（悬挂点回流）
+        double[] absorbed = new double[n];                  // 顶点已计入的统一残差
+        double[] unchecked = new double[components.count];  // 上次整组检查后新增的统一残差
+
+        int[] queue = new int[Math.max(16, n)];
+        boolean[] queued = new boolean[n];
+        boolean[] updated = new boolean[n];
+        long touched = 0;
+        long pushes = 0;
+        long work = 0;
+        long budget = (long) FALLBACK_SWEEPS * (edges.length + n);
+
+        // 第一轮阈值取上一版本的单顶点最大残差：未受变化影响的顶点本来就不超过它，只有变化附近的顶点入队；
+        // 之后每轮先全量统计残差 L1 范数（已收敛则停止），阈值逐轮递减，近似"总是先推最大残差"
+        double eps = tolerance / Math.max(1, n);
+        double threshold = Math.max(eps, previous.maxResidual);
+        double remaining;
+        double max;
+        int rounds = 0;
+        while (true) {
+            remaining = 0.0;
+            max = 0.0;
+            for (int v = 0; v < n; v++) {
+                double e = Math.abs(residual[v] + uniform[label[v]] - absorbed[v]);
+                remaining += e;
+                max = Math.max(max, e);
+            }
+            work += n;
+            if (remaining < tolerance || max <= eps) break;
+            if (work > budget) {
+                PageRankResult result = engine.run(damping, tolerance, maxIter, rank);
+                result.updates += pushes;
+                return result;
+            }
+            if (rounds++ > 0) threshold = Math.max(eps, Math.min(threshold, max) / THRESHOLD_DECAY);
+
+            int head = 0;
+            int size = 0;
+            for (int v = 0; v < n; v++) {
+                if (Math.abs(residual[v] + uniform[label[v]] - absorbed[v]) > threshold) {
+                    queue[size++] = v;
+                    queued[v] = true;
+                }
+            }
+            while (size > 0 && work <= budget) {
+                int v = queue[head];
+                head = head + 1 == queue.length ? 0 : head + 1;
+                size--;
+                queued[v] = false;
+                int c = label[v];
+                double e = residual[v] + uniform[c] - absorbed[v];
+                if (Math.abs(e) <= threshold) continue;
+
+                rank[v] += e;
+                residual[v] = 0.0;
+                absorbed[v] = uniform[c];
+                pushes++;
+                if (!updated[v]) {
+                    updated[v] = true;
+                    touched++;
+                }
+                int deg = index[v + 1] - index[v];
+                if (deg == 0) {
+                    double share = damping * e / sizes[c];
+                    uniform[c] += share;
+                    unchecked[c] += share;
+                    if (Math.abs(unchecked[c]) > threshold) {
+                        // 累计的统一残差可能让分量内任一顶点越过阈值，整组重新入队
+                        unchecked[c] = 0.0;
+                        ensureMembers();
+                        for (int k = memberOffset[c]; k < memberOffset[c + 1]; k++) {
+                            int w = members[k];
+                            if (queued[w]) continue;
+                            queued[w] = true;
+                            queue[(head + size++) % queue.length] = w;
+                        }
+                        work += sizes[c];
+                    }
+                    work++;
+                    continue;
+                }
+                double share = damping * e / deg;
+                for (int j = index[v]; j < index[v + 1]; j++) {
+                    int w = edges[j];
+                    if (label[w] != c) continue;
+                    residual[w] += share;
+                    if (!queued[w] && Math.abs(residual[w] + uniform[c] - absorbed[w]) > threshold) {
+                        queued[w] = true;
+                        queue[(head + size++) % queue.length] = w;
+                    }
+                }
+                work += deg + 1;
+            }
+            for (int k = 0; k < size; k++) queued[queue[(head + k) % queue.length]] = false;
+        }
+
+        PageRankResult result = new PageRankResult(rank, components);
+        result.mode = PageRankResult.PUSH;
+        result.iterations = rounds;
+        result.residual = remaining;
+        result.maxResidual = max;
+        result.touched = touched;
+        result.updates = pushes;
+        return result;
+    }
+
+    private void ensureMembers() {
+        if (members != null) return;
+        int[] label = components.label;
+        int[] offset = new int[components.count + 1];
+        for (int v = 0; v < n; v++) offset[label[v] + 1]++;
+        for (int c = 0; c < components.count; c++) offset[c + 1] += offset[c];
+        int[] pos = Arrays.copyOf(offset, components.count);
+        int[] out = new int[n];
+        for (int v = 0; v < n; v++) out[pos[label[v]]++] = v;
+        members = out;
+        memberOffset = offset;
+    }
+}
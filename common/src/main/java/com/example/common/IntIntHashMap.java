@@ -0,0 +1,184 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 原始类型 int -> int 开放寻址哈希表（线性探测），避免 Integer 装箱
+public class IntIntHashMap {
+
+    private static final int FREE_KEY = 0;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    // key == 0 单独存放，keys 数组中 0 表示空槽
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        int cap = tableSizeFor((int) Math.min(1L << 30, Math.max(4L, (long) (expectedSize / 0.6) + 1)));
+        allocate(cap);
+    }
+
+    private void allocate(int cap) {
+        keys = new int[cap];
+        values = new int[cap];
+        mask = cap - 1;
+        threshold = (int) (cap * 0.6);
+    }
+
+    private static int tableSizeFor(int n) {
+        int cap = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        return Math.max(cap, 4);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // --- 查询：不存在时返回 defaultValue ---
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == FREE_KEY) return hasZeroKey ? zeroValue : defaultValue;
+        int pos = mix(key) & mask;
+        while (true) {
+            int k = keys[pos];
+            if (k == FREE_KEY) return defaultValue;
+            if (k == key) return values[pos];
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    // --- 查询：不存在时返回 -1（适用于下标映射） ---
+    public int get(int key) {
+        return getOrDefault(key, -1);
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) return hasZeroKey;
+        int pos = mix(key) & mask;
+        while (true) {
+            int k = keys[pos];
+            if (k == FREE_KEY) return false;
+            if (k == key) return true;
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    // --- 写入（覆盖已有值） ---
+    public void put(int key, int value) {
+        if (key == FREE_KEY) {
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int pos = mix(key) & mask;
+        while (true) {
+            int k = keys[pos];
+            if (k == FREE_KEY) {
+                keys[pos] = key;
+                values[pos] = value;
+                if (++size > threshold) rehash(keys.length << 1);
+                return;
+            }
+            if (k == key) {
+                values[pos] = value;
+                return;
+            }
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    // --- 不存在时写入；返回已有值，新插入时返回 -1 ---
+    public int putIfAbsent(int key, int value) {
+        if (key == FREE_KEY) {
+            if (hasZeroKey) return zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            size++;
+            return -1;
+        }
+        int pos = mix(key) & mask;
+        while (true) {
+            int k = keys[pos];
+            if (k == FREE_KEY) {
+                keys[pos] = key;
+                values[pos] = value;
+                if (++size > threshold) rehash(keys.length << 1);
+                return -1;
+            }
+            if (k == key) return values[pos];
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    private void rehash(int newCap) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCap);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k == FREE_KEY) continue;
+            int pos = mix(k) & mask;
+            while (keys[pos] != FREE_KEY) pos = (pos + 1) & mask;
+            keys[pos] = k;
+            values[pos] = oldValues[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    // --- 所有 key（无序） ---
+    public int[] keys() {
+        int[] out = new int[size];
+        int c = 0;
+        if (hasZeroKey) out[c++] = FREE_KEY;
+        for (int k : keys) {
+            if (k != FREE_KEY) out[c++] = k;
+        }
+        return out;
+    }
+
+    // --- 深拷贝：增量合并在副本上追加新顶点，原表继续供旧 CSR 的读者使用 ---
+    public IntIntHashMap copy() {
+        return fromRaw(keys.clone(), values.clone(), size, hasZeroKey, zeroValue);
+    }
+
+    // --- 快照用：直接导出 / 恢复底层数组（不重新哈希） ---
+    int[] rawKeys() { return keys; }
+    int[] rawValues() { return values; }
+    boolean hasZeroKey() { return hasZeroKey; }
+    int zeroValue() { return zeroValue; }
+
+    static IntIntHashMap fromRaw(int[] keys, int[] values, int size, boolean hasZeroKey, int zeroValue) {
+        IntIntHashMap map = new IntIntHashMap(4);
+        map.keys = keys;
+        map.values = values;
+        map.mask = keys.length - 1;
+        map.threshold = (int) (keys.length * 0.6);
+        map.size = size;
+        map.hasZeroKey = hasZeroKey;
+        map.zeroValue = zeroValue;
+        return map;
+    }
+
+    // --- 估算占用字节数 ---
+    public long memoryBytes() {
+        return 8L * keys.length;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.common;
+
+import java.util.Random;
+
+// ALT 地标表：每个地标 L 存正向距离 d(L, v) 与反向距离 d(v, L)（按 CSR 下标，不可达为 +∞），
+// 由三角不等式给出任意两点距离的下界。地标按“最远点”逐个选取：与已选地标最近距离最大的顶点，不可达的区域优先。
+// 表按顶点连续存放，查询时一个顶点的全部地标距离落在相邻的一两条缓存行里
+public class LandmarkIndex {
+
+    final int[] landmarks;          // CSR 下标
+    final double[] table;           // table[2 * (v * k + i)] = d(L_i, v)，table[2 * (v * k + i) + 1] = d(v, L_i)
+    final int k;
+    final long buildMillis;
+
+    private LandmarkIndex(int[] landmarks, double[] table, long buildMillis) {
+        this.landmarks = landmarks;
+        this.table = table;
+        this.k = landmarks.length;
+        this.buildMillis = buildMillis;
+    }
+
+    // --- 正向 CSR 与带权反向 CSR 上各跑一次 delta-stepping 得到每个地标的两张距离表（权重已由调用方校验非负） ---
+    public static LandmarkIndex build(int[] index, int[] edges, double[] weights,
+                                      int[] inIndex, int[] inEdges, double[] inWeights, double maxWeight,
+                                      int count, Random random, ComputeScheduler.Job job) {
+        long t0 = System.nanoTime();
+        int n = index.length - 1;
+        count = Math.min(count, n);
+        int[] landmarks = new int[count];
+        double[] table = new double[Math.multiplyExact(2 * count, n)];
+        double[] nearest = new double[n];   // 到已选地标的最近距离（两个方向取小）
+
+        // 第一个地标：随机起点出发最远的可达顶点
+        int next = -1;
+        if (count > 0) {
+            double[] d = new DeltaSteppingSSSP(index, edges, weights, maxWeight, 0, Double.POSITIVE_INFINITY, job)
+                    .run(random.nextInt(n)).distance;
+            next = farthest(d, index, inIndex);
+        }
+        for (int i = 0; i < count; i++) {
+            landmarks[i] = next;
+            double[] from = new DeltaSteppingSSSP(index, edges, weights, maxWeight, 0, Double.POSITIVE_INFINITY, job)
+                    .run(next).distance;
+            double[] to = new DeltaSteppingSSSP(inIndex, inEdges, inWeights, maxWeight, 0, Double.POSITIVE_INFINITY, job)
+                    .run(next).distance;
+            for (int v = 0; v < n; v++) {
+                int pos = 2 * (v * count + i);
+                table[pos] = from[v];
+                table[pos + 1] = to[v];
+                double d = Math.min(from[v], to[v]);
+                nearest[v] = i == 0 ? d : Math.min(nearest[v], d);
+            }
+            next = farthest(nearest, index, inIndex);
+        }
+        return new LandmarkIndex(landmarks, table, (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    // --- 距离最大的顶点；存在不可达顶点时取其中度数最大的（落在尚未覆盖的大块区域） ---
+    private static int farthest(double[] d, int[] index, int[] inIndex) {
+        int best = 0;
+        int bestUnreached = -1;
+        long bestDegree = -1;
+        for (int v = 0; v < d.length; v++) {
+            if (d[v] == Double.POSITIVE_INFINITY) {
+                long degree = (long) index[v + 1] - index[v] + inIndex[v + 1] - inIndex[v];
+                if (degree > bestDegree) {
+                    bestDegree = degree;
+                    bestUnreached = v;
+                }
+            } else if (d[v] > d[best] || d[best] == Double.POSITIVE_INFINITY) {
+                best = v;
+            }
+        }
+        return bestUnreached >= 0 ? bestUnreached : best;
+    }
+
+    public int size() {
+        return landmarks.length;
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    public long memoryBytes() {
+        return 8L * table.length;
+    }
+
+    // --- 对 (s, t) 下界最紧的 k 个地标编号，查询时只用这几个计算势函数 ---
+    int[] select(int s, int t, int active) {
+        int m = Math.min(active, k);
+        int[] chosen = new int[m];
+        double[] score = new double[m];
+        int size = 0;
+        if (m == 0) return chosen;
+        for (int i = 0; i < landmarks.length; i++) {
+            double a = table[2 * (t * k + i)] - table[2 * (s * k + i)];
+            double b = table[2 * (s * k + i) + 1] - table[2 * (t * k + i) + 1];
+            double sc = Double.NEGATIVE_INFINITY;
+            if (a > sc) sc = a;
+            if (b > sc) sc = b;
+            if (size == m && sc <= score[m - 1]) continue;
+            int pos = size < m ? size++ : m - 1;
+            while (pos > 0 && score[pos - 1] < sc) {
+                chosen[pos] = chosen[pos - 1];
+                score[pos] = score[pos - 1];
+                pos--;
+            }
+            chosen[pos] = i;
+            score[pos] = sc;
+        }
+        return chosen;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 一批源的 BFS 层数：每个源一行、按 CSR 下标存放，行宽随本批最大层数取 1 / 2 / 4 字节（与 DistanceMatrixWriter 的宽度一致），
+// 未到达为该宽度的全 1；层数超出当前宽度时整批加宽，只能在两层之间（无并发写入时）调用 ensure
+public final class LevelRows {
+
+    private final int n;
+    private final byte[][] bytes;       // 常驻，跨批复用
+    private short[][] shorts;
+    private int[][] ints;
+    private int width;
+
+    public LevelRows(int rows, int n) {
+        this.n = n;
+        this.bytes = new byte[rows][n];
+        reset();
+    }
+
+    // --- 新一批：回到 1 字节宽，全部置为未到达 ---
+    public void reset() {
+        for (byte[] row : bytes) Arrays.fill(row, (byte) -1);
+        shorts = null;
+        ints = null;
+        width = 1;
+    }
+
+    // --- 保证 level 可存：1 字节存 0..0xFE，2 字节存 0..0xFFFE ---
+    public void ensure(int level) {
+        if (width == 1 && level >= 0xFF) {
+            shorts = new short[bytes.length][n];
+            for (int r = 0; r < bytes.length; r++) {
+                for (int v = 0; v < n; v++) shorts[r][v] = (short) get(r, v);
+            }
+            width = 2;
+        }
+        if (width == 2 && level >= 0xFFFF) {
+            ints = new int[shorts.length][n];
+            for (int r = 0; r < shorts.length; r++) {
+                for (int v = 0; v < n; v++) ints[r][v] = get(r, v);
+            }
+            shorts = null;
+            width = 4;
+        }
+    }
+
+    public void set(int row, int v, int level) {
+        switch (width) {
+            case 1 -> bytes[row][v] = (byte) level;
+            case 2 -> shorts[row][v] = (short) level;
+            default -> ints[row][v] = level;
+        }
+    }
+
+    // --- 层数，未到达为 -1 ---
+    public int get(int row, int v) {
+        return switch (width) {
+            case 1 -> bytes[row][v] == -1 ? -1 : bytes[row][v] & 0xFF;
+            case 2 -> shorts[row][v] == -1 ? -1 : shorts[row][v] & 0xFFFF;
+            default -> ints[row][v];
+        };
+    }
+
+    public int[] toIntRow(int row) {
+        int[] out = new int[n];
+        for (int v = 0; v < n; v++) out[v] = get(row, v);
+        return out;
+    }
+
+    public int getColumns() {
+        return n;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.common;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 多源位并行 BFS（MS-BFS）：一批至多 64 个源，每个顶点用一个 long 记录已到达的源（seen）与本层新到达的源（visit），
+// 每层一次扫描同时推进整批源。前沿较大时沿入边拉取（每个顶点只由一个块写，无竞争），较小时沿出边推送（CAS 按位或）
+public class MultiSourceBFS {
+
+    public static final int BATCH = 64;
+
+    private static final int ALPHA = 14;            // 前沿出边数 * ALPHA > 总边数时改为拉取
+    private static final int SERIAL_THRESHOLD = 1024;
+    private static final int FRONTIER_CHUNK = 256;
+    private static final int VERTEX_CHUNK = 4096;
+
+    private final int[] index;
+    private final int[] edges;
+    private final int[] inIndex;
+    private final int[] inEdges;
+    private final int n;
+    private final ComputeScheduler.Job job;
+
+    // --- 位掩码：第 i 位对应批内第 i 个源；visit 只在前沿顶点上非零，每批结束时已全部清零 ---
+    private final long[] seen;
+    private final long[] visit;
+    private final AtomicLongArray next;
+
+    public MultiSourceBFS(int[] index, int[] edges, int[] inIndex, int[] inEdges, ComputeScheduler.Job job) {
+        this.index = index;
+        this.edges = edges;
+        this.inIndex = inIndex;
+        this.inEdges = inEdges;
+        this.n = index.length - 1;
+        this.job = job;
+        this.seen = new long[n];
+        this.visit = new long[n];
+        this.next = new AtomicLongArray(n);
+    }
+
+    // --- 从 sources[from, from + count) 出发（CSR 下标，-1 表示不在本图中，对应行全为未到达），
+    //     第 i 个源的层数写入 levels 的第 i 行（先整批清空）；同一实例可按批重复调用 ---
+    public void run(int[] sources, int from, int count, LevelRows levels, MultiSourceBFSResult result) {
+        if (count > BATCH) throw new IllegalArgumentException("At most " + BATCH + " sources per batch");
+        levels.reset();
+        Arrays.fill(seen, 0L);
+
+        int[] frontier = new int[count];
+        int nf = 0;
+        long all = 0;
+        for (int i = 0; i < count; i++) {
+            int s = sources[from + i];
+            if (s < 0 || s >= n) continue;
+            if (visit[s] == 0) frontier[nf++] = s;
+            visit[s] |= 1L << i;
+            seen[s] |= 1L << i;
+            all |= 1L << i;
+            levels.set(i, s, 0);
+            result.reached++;
+        }
+
+        int level = 0;
+        while (nf > 0) {
+            long mf = 0;
+            for (int k = 0; k < nf; k++) mf += index[frontier[k] + 1] - index[frontier[k]];
+            int[] nextFrontier;
+            if (inIndex != null && mf * ALPHA > edges.length) {
+                nextFrontier = pullStep(all, result);
+                result.bottomUpSteps++;
+            } else {
+                nextFrontier = pushStep(frontier, nf, result);
+                result.topDownSteps++;
+            }
+            clearVisit(frontier, nf);
+            levels.ensure(level + 1);
+            result.reached += apply(nextFrontier, levels, level + 1);
+            frontier = nextFrontier;
+            nf = nextFrontier.length;
+            level++;
+        }
+        clearVisit(frontier, nf);
+        result.levels = Math.max(result.levels, level);
+        result.batches++;
+    }
+
+    // --- 推送：前沿顶点把 visit 中对方尚未见过的位按位或进 next；next 由 0 变非零的线程负责登记顶点 ---
+    private int[] pushStep(int[] frontier, int nf, MultiSourceBFSResult result) {
+        int chunks = nf <= SERIAL_THRESHOLD ? 1 : Math.max(1, nf / FRONTIER_CHUNK);
+        int[][] outs = new int[chunks][];
+        int[] outSizes = new int[chunks];
+        long[] scanned = new long[chunks];
+
+        job.parallelFor(chunks, c -> {
+            int lo = (int) ((long) nf * c / chunks);
+            int hi = (int) ((long) nf * (c + 1) / chunks);
+            int[] buf = new int[Math.max(16, hi - lo)];
+            int size = 0;
+            for (int k = lo; k < hi; k++) {
+                int u = frontier[k];
+                long bits = visit[u];
+                for (int j = index[u], end = index[u + 1]; j < end; j++) {
+                    int v = edges[j];
+                    long d = bits & ~seen[v];
+                    if (d == 0) continue;
+                    long old = next.get(v);
+                    while ((old | d) != old && !next.compareAndSet(v, old, old | d)) old = next.get(v);
+                    if (old == 0) {
+                        if (size == buf.length) buf = Arrays.copyOf(buf, size * 2);
+                        buf[size++] = v;
+                    }
+                }
+                scanned[c] += index[u + 1] - index[u];
+            }
+            outs[c] = buf;
+            outSizes[c] = size;
+        });
+        for (long s : scanned) result.edgesScanned += s;
+        return concat(outs, outSizes);
+    }
+
+    // --- 拉取：尚未见过全部源的顶点汇总入邻居的 visit，凑齐缺少的位即提前停止 ---
+    private int[] pullStep(long all, MultiSourceBFSResult result) {
+        int chunks = (n + VERTEX_CHUNK - 1) / VERTEX_CHUNK;
+        int[][] outs = new int[chunks][];
+        int[] outSizes = new int[chunks];
+        long[] scanned = new long[chunks];
+
+        job.parallelFor(chunks, c -> {
+            int lo = c * VERTEX_CHUNK;
+            int hi = Math.min(n, lo + VERTEX_CHUNK);
+            int[] buf = new int[64];
+            int size = 0;
+            long edgesScanned = 0;
+            for (int v = lo; v < hi; v++) {
+                long known = seen[v];
+                if (known == all) continue;
+                long x = 0;
+                for (int k = inIndex[v], end = inIndex[v + 1]; k < end; k++) {
+                    edgesScanned++;
+                    x |= visit[inEdges[k]];
+                    if ((x | known) == all) break;
+                }
+                x &= ~known;
+                if (x == 0) continue;
+                next.lazySet(v, x);
+                if (size == buf.length) buf = Arrays.copyOf(buf, size * 2);
+                buf[size++] = v;
+            }
+            outs[c] = buf;
+            outSizes[c] = size;
+            scanned[c] = edgesScanned;
+        });
+        for (long s : scanned) result.edgesScanned += s;
+        return concat(outs, outSizes);
+    }
+
+    private void clearVisit(int[] frontier, int nf) {
+        for (int k = 0; k < nf; k++) visit[frontier[k]] = 0;
+    }
+
+    // --- 新前沿：next 移入 visit 并入 seen，按位写层数；返回本层新到达的 (源, 顶点) 对数 ---
+    private long apply(int[] frontier, LevelRows levels, int level) {
+        int nf = frontier.length;
+        int chunks = nf <= SERIAL_THRESHOLD ? 1 : Math.max(1, nf / FRONTIER_CHUNK);
+        long[] reached = new long[chunks];
+        job.parallelFor(chunks, c -> {
+            int lo = (int) ((long) nf * c / chunks);
+            int hi = (int) ((long) nf * (c + 1) / chunks);
+            long r = 0;
+            for (int k = lo; k < hi; k++) {
+                int v = frontier[k];
+                long bits = next.get(v);
+                next.lazySet(v, 0);
+                visit[v] = bits;
+                seen[v] |= bits;
+                r += Long.bitCount(bits);
+                while (bits != 0) {
+                    levels.set(Long.numberOfTrailingZeros(bits), v, level);
+                    bits &= bits - 1;
+                }
+            }
+            reached[c] = r;
+        });
+        long total = 0;
+        for (long r : reached) total += r;
+        return total;
+    }
+
+    private static int[] concat(int[][] outs, int[] sizes) {
+        int total = 0;
+        for (int s : sizes) total += s;
+        int[] out = new int[total];
+        int pos = 0;
+        for (int c = 0; c < outs.length; c++) {
+            System.arraycopy(outs[c], 0, out, pos, sizes[c]);
+            pos += sizes[c];
+        }
+        return out;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.common;
+
+// 多源 BFS 结果：每个源一行，按 CSR 下标存放层数（未到达为 -1）；行与 sources 中的源节点 ID 一一对应
+public class MultiSourceBFSResult {
+
+    public final int[] sources;
+    public final int[][] distance;
+    public long reached;            // 到达的 (源, 顶点) 对数，含源自身
+    public int levels;
+    public int batches;
+    public int topDownSteps;
+    public int bottomUpSteps;
+    public long edgesScanned;
+
+    public MultiSourceBFSResult(int[] sources) {
+        this.sources = sources;
+        this.distance = new int[sources.length][];
+    }
+}
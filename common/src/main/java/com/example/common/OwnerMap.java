@@ -0,0 +1,34 @@
+package com.example.common;
+
+// 顶点归属：真实 ID -> worker 编号。默认按取模划分（与主控按 u % numWorkers 分发边一致）；
+// 主控使用其他划分策略时下发按 ID 索引的归属表，表外的 ID 仍按取模
+public class OwnerMap {
+
+    private final int numWorkers;
+    private final int[] table;
+
+    private OwnerMap(int numWorkers, int[] table) {
+        this.numWorkers = numWorkers;
+        this.table = table;
+    }
+
+    public static OwnerMap modulo(int numWorkers) {
+        return new OwnerMap(Math.max(1, numWorkers), null);
+    }
+
+    public static OwnerMap table(int numWorkers, int[] owners) {
+        for (int o : owners) {
+            if (o < 0 || o >= numWorkers) throw new IllegalArgumentException("Owner " + o + " out of range");
+        }
+        return new OwnerMap(Math.max(1, numWorkers), owners);
+    }
+
+    public int ownerOf(int nodeId) {
+        if (table != null && nodeId >= 0 && nodeId < table.length) return table[nodeId];
+        return Math.floorMod(nodeId, numWorkers);
+    }
+
+    public int getNumWorkers() {
+        return numWorkers;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 单趟并行 PageRank：所有分量在同一次拉取式（转置 CSR）扫描中迭代，
+// 每个分量独立归一化，L1 变化量低于阈值时停止
+public class PageRankEngine {
+
+    private static final int VERTEX_CHUNK = 4096;
+
+    private final int[] index;
+    private final ComponentLabels components;
+    private final ComputeScheduler.Job job;
+    private final int n;
+
+    // --- 分量内入边（拉取式 CSR） ---
+    private final int[] pullIndex;
+    private final int[] pullEdges;
+    private final int[] danglingNodes;
+
+    public PageRankEngine(int[] index, int[] inIndex, int[] inEdges,
+                          ComponentLabels components, ComputeScheduler.Job job) {
+        this.index = index;
+        this.components = components;
+        this.job = job;
+        this.n = index.length - 1;
+
+        // 只保留源点与目标点同属一个分量的入边；跨分量的贡献按原实现直接流失
+        int[] label = components.label;
+        int[] pIndex = new int[n + 1];
+        int chunks = chunkCount();
+        job.parallelFor(chunks, c -> {
+            for (int v = c * VERTEX_CHUNK, hi = Math.min(n, v + VERTEX_CHUNK); v < hi; v++) {
+                int cnt = 0;
+                for (int k = inIndex[v]; k < inIndex[v + 1]; k++) {
+                    if (label[inEdges[k]] == label[v]) cnt++;
+                }
+                pIndex[v + 1] = cnt;
+            }
+        });
+        for (int v = 0; v < n; v++) pIndex[v + 1] += pIndex[v];
+        int[] pEdges = new int[pIndex[n]];
+        job.parallelFor(chunks, c -> {
+            for (int v = c * VERTEX_CHUNK, hi = Math.min(n, v + VERTEX_CHUNK); v < hi; v++) {
+                int pos = pIndex[v];
+                for (int k = inIndex[v]; k < inIndex[v + 1]; k++) {
+                    if (label[inEdges[k]] == label[v]) pEdges[pos++] = inEdges[k];
+                }
+            }
+        });
+        this.pullIndex = pIndex;
+        this.pullEdges = pEdges;
+
+        int dangling = 0;
+        for (int v = 0; v < n; v++) if (index[v + 1] == index[v]) dangling++;
+        int[] dn = new int[dangling];
+        for (int v = 0, p = 0; v < n; v++) if (index[v + 1] == index[v]) dn[p++] = v;
+        this.danglingNodes = dn;
+    }
+
+    private int chunkCount() {
+        return Math.max(1, (n + VERTEX_CHUNK - 1) / VERTEX_CHUNK);
+    }
+
+    public PageRankResult run(double damping, double tolerance, int maxIter) {
+        return run(damping, tolerance, maxIter, null);
+    }
+
+    // --- initial 非空时从给定排名热启动（增量 PageRank 推送超出预算时的回退路径） ---
+    public PageRankResult run(double damping, double tolerance, int maxIter, double[] initial) {
+        int[] label = components.label;
+        int[] sizes = components.sizes;
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] contrib = new double[n];
+        double[] correction = new double[components.count];
+        double[] danglingMass = new double[components.count];
+        int chunks = chunkCount();
+        double[] chunkDelta = new double[chunks];
+        double[] chunkMax = new double[chunks];
+
+        if (initial != null) {
+            System.arraycopy(initial, 0, rank, 0, n);
+        } else {
+            for (int v = 0; v < n; v++) rank[v] = 1.0 / sizes[label[v]];
+        }
+
+        int iterations = 0;
+        double residual = Double.POSITIVE_INFINITY;
+        for (int iter = 0; iter < maxIter; iter++) {
+            double[] r = rank;
+            job.parallelFor(chunks, c -> {
+                for (int u = c * VERTEX_CHUNK, hi = Math.min(n, u + VERTEX_CHUNK); u < hi; u++) {
+                    int deg = index[u + 1] - index[u];
+                    contrib[u] = deg == 0 ? 0.0 : r[u] / deg;
+                }
+            });
+
+            // 悬挂点的排名在所属分量内均匀回流
+            Arrays.fill(danglingMass, 0.0);
+            for (int u : danglingNodes) danglingMass[label[u]] += r[u];
+            for (int c = 0; c < correction.length; c++) {
+                correction[c] = (1.0 - damping + damping * danglingMass[c]) / sizes[c];
+            }
+
+            double[] nx = next;
+            job.parallelFor(chunks, c -> {
+                double delta = 0.0;
+                double max = 0.0;
+                for (int v = c * VERTEX_CHUNK, hi = Math.min(n, v + VERTEX_CHUNK); v < hi; v++) {
+                    double sum = 0.0;
+                    for (int k = pullIndex[v], end = pullIndex[v + 1]; k < end; k++) {
+                        sum += contrib[pullEdges[k]];
+                    }
+                    double value = damping * sum + correction[label[v]];
+                    double diff = Math.abs(value - r[v]);
+                    delta += diff;
+                    max = Math.max(max, diff);
+                    nx[v] = value;
+                }
+                chunkDelta[c] = delta;
+                chunkMax[c] = max;
+            });
+
+            residual = 0.0;
+            for (double d : chunkDelta) residual += d;
+            next = rank;
+            rank = nx;
+            iterations = iter + 1;
+            if (residual < tolerance) break;
+        }
+        PageRankResult result = new PageRankResult(rank, components);
+        result.iterations = iterations;
+        result.residual = residual;
+        for (double m : chunkMax) result.maxResidual = Math.max(result.maxResidual, m);
+        result.mode = initial != null ? PageRankResult.WARM_ITERATION : PageRankResult.FULL;
+        result.touched = n;
+        result.updates = (long) n * iterations;
+        return result;
+    }
+
+    // --- 残差 F(rank) - rank：F 为一轮拉取式迭代（含悬挂点回流），用于增量推送的起点 ---
+    double[] residual(double[] rank, double damping) {
+        int[] label = components.label;
+        int[] sizes = components.sizes;
+        double[] danglingMass = new double[components.count];
+        for (int u : danglingNodes) danglingMass[label[u]] += rank[u];
+        double[] correction = new double[components.count];
+        for (int c = 0; c < correction.length; c++) {
+            correction[c] = (1.0 - damping + damping * danglingMass[c]) / sizes[c];
+        }
+        double[] out = new double[n];
+        job.parallelFor(chunkCount(), c -> {
+            for (int v = c * VERTEX_CHUNK, hi = Math.min(n, v + VERTEX_CHUNK); v < hi; v++) {
+                double sum = 0.0;
+                for (int k = pullIndex[v], end = pullIndex[v + 1]; k < end; k++) {
+                    int u = pullEdges[k];
+                    sum += rank[u] / (index[u + 1] - index[u]);
+                }
+                out[v] = damping * sum + correction[label[v]] - rank[v];
+            }
+        });
+        return out;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.common;
+
+// PageRank 结果：按 CSR 下标存放的排名值及所属分量
+public class PageRankResult {
+
+    public final double[] rank;
+    public final ComponentLabels components;
+    public static final String FULL = "full";
+    public static final String CACHED = "cached";
+    public static final String PUSH = "push";
+    public static final String WARM_ITERATION = "warm_iteration";
+
+    public int iterations;
+    public double residual;     // 最后一轮的 L1 变化量（推送模式为剩余残差的 L1 范数）
+    public double maxResidual;  // 单个顶点的最大残差，下一次增量推送以此为阈值
+
+    // --- 计算方式与工作量：touched 为排名被更新过的不同顶点数，updates 为顶点更新总次数 ---
+    public String mode = FULL;
+    public long touched;
+    public long updates;
+
+    public PageRankResult(double[] rank, ComponentLabels components) {
+        this.rank = rank;
+        this.components = components;
+    }
+}
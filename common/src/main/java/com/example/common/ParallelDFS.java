@@ -0,0 +1,88 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 并行 DFS：每个通道使用本地 int 栈，扩展超过预算后把剩余栈交回，下一轮重新切分
+public class ParallelDFS {
+
+    private static final int EXPANSION_BUDGET = 1 << 14;
+    private static final int PENDING_CHUNK = 64;
+    private static final int VERTEX_CHUNK = 4096;
+
+    private final int[] index;
+    private final int[] edges;
+    private final AtomicBitSet visited;
+    private final ComputeScheduler.Job job;
+
+    public ParallelDFS(int[] index, int[] edges, AtomicBitSet visited, ComputeScheduler.Job job) {
+        this.index = index;
+        this.edges = edges;
+        this.visited = visited;
+        this.job = job;
+    }
+
+    // --- 单源 DFS ---
+    public void run(int source) {
+        if (!visited.set(source)) return;
+        int[] pending = {source};
+        int np = 1;
+        while (np > 0) {
+            int total = np;
+            int[] current = pending;
+            int chunks = Math.max(1, total / PENDING_CHUNK);
+            int[][] outs = new int[chunks][];
+            int[] outSizes = new int[chunks];
+
+            job.parallelFor(chunks, c -> {
+                int lo = (int) ((long) total * c / chunks);
+                int hi = (int) ((long) total * (c + 1) / chunks);
+                int[][] stack = {Arrays.copyOfRange(current, lo, Math.max(hi, lo + 16))};
+                outSizes[c] = expand(stack, hi - lo, EXPANSION_BUDGET);
+                outs[c] = stack[0];
+            });
+
+            np = 0;
+            for (int c = 0; c < chunks; c++) np += outSizes[c];
+            pending = new int[np];
+            int pos = 0;
+            for (int c = 0; c < chunks; c++) {
+                System.arraycopy(outs[c], 0, pending, pos, outSizes[c]);
+                pos += outSizes[c];
+            }
+        }
+    }
+
+    // --- 全图 DFS：按下标区间切块，块内每个未访问顶点作为根做本地 DFS ---
+    public void runAll() {
+        int n = index.length - 1;
+        int chunks = (n + VERTEX_CHUNK - 1) / VERTEX_CHUNK;
+        job.parallelFor(chunks, c -> {
+            int lo = c * VERTEX_CHUNK;
+            int hi = Math.min(n, lo + VERTEX_CHUNK);
+            int[][] stack = {new int[64]};
+            for (int v = lo; v < hi; v++) {
+                if (visited.get(v) || !visited.set(v)) continue;
+                stack[0][0] = v;
+                expand(stack, 1, Integer.MAX_VALUE);
+            }
+        });
+    }
+
+    // --- 本地 DFS，最多扩展 budget 个顶点；栈扩容后写回 stackRef[0]，返回剩余栈高 ---
+    private int expand(int[][] stackRef, int top, int budget) {
+        int[] stack = stackRef[0];
+        int expansions = 0;
+        while (top > 0 && expansions < budget) {
+            int u = stack[--top];
+            expansions++;
+            for (int j = index[u], end = index[u + 1]; j < end; j++) {
+                int v = edges[j];
+                if (visited.get(v) || !visited.set(v)) continue;
+                if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+                stack[top++] = v;
+            }
+        }
+        stackRef[0] = stack;
+        return top;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 分布式 BFS 的本地分区部分（层同步 BSP）：本地边用方向优化 BFS 扩展一层，
+// 远端边的目标按所属 worker 聚合成批量 ID 发送；每个远端目标只发送一次
+public class PartitionedBFS {
+
+    private final int[] remoteIndex;
+    private final IntIntHashMap nodeToIndex;
+    private final int n;
+    private final int self;
+    private final boolean directionOptimizing;
+
+    private final AtomicBitSet visited;
+    private final BFSResult result;
+    private final DirectionOptimizingBFS kernel;
+
+    // --- 出站：远端边 -> 去重后的 (owner, id) 槽位，按目标 worker 分段 ---
+    private final int[] remoteSlot;
+    private final int[] slotOffset;
+    private final int[] slotIds;
+    private final boolean[] slotSent;
+    private int[][] outbox;
+
+    // --- 当前层状态 ---
+    private int level;
+    private int[] frontier = new int[0];
+    private int[] next = new int[0];
+    private int[] inbox = new int[16];
+    private int inboxSize;
+
+    public PartitionedBFS(int[] index, int[] edges, int[] inIndex, int[] inEdges, int[] remoteIndex,
+                          int[] remoteTargets, IntIntHashMap nodeToIndex, OwnerMap owners, int self,
+                          boolean directionOptimizing) {
+        this.self = self;
+        this.remoteIndex = remoteIndex;
+        this.nodeToIndex = nodeToIndex;
+        this.n = index.length - 1;
+        this.directionOptimizing = directionOptimizing;
+        this.visited = new AtomicBitSet(n);
+        this.result = new BFSResult(n);
+        this.kernel = new DirectionOptimizingBFS(index, edges, inIndex, inEdges, visited, result, null);
+
+        int workers = owners.getNumWorkers();
+        long[] keys = new long[remoteTargets.length];
+        for (int e = 0; e < remoteTargets.length; e++) {
+            keys[e] = ((long) owners.ownerOf(remoteTargets[e]) << 32) | (remoteTargets[e] & 0xFFFFFFFFL);
+        }
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[distinct++] = sorted[i];
+        }
+        this.slotIds = new int[distinct];
+        this.slotOffset = new int[workers + 1];
+        for (int i = 0; i < distinct; i++) {
+            slotIds[i] = (int) sorted[i];
+            slotOffset[(int) (sorted[i] >>> 32) + 1]++;
+        }
+        for (int w = 0; w < workers; w++) slotOffset[w + 1] += slotOffset[w];
+        // 归属本 worker 却不在本地的目标在全局不存在，不发送
+        this.remoteSlot = new int[remoteTargets.length];
+        for (int e = 0; e < keys.length; e++) remoteSlot[e] = Arrays.binarySearch(sorted, 0, distinct, keys[e]);
+        this.slotSent = new boolean[distinct];
+        this.outbox = new int[workers][];
+    }
+
+    // --- 设置源点：仅当源点在本分区时成为第 0 层前沿，返回是否本地拥有 ---
+    public boolean start(int sourceId) {
+        int s = nodeToIndex.get(sourceId);
+        if (s < 0) return false;
+        visited.set(s);
+        result.distance[s] = 0;
+        result.parent[s] = s;
+        result.reached++;
+        frontier = new int[]{s};
+        return true;
+    }
+
+    // --- 扩展当前层：本地边直接标记下一层，远端目标写入各 worker 的出站批次 ---
+    public void expand(ComputeScheduler.Job job) {
+        kernel.setJob(job);
+        next = kernel.expandLevel(frontier, frontier.length, level, directionOptimizing);
+
+        int[] picked = new int[16];
+        int size = 0;
+        for (int u : frontier) {
+            for (int e = remoteIndex[u]; e < remoteIndex[u + 1]; e++) {
+                int slot = remoteSlot[e];
+                if (slotSent[slot]) continue;
+                slotSent[slot] = true;
+                if (size == picked.length) picked = Arrays.copyOf(picked, size * 2);
+                picked[size++] = slot;
+            }
+        }
+        Arrays.sort(picked, 0, size);
+        for (int w = 0; w < outbox.length; w++) outbox[w] = null;
+        int k = 0;
+        for (int w = 0; w < outbox.length; w++) {
+            int lo = k;
+            while (k < size && picked[k] < slotOffset[w + 1]) k++;
+            if (k > lo && w != self) {
+                int[] ids = new int[k - lo];
+                for (int i = lo; i < k; i++) ids[i - lo] = slotIds[picked[i]];
+                outbox[w] = ids;
+            }
+        }
+    }
+
+    // --- 发往 worker 的下一层候选 ID；无内容返回 null ---
+    public int[] outboundIds(int worker) {
+        return outbox[worker];
+    }
+
+    public synchronized void receive(int[] ids) {
+        if (inboxSize + ids.length > inbox.length) {
+            inbox = Arrays.copyOf(inbox, Math.max(inbox.length * 2, inboxSize + ids.length));
+        }
+        System.arraycopy(ids, 0, inbox, inboxSize, ids.length);
+        inboxSize += ids.length;
+    }
+
+    // --- 结束当前层：把收到的远端候选并入下一层前沿，返回新前沿大小 ---
+    public synchronized int apply() {
+        int[] merged = Arrays.copyOf(next, next.length + inboxSize);
+        int size = next.length;
+        for (int i = 0; i < inboxSize; i++) {
+            int v = nodeToIndex.get(inbox[i]);
+            if (v < 0 || !visited.set(v)) continue;
+            result.distance[v] = level + 1;
+            result.reached++;
+            merged[size++] = v;
+        }
+        inboxSize = 0;
+        frontier = size == merged.length ? merged : Arrays.copyOf(merged, size);
+        next = new int[0];
+        level++;
+        if (size > 0) result.levels = Math.max(result.levels, level);
+        return size;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getLocalVertexCount() {
+        return n;
+    }
+
+    // --- 本地顶点的全局跳数距离（未到达为 -1），parent 仅对本地边有效 ---
+    public BFSResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 分布式连通分量（边按无向处理）的本地分区部分：
+// 本地边用无锁并查集并行合并，每个本地分量以其最小节点 ID 为代表；
+// 只向主控交出边界对 (本地代表, 远端节点 ID)，主控合并后回推代表 -> 全局标号
+public class PartitionedComponents {
+
+    private static final int VERTEX_CHUNK = 4096;
+
+    private final int[] nodeMap;
+    private final int[] remoteIndex;
+    private final int[] remoteTargets;
+    private final IntIntHashMap nodeToIndex;
+    private final int n;
+
+    private final int[] rep;        // 本地下标 -> 本地分量代表（节点 ID）
+    private final int[] label;      // 本地下标 -> 全局分量标号（分量内最小节点 ID）
+    private final int localComponents;
+
+    public PartitionedComponents(int[] index, int[] edges, int[] nodeMap, int[] remoteIndex, int[] remoteTargets,
+                                 IntIntHashMap nodeToIndex, ComputeScheduler.Job job) {
+        this.nodeMap = nodeMap;
+        this.remoteIndex = remoteIndex;
+        this.remoteTargets = remoteTargets;
+        this.nodeToIndex = nodeToIndex;
+        this.n = index.length - 1;
+
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(n);
+        int chunks = Math.max(1, (n + VERTEX_CHUNK - 1) / VERTEX_CHUNK);
+        job.parallelFor(chunks, c -> {
+            for (int u = c * VERTEX_CHUNK, hi = Math.min(n, u + VERTEX_CHUNK); u < hi; u++) {
+                for (int j = index[u], end = index[u + 1]; j < end; j++) uf.union(u, edges[j]);
+            }
+        });
+
+        // 代表取分量内最小节点 ID（增量合并追加的顶点排在下标末尾，nodeMap 不一定升序）
+        int[] rootRep = new int[n];
+        Arrays.fill(rootRep, -1);
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int r = uf.find(v);
+            if (rootRep[r] == -1) count++;
+            if (rootRep[r] == -1 || nodeMap[v] < nodeMap[rootRep[r]]) rootRep[r] = v;
+        }
+        this.rep = new int[n];
+        for (int v = 0; v < n; v++) rep[v] = nodeMap[rootRep[uf.find(v)]];
+        this.localComponents = count;
+        this.label = rep.clone();
+    }
+
+    public int getLocalComponentCount() {
+        return localComponents;
+    }
+
+    // --- 去重后的边界对，扁平为 [代表0, 远端ID0, 代表1, 远端ID1, ...] ---
+    public int[] boundaryPairs() {
+        long[] keys = new long[remoteTargets.length];
+        int k = 0;
+        for (int u = 0; u < n; u++) {
+            long high = (long) rep[u] << 32;
+            for (int e = remoteIndex[u]; e < remoteIndex[u + 1]; e++) {
+                keys[k++] = high | (remoteTargets[e] & 0xFFFFFFFFL);
+            }
+        }
+        Arrays.sort(keys, 0, k);
+        int[] pairs = new int[2 * k];
+        int count = 0;
+        for (int i = 0; i < k; i++) {
+            if (i > 0 && keys[i] == keys[i - 1]) continue;
+            pairs[2 * count] = (int) (keys[i] >>> 32);
+            pairs[2 * count + 1] = (int) keys[i];
+            count++;
+        }
+        return Arrays.copyOf(pairs, 2 * count);
+    }
+
+    // --- 查询本地节点的分量代表；不在本分区的 ID 返回 -1 ---
+    public int[] resolve(int[] ids) {
+        int[] reps = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            int v = nodeToIndex.get(ids[i]);
+            reps[i] = v < 0 ? -1 : rep[v];
+        }
+        return reps;
+    }
+
+    // --- 应用主控回推的 [代表, 全局标号] 对；未出现的代表保持自身为标号 ---
+    public void applyLabels(int[] pairs) {
+        IntIntHashMap global = new IntIntHashMap(pairs.length / 2);
+        for (int i = 0; i + 1 < pairs.length; i += 2) global.put(pairs[i], pairs[i + 1]);
+        for (int v = 0; v < n; v++) label[v] = global.getOrDefault(rep[v], rep[v]);
+    }
+
+    // --- 本地节点的全局标号，与 CSR 下标对齐 ---
+    public int[] getLabels() {
+        return label;
+    }
+
+    // --- 构造时的 下标 -> 真实 ID ---
+    public int[] getNodeIds() {
+        return nodeMap;
+    }
+
+    // --- 按全局标号汇总本地节点，扁平为 [标号, 节点数, 节点 ID 之和] 三元组 ---
+    public long[] summary() {
+        long[] keyed = new long[n];
+        for (int v = 0; v < n; v++) keyed[v] = ((long) label[v] << 32) | (v & 0xFFFFFFFFL);
+        Arrays.sort(keyed);
+        long[] out = new long[3 * localComponents];
+        int count = 0;
+        for (int i = 0; i < n; ) {
+            int l = (int) (keyed[i] >>> 32);
+            long size = 0;
+            long idSum = 0;
+            for (; i < n && (int) (keyed[i] >>> 32) == l; i++) {
+                size++;
+                idSum += nodeMap[(int) keyed[i]];
+            }
+            out[3 * count] = l;
+            out[3 * count + 1] = size;
+            out[3 * count + 2] = idSum;
+            count++;
+        }
+        return Arrays.copyOf(out, 3 * count);
+    }
+}
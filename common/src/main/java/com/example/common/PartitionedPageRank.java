@@ -0,0 +1,210 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 分布式 PageRank 的本地分区部分（BSP）：
+// 本地边经转置 CSR 拉取；远端边按目标所属 worker 聚合到“槽位”，每个超步把槽位值批量发给所属 worker
+public class PartitionedPageRank {
+
+    private static final int VERTEX_CHUNK = 4096;
+
+    private final int[] index;
+    private final int[] inIndex;
+    private final int[] inEdges;
+    private final int[] remoteIndex;
+    private final IntIntHashMap nodeToIndex;
+    private final int[] nodeIds;
+    private final int n;
+
+    // --- 出站：远端边 -> 槽位，槽位按目标 worker 分段 ---
+    private final int[] remoteSlot;     // -1 表示目标在全局不存在，边被丢弃
+    private final int[] slotOffset;
+    private final int[] slotIds;
+    private final boolean[] slotExists;
+    private final double[] slotSum;
+
+    // --- 入站：来源 worker -> 其槽位对应的本地下标 ---
+    private final int[][] inbound;
+
+    private int[] degree;
+    private double[] rank;
+    private final double[] localSum;
+    private final double[] inbox;
+    private long totalVertices;
+    private int droppedEdges;
+
+    public PartitionedPageRank(int[] index, int[] inIndex, int[] inEdges, int[] remoteIndex,
+                               int[] remoteTargets, int[] nodeMap, IntIntHashMap nodeToIndex, OwnerMap owners,
+                               int self) {
+        this.index = index;
+        this.inIndex = inIndex;
+        this.inEdges = inEdges;
+        this.remoteIndex = remoteIndex;
+        this.nodeToIndex = nodeToIndex;
+        this.nodeIds = nodeMap;
+        this.n = index.length - 1;
+        this.localSum = new double[n];
+        this.inbox = new double[n];
+        this.inbound = new int[owners.getNumWorkers()][];
+
+        // 按 (owner, id) 去重排序得到槽位
+        int workers = owners.getNumWorkers();
+        long[] keys = new long[remoteTargets.length];
+        for (int e = 0; e < remoteTargets.length; e++) {
+            keys[e] = ((long) owners.ownerOf(remoteTargets[e]) << 32) | (remoteTargets[e] & 0xFFFFFFFFL);
+        }
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[distinct++] = sorted[i];
+        }
+        this.slotIds = new int[distinct];
+        this.slotOffset = new int[workers + 1];
+        for (int i = 0; i < distinct; i++) {
+            slotIds[i] = (int) sorted[i];
+            slotOffset[(int) (sorted[i] >>> 32) + 1]++;
+        }
+        for (int w = 0; w < workers; w++) slotOffset[w + 1] += slotOffset[w];
+        this.remoteSlot = new int[remoteTargets.length];
+        for (int e = 0; e < keys.length; e++) {
+            remoteSlot[e] = Arrays.binarySearch(sorted, 0, distinct, keys[e]);
+        }
+        this.slotSum = new double[distinct];
+        this.slotExists = new boolean[distinct];
+        Arrays.fill(slotExists, true);
+
+        // 归属本 worker 但本地不存在的目标：全局不存在，直接丢弃
+        dropSlots(self, new boolean[slotOffset[self + 1] - slotOffset[self]]);
+    }
+
+    // --- 发往 worker 的槽位 ID（用于探测与注册） ---
+    public int[] slotIdsFor(int worker) {
+        return Arrays.copyOfRange(slotIds, slotOffset[worker], slotOffset[worker + 1]);
+    }
+
+    // --- 按探测结果丢弃不存在的目标；其余槽位顺序不变 ---
+    public void dropSlots(int worker, boolean[] exists) {
+        int base = slotOffset[worker];
+        for (int i = 0; i < exists.length; i++) {
+            if (!exists[i]) slotExists[base + i] = false;
+        }
+        for (int e = 0; e < remoteSlot.length; e++) {
+            int slot = remoteSlot[e];
+            if (slot >= 0 && !slotExists[slot]) {
+                remoteSlot[e] = -1;
+                droppedEdges++;
+            }
+        }
+    }
+
+    // --- 接收方注册来源 worker 的槽位：返回每个 ID 是否存在，入站只保留存在的 ID ---
+    public boolean[] registerInbound(int from, int[] ids) {
+        boolean[] exists = new boolean[ids.length];
+        int[] local = new int[ids.length];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            int idx = nodeToIndex.get(ids[i]);
+            exists[i] = idx >= 0;
+            if (idx >= 0) local[count++] = idx;
+        }
+        inbound[from] = Arrays.copyOf(local, count);
+        return exists;
+    }
+
+    public int getDroppedEdges() {
+        return droppedEdges;
+    }
+
+    public int getLocalVertexCount() {
+        return n;
+    }
+
+    // --- 初始化：出度 = 本地出边 + 有效远端出边，排名均匀为 1/N ---
+    public void start(long totalVertices) {
+        this.totalVertices = totalVertices;
+        degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            int d = index[u + 1] - index[u];
+            for (int e = remoteIndex[u]; e < remoteIndex[u + 1]; e++) {
+                if (remoteSlot[e] >= 0) d++;
+            }
+            degree[u] = d;
+        }
+        rank = new double[n];
+        Arrays.fill(rank, 1.0 / totalVertices);
+        Arrays.fill(inbox, 0.0);
+    }
+
+    // --- 超步计算：本地拉取求和 + 远端槽位聚合，返回本分区悬挂点排名之和 ---
+    public double step(ComputeScheduler.Job job) {
+        double[] contrib = new double[n];
+        int chunks = Math.max(1, (n + VERTEX_CHUNK - 1) / VERTEX_CHUNK);
+        job.parallelFor(chunks, c -> {
+            for (int u = c * VERTEX_CHUNK, hi = Math.min(n, u + VERTEX_CHUNK); u < hi; u++) {
+                contrib[u] = degree[u] == 0 ? 0.0 : rank[u] / degree[u];
+            }
+        });
+        job.parallelFor(chunks, c -> {
+            for (int v = c * VERTEX_CHUNK, hi = Math.min(n, v + VERTEX_CHUNK); v < hi; v++) {
+                double sum = 0.0;
+                for (int k = inIndex[v], end = inIndex[v + 1]; k < end; k++) sum += contrib[inEdges[k]];
+                localSum[v] = sum;
+            }
+        });
+
+        Arrays.fill(slotSum, 0.0);
+        for (int u = 0; u < n; u++) {
+            double cu = contrib[u];
+            for (int e = remoteIndex[u]; e < remoteIndex[u + 1]; e++) {
+                int slot = remoteSlot[e];
+                if (slot >= 0) slotSum[slot] += cu;
+            }
+        }
+
+        double dangling = 0.0;
+        for (int u = 0; u < n; u++) if (degree[u] == 0) dangling += rank[u];
+        return dangling;
+    }
+
+    // --- 发往 worker 的批量值：只含存在的槽位，顺序与接收方 registerInbound 保留的 ID 一致；无内容返回 null ---
+    public double[] outboundValues(int worker) {
+        int lo = slotOffset[worker];
+        int hi = slotOffset[worker + 1];
+        double[] out = new double[hi - lo];
+        int count = 0;
+        for (int s = lo; s < hi; s++) {
+            if (slotExists[s]) out[count++] = slotSum[s];
+        }
+        return count == 0 ? null : Arrays.copyOf(out, count);
+    }
+
+    // --- 接收来自 worker 的批量值 ---
+    public synchronized void receive(int from, double[] values) {
+        int[] local = inbound[from];
+        if (local == null) return;
+        for (int i = 0; i < values.length && i < local.length; i++) inbox[local[i]] += values[i];
+    }
+
+    // --- 应用超步：rank = (1-d)/N + d * (入边贡献 + 全局悬挂质量 / N)，返回 L1 变化量 ---
+    public synchronized double apply(double damping, double totalDangling) {
+        double base = (1.0 - damping) / totalVertices + damping * totalDangling / totalVertices;
+        double delta = 0.0;
+        for (int v = 0; v < n; v++) {
+            double value = base + damping * (localSum[v] + inbox[v]);
+            delta += Math.abs(value - rank[v]);
+            rank[v] = value;
+        }
+        Arrays.fill(inbox, 0.0);
+        return delta;
+    }
+
+    public double[] getRank() {
+        return rank;
+    }
+
+    // --- 构造时的 下标 -> 真实 ID，与 getRank() 对齐 ---
+    public int[] getNodeIds() {
+        return nodeIds;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.common;
+
+// 点对点最短路批量查询结果：与查询一一对应的距离（不可达为 +∞）及每个查询出堆的顶点数
+public class PathQueryResult {
+
+    public final double[] distance;
+    public final int[] settled;
+    public final int landmarks;     // 使用的地标数，0 表示普通双向 Dijkstra
+
+    public PathQueryResult(int queries, int landmarks) {
+        this.distance = new double[queries];
+        this.settled = new int[queries];
+        this.landmarks = landmarks;
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.common;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// 点对点最短路：正向 CSR 与带权反向 CSR 上的双向 Dijkstra，可选 ALT 势函数（A* + 地标下界）。
+// 两个方向使用平均势 p(v) = (πt(v) - πs(v)) / 2 与 -p(v)，两侧约化边权一致且非负，
+// 停止条件仍是两侧堆顶键之和 >= 当前最优 μ。查询状态按顶点数分配一次，用时间戳复用，放回池中供并发查询
+public class PointToPointSearch {
+
+    private static final int ACTIVE_LANDMARKS = 4;  // 每个查询只用对 (s, t) 下界最紧的几个地标
+    private static final int QUERY_CHUNKS = 64;
+
+    private final int[] index;
+    private final int[] edges;
+    private final double[] weights;
+    private final int[] inIndex;
+    private final int[] inEdges;
+    private final double[] inWeights;
+    private final LandmarkIndex landmarks;      // 为 null 时退化为普通双向 Dijkstra
+    private final int n;
+    private final ConcurrentLinkedQueue<State> states = new ConcurrentLinkedQueue<>();
+
+    public PointToPointSearch(int[] index, int[] edges, double[] weights, int[] inIndex, int[] inEdges,
+                              double[] inWeights, LandmarkIndex landmarks) {
+        this.index = index;
+        this.edges = edges;
+        this.weights = weights;
+        this.inIndex = inIndex;
+        this.inEdges = inEdges;
+        this.inWeights = inWeights;
+        this.landmarks = landmarks;
+        this.n = index.length - 1;
+    }
+
+    public LandmarkIndex getLandmarks() {
+        return landmarks;
+    }
+
+    // --- 批量查询（CSR 下标，-1 表示不在本图中，结果为 +∞），按查询并行 ---
+    public PathQueryResult run(int[] sources, int[] targets, ComputeScheduler.Job job) {
+        int q = sources.length;
+        PathQueryResult result = new PathQueryResult(q, landmarks == null ? 0 : landmarks.size());
+        int chunks = Math.max(1, Math.min(q, QUERY_CHUNKS));
+        job.parallelFor(chunks, c -> {
+            State st = borrow();
+            try {
+                for (int i = (int) ((long) q * c / chunks), hi = (int) ((long) q * (c + 1) / chunks); i < hi; i++) {
+                    result.distance[i] = query(sources[i], targets[i], st);
+                    result.settled[i] = st.settled;
+                }
+            } finally {
+                states.offer(st);
+            }
+        });
+        return result;
+    }
+
+    private State borrow() {
+        State st = states.poll();
+        return st != null ? st : new State(n);
+    }
+
+    private double query(int s, int t, State st) {
+        st.settled = 0;
+        if (s < 0 || t < 0) return Double.POSITIVE_INFINITY;
+        if (s == t) return 0.0;
+        st.begin(s, t, landmarks == null ? null : landmarks.select(s, t, ACTIVE_LANDMARKS));
+        Heap forward = st.forward;
+        Heap backward = st.backward;
+        st.setForward(s, 0.0);
+        forward.push(st.potential(s), s);
+        st.setBackward(t, 0.0);
+        backward.push(-st.potential(t), t);
+
+        double best = Double.POSITIVE_INFINITY;
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            if (forward.peekKey() + backward.peekKey() >= best) break;
+            if (forward.size <= backward.size) {
+                double key = forward.peekKey();
+                int u = forward.pop();
+                double du = st.forwardDistance(u);
+                if (key > du + st.potential(u)) continue;   // 过期项
+                st.settled++;
+                for (int j = index[u], end = index[u + 1]; j < end; j++) {
+                    int v = edges[j];
+                    double nd = du + weights[j];
+                    if (nd >= st.forwardDistance(v)) continue;
+                    double p = st.potential(v);
+                    if (!Double.isFinite(p)) continue;      // 势为无穷：v 不可能在 s -> t 路径上
+                    st.setForward(v, nd);
+                    forward.push(nd + p, v);
+                    double dv = st.backwardDistance(v);
+                    if (nd + dv < best) best = nd + dv;
+                }
+            } else {
+                double key = backward.peekKey();
+                int u = backward.pop();
+                double du = st.backwardDistance(u);
+                if (key > du - st.potential(u)) continue;
+                st.settled++;
+                for (int k = inIndex[u], end = inIndex[u + 1]; k < end; k++) {
+                    int v = inEdges[k];
+                    double nd = du + inWeights[k];
+                    if (nd >= st.backwardDistance(v)) continue;
+                    double p = st.potential(v);
+                    if (!Double.isFinite(p)) continue;
+                    st.setBackward(v, nd);
+                    backward.push(nd - p, v);
+                    double dv = st.forwardDistance(v);
+                    if (nd + dv < best) best = nd + dv;
+                }
+            }
+        }
+        return best;
+    }
+
+    // --- 单个查询线程的工作区：距离与势按时间戳懒初始化，无需每次清零 O(n) 数组 ---
+    private final class State {
+        final double[] distF;
+        final double[] distR;
+        final double[] pot;
+        final int[] markF;
+        final int[] markR;
+        final int[] markP;
+        final Heap forward = new Heap();
+        final Heap backward = new Heap();
+        int epoch;
+        int settled;
+        int s;
+        int t;
+        int[] active;
+
+        State(int n) {
+            distF = new double[n];
+            distR = new double[n];
+            pot = new double[n];
+            markF = new int[n];
+            markR = new int[n];
+            markP = new int[n];
+        }
+
+        void begin(int s, int t, int[] active) {
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(markF, 0);
+                Arrays.fill(markR, 0);
+                Arrays.fill(markP, 0);
+                epoch = 1;
+            }
+            this.s = s;
+            this.t = t;
+            this.active = active;
+            forward.clear();
+            backward.clear();
+        }
+
+        double forwardDistance(int v) {
+            return markF[v] == epoch ? distF[v] : Double.POSITIVE_INFINITY;
+        }
+
+        double backwardDistance(int v) {
+            return markR[v] == epoch ? distR[v] : Double.POSITIVE_INFINITY;
+        }
+
+        void setForward(int v, double d) {
+            markF[v] = epoch;
+            distF[v] = d;
+        }
+
+        void setBackward(int v, double d) {
+            markR[v] = epoch;
+            distR[v] = d;
+        }
+
+        // --- p(v) = (到 t 的下界 - 自 s 的下界) / 2；无地标时为 0 ---
+        double potential(int v) {
+            if (active == null) return 0.0;
+            if (markP[v] == epoch) return pot[v];
+            double[] table = landmarks.table;
+            int k = landmarks.k;
+            double toT = 0.0;
+            double fromS = 0.0;
+            for (int i : active) {
+                int pv = 2 * (v * k + i);
+                int pt = 2 * (t * k + i);
+                int ps = 2 * (s * k + i);
+                double a = table[pv + 1] - table[pt + 1];
+                double b = table[pt] - table[pv];
+                double c = table[pv] - table[ps];
+                double d = table[ps + 1] - table[pv + 1];
+                if (a > toT) toT = a;
+                if (b > toT) toT = b;
+                if (c > fromS) fromS = c;
+                if (d > fromS) fromS = d;
+            }
+            double p = (toT - fromS) / 2;
+            markP[v] = epoch;
+            pot[v] = p;
+            return p;
+        }
+    }
+
+    // --- 最小二叉堆：double 键 + int 顶点，允许重复项（过期项出堆时跳过） ---
+    private static final class Heap {
+        double[] keys = new double[64];
+        int[] values = new int[64];
+        int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void push(double key, int value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) break;
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int pop() {
+            int top = values[0];
+            double key = keys[--size];
+            int value = values[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (keys[child] >= key) break;
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+            return top;
+        }
+    }
+}
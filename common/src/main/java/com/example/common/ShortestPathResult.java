@@ -0,0 +1,20 @@
+package com.example.common;
+
+import java.util.Arrays;
+
+// 单源最短路结果：按 CSR 下标存放的精确 double 距离（未到达或超出上界为 +∞）
+public class ShortestPathResult {
+
+    public final double[] distance;
+    public int reached;
+    public double delta;
+    public int buckets;
+    public int phases;
+    public long relaxations;
+    public int[] nodeIds;       // 计算时的 下标 -> 真实 ID（nodeMap 快照）
+
+    public ShortestPathResult(int n) {
+        this.distance = new double[n];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.common;
+
+// 最小生成森林：平行原始数组存放每条树边的两个端点与权重
+public class SpanningForest {
+
+    public final int[] source;
+    public final int[] target;
+    public final double[] weight;
+    public final int edgeCount;
+    public double totalWeight;
+    public int rounds;
+
+    public SpanningForest(int[] source, int[] target, double[] weight, int edgeCount) {
+        this.source = source;
+        this.target = target;
+        this.weight = weight;
+        this.edgeCount = edgeCount;
+        for (int i = 0; i < edgeCount; i++) totalWeight += weight[i];
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.common;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+// 顶点重排：对 CSR 下标空间施加提升访问局部性的排列，生成一组新数组（真实 ID 经 nodeMap / nodeToIndex 保持不变）。
+//   degree：按总度数（出 + 入）降序，高度数顶点的排名、visited 位集中在数组前部；
+//   hub：只把度数高于平均值的枢纽按度数降序移到前部，其余顶点保持原相对顺序；
+//   rcm：无向视图上的逆 Cuthill-McKee，BFS 逐层编号（邻居按度数升序），使边的两端下标相近
+class VertexReordering {
+
+    static final String NONE = "none";
+    static final String DEGREE = "degree";
+    static final String HUB = "hub";
+    static final String RCM = "rcm";
+
+    private static final int VERTEX_CHUNK = 4096;
+
+    // --- 原 CSR ---
+    private final int[] baseIndex;
+    private final int[] baseEdges;
+    private final double[] baseWeights;
+    private final int[] baseNodeMap;
+    private final int[] baseRemoteIndex;
+    private final int[] baseRemoteTargets;
+    private final double[] baseRemoteWeights;
+    private final String ordering;
+    private final int n;
+
+    // --- 重排结果 ---
+    private int[] rank;             // 旧下标 -> 新下标
+    private int[] csrIndex;
+    private int[] csrEdges;
+    private double[] edgeWeights;
+    private int[] nodeMap;
+    private IntIntHashMap nodeToIndex;
+    private int[] remoteIndex;
+    private int[] remoteTargets;
+    private double[] remoteWeights;
+    private long millis;
+
+    VertexReordering(int[] index, int[] edges, double[] weights, int[] nodeMap,
+                     int[] remoteIndex, int[] remoteTargets, double[] remoteWeights, String ordering) {
+        this.baseIndex = index;
+        this.baseEdges = edges;
+        this.baseWeights = weights;
+        this.baseNodeMap = nodeMap;
+        this.baseRemoteIndex = remoteIndex;
+        this.baseRemoteTargets = remoteTargets;
+        this.baseRemoteWeights = remoteWeights;
+        this.ordering = check(ordering);
+        this.n = index.length - 1;
+    }
+
+    static String check(String ordering) {
+        String name = ordering == null ? NONE : ordering.toLowerCase(Locale.ROOT);
+        return switch (name) {
+            case NONE, DEGREE, HUB, RCM -> name;
+            default -> throw new IllegalArgumentException("Unknown vertex ordering " + ordering);
+        };
+    }
+
+    void run(ComputeScheduler.Job job) {
+        long t0 = System.nanoTime();
+        int[] order = switch (ordering) {
+            case DEGREE -> degreeOrder(totalDegrees(), false);
+            case HUB -> degreeOrder(totalDegrees(), true);
+            case RCM -> rcmOrder();
+            default -> null;
+        };
+        rank = new int[n];
+        for (int i = 0; i < n; i++) rank[order == null ? i : order[i]] = i;
+        permute(order, job);
+        millis = (System.nanoTime() - t0) / 1_000_000;
+    }
+
+    // ---------- 排列 ----------
+
+    private int[] totalDegrees() {
+        int[] degree = new int[n];
+        for (int u = 0; u < n; u++) {
+            degree[u] += baseIndex[u + 1] - baseIndex[u];
+            for (int j = baseIndex[u], end = baseIndex[u + 1]; j < end; j++) degree[baseEdges[j]]++;
+        }
+        return degree;
+    }
+
+    // --- 计数排序按度数降序（同度数保持原顺序）；hubsOnly 时只移动度数高于平均值的顶点 ---
+    private int[] degreeOrder(int[] degree, boolean hubsOnly) {
+        int max = 0;
+        for (int d : degree) max = Math.max(max, d);
+        double average = n == 0 ? 0 : 2.0 * baseEdges.length / n;
+        int[] start = new int[max + 2];
+        for (int v = 0; v < n; v++) {
+            if (!hubsOnly || degree[v] > average) start[max - degree[v] + 1]++;
+        }
+        for (int i = 1; i < start.length; i++) start[i] += start[i - 1];
+        int hubs = start[max + 1];
+        int[] order = new int[n];
+        int tail = hubs;
+        for (int v = 0; v < n; v++) {
+            if (!hubsOnly || degree[v] > average) order[start[max - degree[v]]++] = v;
+            else order[tail++] = v;
+        }
+        return order;
+    }
+
+    // --- 逆 Cuthill-McKee：每个分量从剩余度数最小的顶点出发做 BFS，同层邻居按度数升序入队，最后整体反转 ---
+    private int[] rcmOrder() {
+        int[] degree = totalDegrees();
+        // 无向邻接：出边 + 入边
+        int[] adjIndex = new int[n + 1];
+        for (int v = 0; v < n; v++) adjIndex[v + 1] = degree[v];
+        for (int v = 0; v < n; v++) adjIndex[v + 1] += adjIndex[v];
+        int[] adj = new int[adjIndex[n]];
+        int[] cursor = Arrays.copyOf(adjIndex, n);
+        for (int u = 0; u < n; u++) {
+            for (int j = baseIndex[u], end = baseIndex[u + 1]; j < end; j++) {
+                int v = baseEdges[j];
+                adj[cursor[u]++] = v;
+                adj[cursor[v]++] = u;
+            }
+        }
+
+        int[] descending = degreeOrder(degree, false);
+        boolean[] placed = new boolean[n];
+        int[] order = new int[n];
+        int head = 0;
+        int tail = 0;
+        long[] buf = new long[16];
+        for (int r = n - 1; r >= 0; r--) {
+            int root = descending[r];
+            if (placed[root]) continue;
+            placed[root] = true;
+            order[tail++] = root;
+            while (head < tail) {
+                int u = order[head++];
+                int k = 0;
+                for (int j = adjIndex[u], end = adjIndex[u + 1]; j < end; j++) {
+                    int v = adj[j];
+                    if (placed[v]) continue;
+                    placed[v] = true;
+                    if (k == buf.length) buf = Arrays.copyOf(buf, k * 2);
+                    buf[k++] = ((long) degree[v] << 32) | v;
+                }
+                Arrays.sort(buf, 0, k);
+                for (int i = 0; i < k; i++) order[tail++] = (int) buf[i];
+            }
+        }
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+
+    // --- 按新顺序拷贝每个顶点的本地行与远端行，本地边目标换成新下标 ---
+    private void permute(int[] order, ComputeScheduler.Job job) {
+        int[] index = new int[n + 1];
+        int[] rIndex = new int[n + 1];
+        nodeMap = new int[n];
+        for (int i = 0; i < n; i++) {
+            int old = order == null ? i : order[i];
+            index[i + 1] = index[i] + baseIndex[old + 1] - baseIndex[old];
+            rIndex[i + 1] = rIndex[i] + baseRemoteIndex[old + 1] - baseRemoteIndex[old];
+            nodeMap[i] = baseNodeMap[old];
+        }
+        int[] edges = new int[baseEdges.length];
+        double[] weights = new double[baseWeights.length];
+        int[] rTargets = new int[baseRemoteTargets.length];
+        double[] rWeights = new double[baseRemoteWeights.length];
+        int chunks = Math.max(1, (n + VERTEX_CHUNK - 1) / VERTEX_CHUNK);
+        job.parallelFor(chunks, c -> {
+            for (int i = c * VERTEX_CHUNK, hi = Math.min(n, i + VERTEX_CHUNK); i < hi; i++) {
+                int old = order == null ? i : order[i];
+                int pos = index[i];
+                for (int j = baseIndex[old], end = baseIndex[old + 1]; j < end; j++, pos++) {
+                    edges[pos] = rank[baseEdges[j]];
+                    weights[pos] = baseWeights[j];
+                }
+                int from = baseRemoteIndex[old];
+                int len = baseRemoteIndex[old + 1] - from;
+                System.arraycopy(baseRemoteTargets, from, rTargets, rIndex[i], len);
+                System.arraycopy(baseRemoteWeights, from, rWeights, rIndex[i], len);
+            }
+        });
+        nodeToIndex = new IntIntHashMap(n);
+        for (int i = 0; i < n; i++) nodeToIndex.put(nodeMap[i], i);
+        csrIndex = index;
+        csrEdges = edges;
+        edgeWeights = weights;
+        remoteIndex = rIndex;
+        remoteTargets = rTargets;
+        remoteWeights = rWeights;
+    }
+
+    // --- 平均边跨度 |rank(u) - rank(v)|，衡量排列的局部性 ---
+    static double averageSpan(int[] index, int[] edges) {
+        long total = 0;
+        for (int u = 0; u + 1 < index.length; u++) {
+            for (int j = index[u]; j < index[u + 1]; j++) total += Math.abs(edges[j] - u);
+        }
+        return edges.length == 0 ? 0.0 : (double) total / edges.length;
+    }
+
+    // ---------- 结果 ----------
+
+    int[] getCsrIndex() { return csrIndex; }
+    int[] getCsrEdges() { return csrEdges; }
+    double[] getEdgeWeights() { return edgeWeights; }
+    int[] getNodeMap() { return nodeMap; }
+    IntIntHashMap getNodeToIndex() { return nodeToIndex; }
+    int[] getRemoteIndex() { return remoteIndex; }
+    int[] getRemoteTargets() { return remoteTargets; }
+    double[] getRemoteWeights() { return remoteWeights; }
+    long getMillis() { return millis; }
+}
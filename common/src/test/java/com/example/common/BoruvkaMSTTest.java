@@ -0,0 +1,154 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 并行 Borůvka 与按权排序的 Kruskal 对照（边按无向处理）；并查集在并发合并下与串行结果一致
+class BoruvkaMSTTest {
+
+    @Test
+    void matchesKruskalWeightAndEdgeCount() {
+        Random random = new Random(9);
+        for (int trial = 0; trial < 4; trial++) {
+            int n = 500 + 3000 * trial;
+            // 权重只有 5 种取值，大量平局
+            TestEdges edges = randomEdges(random, n, n * 3, () -> 1 + random.nextInt(5));
+            SpanningForest forest = edges.build().minimumSpanningTree();
+            Kruskal expected = kruskal(edges);
+            assertEquals(expected.count, forest.edgeCount, "trial " + trial);
+            assertEquals(expected.weight, forest.totalWeight, 1e-9, "trial " + trial);
+            assertIsSpanningForest(edges, forest);
+        }
+    }
+
+    // 权重互不相同时最小生成森林唯一，边集合必须与 Kruskal 完全一致
+    @Test
+    void distinctWeightsGiveTheSameEdges() {
+        Random random = new Random(10);
+        int n = 2000;
+        int m = n * 4;
+        double[] pool = new double[n + m];
+        for (int i = 0; i < pool.length; i++) pool[i] = i + 1;
+        for (int i = pool.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double t = pool[i];
+            pool[i] = pool[j];
+            pool[j] = t;
+        }
+        int[] next = {0};
+        TestEdges edges = randomEdges(random, n, m, () -> pool[next[0]++]);
+        SpanningForest forest = edges.build().minimumSpanningTree();
+        Set<String> actual = new HashSet<>();
+        for (int i = 0; i < forest.edgeCount; i++) actual.add(key(forest.source[i], forest.target[i]));
+        assertEquals(kruskal(edges).edges, actual);
+    }
+
+    @Test
+    void concurrentUnionsMatchSequentialUnions() {
+        Random random = new Random(11);
+        int n = 50_000;
+        int m = 40_000;
+        int[] a = new int[m];
+        int[] b = new int[m];
+        for (int i = 0; i < m; i++) {
+            a[i] = random.nextInt(n);
+            b[i] = random.nextInt(n);
+        }
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(n);
+        AtomicInteger merges = new AtomicInteger();
+        ComputeScheduler scheduler = new ComputeScheduler(8);
+        try (ComputeScheduler.Job job = scheduler.openJob("uf")) {
+            job.parallelFor(64, c -> {
+                for (int i = c; i < m; i += 64) if (uf.union(a[i], b[i])) merges.incrementAndGet();
+            });
+        }
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+        int sets = n;
+        for (int i = 0; i < m; i++) {
+            int x = root(parent, a[i]);
+            int y = root(parent, b[i]);
+            if (x != y) {
+                parent[x] = y;
+                sets--;
+            }
+        }
+        assertEquals(n - sets, merges.get());
+        // 同一集合的元素根相同，且根为集合内最小下标（大根挂到小根下）
+        Map<Integer, Integer> smallest = new HashMap<>();
+        for (int v = 0; v < n; v++) smallest.merge(root(parent, v), v, Math::min);
+        for (int v = 0; v < n; v++) assertEquals((int) smallest.get(root(parent, v)), uf.find(v));
+    }
+
+    private static int root(int[] parent, int x) {
+        while (parent[x] != x) x = parent[x] = parent[parent[x]];
+        return x;
+    }
+
+    private static void assertIsSpanningForest(TestEdges edges, SpanningForest forest) {
+        Set<String> graphEdges = new HashSet<>();
+        for (int e = 0; e < edges.size(); e++) graphEdges.add(key(edges.src[e], edges.dst[e]));
+        Map<Integer, Integer> parent = new HashMap<>();
+        for (int i = 0; i < forest.edgeCount; i++) {
+            assertTrue(graphEdges.contains(key(forest.source[i], forest.target[i])), "forest edge not in graph");
+            int x = find(parent, forest.source[i]);
+            int y = find(parent, forest.target[i]);
+            assertTrue(x != y, "forest has a cycle");
+            parent.put(x, y);
+        }
+    }
+
+    private static int find(Map<Integer, Integer> parent, int x) {
+        while (parent.containsKey(x)) x = parent.get(x);
+        return x;
+    }
+
+    private static final class Kruskal {
+        final Set<String> edges = new HashSet<>();
+        double weight;
+        int count;
+    }
+
+    // --- 朴素参照：边按权重排序，依次用并查集加入不成环的边；只考虑两端都是本图顶点的边 ---
+    private static Kruskal kruskal(TestEdges edges) {
+        Set<Integer> vertices = new HashSet<>();
+        for (int e = 0; e < edges.size(); e++) vertices.add(edges.src[e]);
+        Integer[] order = new Integer[edges.size()];
+        for (int e = 0; e < order.length; e++) order[e] = e;
+        Arrays.sort(order, (x, y) -> Double.compare(edges.w[x], edges.w[y]));
+        Map<Integer, Integer> parent = new HashMap<>();
+        Kruskal result = new Kruskal();
+        for (int e : order) {
+            if (!vertices.contains(edges.dst[e])) continue;
+            int x = find(parent, edges.src[e]);
+            int y = find(parent, edges.dst[e]);
+            if (x == y) continue;
+            parent.put(x, y);
+            result.edges.add(key(edges.src[e], edges.dst[e]));
+            result.weight += edges.w[e];
+            result.count++;
+        }
+        return result;
+    }
+
+    private static String key(int u, int v) {
+        return Math.min(u, v) + "-" + Math.max(u, v);
+    }
+
+    // --- 随机有向图：ID 稀疏，约 1/21 的目标不在本图中（远端边，不参与生成树） ---
+    private static TestEdges randomEdges(Random random, int n, int m, DoubleSupplier weights) {
+        return TestEdges.random(random, n, m, 2, 0, n / 20, weights);
+    }
+}
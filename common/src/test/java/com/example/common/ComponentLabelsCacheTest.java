@@ -0,0 +1,70 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 分量标号缓存：一个线程不断插入新顶点并合并（布局变长），其余线程同时查询分量与 PageRank，
+// 拿到的标号必须与计算它的 nodeMap 等长，PageRank 不得用旧布局的标号越界
+class ComponentLabelsCacheTest {
+
+    @Test
+    void labelsFollowTheLayoutUnderConcurrentInserts() throws Exception {
+        Graph g = PageRankEngineTest.randomGraph(new Random(22), 500);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                int kind = t;
+                readers.add(pool.submit(() -> {
+                    while (!done.get()) {
+                        switch (kind) {
+                            case 0 -> {
+                                ComponentLabels labels = g.componentLabels();
+                                assertEquals(labels.nodeIds.length, labels.label.length);
+                            }
+                            case 1 -> {
+                                PageRankResult r = g.pageRank(0.85, 1e-3, 5);
+                                assertEquals(r.components.nodeIds.length, r.rank.length);
+                            }
+                            default -> {
+                                int vertices = 0;
+                                for (Set<Integer> c : g.getConnectedComponentsBFS()) vertices += c.size();
+                                assertTrue(vertices >= 500);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // 每批追加一个新顶点（ID 大于已有的全部顶点），一半的批次立即合并
+            for (int round = 0; round < 2000; round++) {
+                g.insertEdges(new int[]{10_000 + round}, new int[]{round % 500 * 5}, new double[]{1}, 1);
+                if (round % 2 == 0) g.compact();
+            }
+            done.set(true);
+            for (Future<?> f : readers) f.get();
+        } finally {
+            done.set(true);
+            pool.shutdownNow();
+        }
+
+        // 图不再变化并合并后，同一版本的查询复用同一份标号
+        g.compact();
+        ComponentLabels labels = g.componentLabels();
+        assertEquals(2500, labels.label.length);
+        assertSame(labels, g.componentLabels());
+    }
+}
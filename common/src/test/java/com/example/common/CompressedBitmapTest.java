@@ -0,0 +1,109 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 压缩位图与 TreeSet 对照：构建、查询、按位或合并与序列化往返覆盖数组 / 位图 / 游程三种容器及负数（无符号顺序）
+class CompressedBitmapTest {
+
+    @Test
+    void roundTripsEveryContainerType() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 20; trial++) {
+            TreeSet<Integer> expected = randomSet(random);
+            int[] values = shuffled(expected, random);
+            CompressedBitmap bm = CompressedBitmap.of(values, values.length);
+            assertMatches(expected, bm);
+
+            byte[] bytes = bm.serialize();
+            assertEquals(bm.serializedBytes(), bytes.length);
+            CompressedBitmap copy = CompressedBitmap.deserialize(bytes);
+            assertMatches(expected, copy);
+            assertArrayEquals(bytes, copy.serialize());
+        }
+    }
+
+    @Test
+    void orMatchesSetUnion() {
+        Random random = new Random(14);
+        for (int trial = 0; trial < 20; trial++) {
+            TreeSet<Integer> a = randomSet(random);
+            TreeSet<Integer> b = randomSet(random);
+            CompressedBitmap merged = CompressedBitmap.of(shuffled(a, random), a.size())
+                    .or(CompressedBitmap.of(shuffled(b, random), b.size()));
+            a.addAll(b);
+            assertMatches(a, merged);
+            assertMatches(a, CompressedBitmap.deserialize(merged.serialize()));
+        }
+    }
+
+    @Test
+    void emptyBitmapRoundTrips() {
+        CompressedBitmap empty = CompressedBitmap.deserialize(new CompressedBitmap().serialize());
+        assertEquals(0, empty.cardinality());
+        assertEquals(0, empty.toArray().length);
+        assertFalse(empty.contains(0));
+    }
+
+    @Test
+    void rejectsForeignData() {
+        assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.deserialize(new byte[]{1, 2, 3, 4, 0, 0, 0, 0}));
+    }
+
+    private static void assertMatches(TreeSet<Integer> expected, CompressedBitmap bm) {
+        assertEquals(expected.size(), bm.cardinality());
+        int[] want = new int[expected.size()];
+        int i = 0;
+        for (int v : expected) want[i++] = v;
+        assertArrayEquals(want, bm.toArray());
+        for (int v : expected) assertTrue(bm.contains(v));
+        for (int v : new int[]{-1, 1 << 20, 65535}) assertEquals(expected.contains(v), bm.contains(v));
+    }
+
+    // --- 每个 65536 区间随机取一种形态：稀疏（数组）、稠密（位图）、连续段（游程）；含负数区间 ---
+    private static TreeSet<Integer> randomSet(Random random) {
+        TreeSet<Integer> set = new TreeSet<>(Integer::compareUnsigned);
+        int chunks = random.nextInt(6);
+        for (int c = 0; c < chunks; c++) {
+            int high = random.nextBoolean() ? random.nextInt(64) : 0xFFFF - random.nextInt(4);
+            int base = high << 16;
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    for (int k = random.nextInt(3000); k > 0; k--) set.add(base | random.nextInt(1 << 16));
+                }
+                case 1 -> {
+                    for (int k = 10_000 + random.nextInt(30_000); k > 0; k--) set.add(base | random.nextInt(1 << 16));
+                }
+                default -> {
+                    for (int r = 1 + random.nextInt(8); r > 0; r--) {
+                        int start = random.nextInt(1 << 16);
+                        int end = Math.min(1 << 16, start + 1 + random.nextInt(5000));
+                        for (int v = start; v < end; v++) set.add(base | v);
+                    }
+                }
+            }
+        }
+        return set;
+    }
+
+    private static int[] shuffled(TreeSet<Integer> set, Random random) {
+        int[] values = new int[set.size()];
+        int i = 0;
+        for (int v : set) values[i++] = v;
+        for (i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = values[i];
+            values[i] = values[j];
+            values[j] = t;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 调度器：同线程嵌套的 Job 不占份额；configure 替换实例后，旧实例上未关闭的 Job 仍可继续提交任务
+class ComputeSchedulerTest {
+
+    @Test
+    void nestedJobsOnTheSameThreadShareTheOuterSlot() {
+        ComputeScheduler scheduler = new ComputeScheduler(8);
+        try (ComputeScheduler.Job outer = scheduler.openJob("outer")) {
+            try (ComputeScheduler.Job inner = scheduler.openJob("inner")) {
+                assertEquals(1, scheduler.metrics().get("activeJobs"));
+                assertEquals(8, scheduler.fairShare());
+            }
+            assertEquals(1, scheduler.metrics().get("activeJobs"));
+        }
+        assertEquals(0, scheduler.metrics().get("activeJobs"));
+        assertEquals(1L, scheduler.metrics().get("completedJobs"));
+    }
+
+    @Test
+    void jobsOpenedBeforeConfigureKeepTheirPool() {
+        ComputeScheduler.configure(4);
+        ComputeScheduler old = ComputeScheduler.shared();
+        try {
+            try (ComputeScheduler.Job job = old.openJob("long-running")) {
+                ComputeScheduler.configure(2);
+                AtomicLong sum = new AtomicLong();
+                job.parallelFor(1000, sum::addAndGet);
+                assertEquals(999L * 1000 / 2, sum.get());
+            }
+            // 旧线程池已随最后一个 Job 关闭；退役实例上新开的 Job 转给当前全局实例
+            try (ComputeScheduler.Job late = old.openJob("late")) {
+                assertEquals(1, ComputeScheduler.shared().metrics().get("activeJobs"));
+                AtomicLong sum = new AtomicLong();
+                late.parallelFor(1000, sum::addAndGet);
+                assertEquals(999L * 1000 / 2, sum.get());
+            }
+        } finally {
+            ComputeScheduler.configure(0);
+        }
+    }
+}
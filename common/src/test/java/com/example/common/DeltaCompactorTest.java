@@ -0,0 +1,186 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 增量插入 / 删除与合并：与按操作顺序维护的朴素边表对照（删除去掉 u -> v 的全部平行边，插入追加一条；
+// 顶点只增不减），合并前的点查询与合并后的 CSR、远端边和最短路都要一致
+class DeltaCompactorTest {
+
+    @Test
+    void compactedGraphMatchesTheEdgeListModel() {
+        Random random = new Random(20);
+        Model model = new Model();
+        for (int e = 0; e < 6000; e++) {
+            model.insert(random.nextInt(1500) * 4, random.nextInt(1700) * 4, 1 + random.nextInt(9));
+        }
+        Graph g = new Graph();
+        g.setCompactionThreshold(Long.MAX_VALUE);
+        g.setCompactOnRead(true);
+        g.addEdges(model.src(), model.dst(), model.weights(), model.size());
+        g.buildCSR();
+        model.assertMatches(g, random);
+
+        for (int round = 0; round < 6; round++) {
+            // 删除：已有边对（含上一批尚未合并的插入）
+            int deletes = 200 + random.nextInt(400);
+            int[] ds = new int[deletes];
+            int[] dd = new int[deletes];
+            for (int i = 0; i < deletes; i++) {
+                Edge e = model.edges.get(random.nextInt(model.edges.size()));
+                ds[i] = e.u;
+                dd[i] = e.v;
+            }
+            g.deleteEdges(ds, dd, deletes);
+            for (int i = 0; i < deletes; i++) model.delete(ds[i], dd[i]);
+
+            // 插入：已有顶点之间、新顶点（ID 比已有的更小 / 更大 / 夹在中间）、指向此前远端目标的边
+            int inserts = 300 + random.nextInt(600);
+            int[] is = new int[inserts];
+            int[] id = new int[inserts];
+            double[] iw = new double[inserts];
+            for (int i = 0; i < inserts; i++) {
+                is[i] = switch (random.nextInt(5)) {
+                    case 0 -> -1 - random.nextInt(50);
+                    case 1 -> 100_000 + random.nextInt(50);
+                    case 2 -> random.nextInt(1500) * 4 + 1;
+                    default -> random.nextInt(1700) * 4;
+                };
+                id[i] = random.nextInt(4) == 0 ? -1 - random.nextInt(50) : random.nextInt(1700) * 4;
+                iw[i] = 1 + random.nextInt(9);
+            }
+            g.insertEdges(is, id, iw, inserts);
+            for (int i = 0; i < inserts; i++) model.insert(is[i], id[i], iw[i]);
+
+            // 合并前：删除的边对不可见，本批最后插入的边按其权重可见
+            for (int i = 0; i < inserts; i++) {
+                if (!model.vertices.contains(id[i])) continue;
+                assertEquals(model.lastWeight(is[i], id[i]), g.getEdgeWeight(is[i], id[i]), is[i] + " -> " + id[i]);
+            }
+            // 隔一轮合并一次，另一轮由下一次读取（compactOnRead 下的 lockCurrent）触发
+            if (round % 2 == 0) g.compact();
+            model.assertMatches(g, random);
+        }
+    }
+
+    // 默认不在读路径上同步合并：更新后结果版本落后于图版本，读取在后台触发合并（阈值未到），合并后可见
+    @Test
+    void readsLagUntilTheBackgroundCompaction() throws InterruptedException {
+        Graph g = new Graph();
+        g.setCompactionThreshold(Long.MAX_VALUE);
+        g.addEdge(1, 2, 1.0);
+        g.addEdge(2, 1, 1.0);
+        g.buildCSR();
+        long built = g.getResultVersion();
+        assertEquals(g.getVersion(), built);
+
+        g.insertEdges(new int[]{3}, new int[]{1}, new double[]{1.0}, 1);
+        assertEquals(1.0, g.getEdgeWeight(3, 1));
+        assertEquals(1, g.getPendingUpdates());
+        assertEquals(built, g.getResultVersion());
+        g.getAllEdges();
+        for (int wait = 0; wait < 200 && g.getPendingUpdates() > 0; wait++) Thread.sleep(10);
+        assertEquals(3, g.getAllEdges().size());
+        assertEquals(1, g.getCompactions());
+        assertEquals(g.getVersion(), g.getResultVersion());
+    }
+
+    private record Edge(int u, int v, double w) {
+    }
+
+    private static final class Model {
+        final List<Edge> edges = new ArrayList<>();
+        final Set<Integer> vertices = new HashSet<>();
+
+        void insert(int u, int v, double w) {
+            edges.add(new Edge(u, v, w));
+            vertices.add(u);
+        }
+
+        void delete(int u, int v) {
+            edges.removeIf(e -> e.u == u && e.v == v);
+        }
+
+        double lastWeight(int u, int v) {
+            double w = Double.POSITIVE_INFINITY;
+            for (Edge e : edges) if (e.u == u && e.v == v) w = e.w;
+            return w;
+        }
+
+        int size() {
+            return edges.size();
+        }
+
+        int[] src() {
+            return edges.stream().mapToInt(Edge::u).toArray();
+        }
+
+        int[] dst() {
+            return edges.stream().mapToInt(Edge::v).toArray();
+        }
+
+        double[] weights() {
+            return edges.stream().mapToDouble(Edge::w).toArray();
+        }
+
+        void assertMatches(Graph g, Random random) {
+            Map<String, Integer> local = new HashMap<>();
+            int remote = 0;
+            for (Edge e : edges) {
+                if (vertices.contains(e.v)) local.merge(e.u + "->" + e.v, 1, Integer::sum);
+                else remote++;
+            }
+            Map<String, Integer> actual = new HashMap<>();
+            for (int[] e : g.getAllEdges()) actual.merge(e[0] + "->" + e[1], 1, Integer::sum);
+            assertEquals(local, actual);
+            assertEquals(remote, g.getRemoteEdgeCount());
+            Set<Integer> ids = new HashSet<>();
+            for (int i = 0; i < g.getNodeCount(); i++) ids.add(g.getNodeId(i));
+            assertEquals(vertices, ids);
+
+            List<Integer> all = new ArrayList<>(vertices);
+            for (int k = 0; k < 3; k++) {
+                int source = all.get(random.nextInt(all.size()));
+                Map<Integer, Double> expected = dijkstra(source);
+                ShortestPathResult result = g.singleSourceShortestPath(source);
+                for (int i = 0; i < result.distance.length; i++) {
+                    int v = result.nodeIds[i];
+                    assertEquals(expected.getOrDefault(v, Double.POSITIVE_INFINITY), result.distance[i],
+                            "distance " + source + " -> " + v);
+                }
+            }
+        }
+
+        private Map<Integer, Double> dijkstra(int source) {
+            Map<Integer, List<Edge>> out = new HashMap<>();
+            for (Edge e : edges) if (vertices.contains(e.v)) out.computeIfAbsent(e.u, k -> new ArrayList<>()).add(e);
+            Map<Integer, Double> dist = new HashMap<>();
+            PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+            dist.put(source, 0.0);
+            queue.add(new double[]{0.0, source});
+            while (!queue.isEmpty()) {
+                double[] top = queue.poll();
+                int u = (int) top[1];
+                if (top[0] > dist.get(u)) continue;
+                for (Edge e : out.getOrDefault(u, List.of())) {
+                    double nd = top[0] + e.w;
+                    if (nd < dist.getOrDefault(e.v, Double.POSITIVE_INFINITY)) {
+                        dist.put(e.v, nd);
+                        queue.add(new double[]{nd, e.v});
+                    }
+                }
+            }
+            return dist;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Delta-stepping 与优先队列 Dijkstra 对照：不同 delta（含自动选取）与距离上界下，按真实 ID 逐点一致
+class DeltaSteppingSSSPTest {
+
+    @Test
+    void matchesDijkstraForAnyDelta() {
+        Random random = new Random(8);
+        for (int trial = 0; trial < 3; trial++) {
+            int n = 1000 + 2000 * trial;
+            TestEdges edges = randomEdges(random, n, n * 6, trial == 2);
+            Graph g = edges.build();
+            for (int source : new int[]{edges.src[0], edges.src[n / 2], edges.src[n - 1]}) {
+                Map<Integer, Double> expected = edges.dijkstra(source);
+                for (double delta : new double[]{0.0, 0.5, 3.0, 1000.0}) {
+                    ShortestPathResult result = g.singleSourceShortestPath(source, Double.POSITIVE_INFINITY, delta);
+                    assertDistances(expected, result, Double.POSITIVE_INFINITY, "delta " + delta);
+                }
+            }
+        }
+    }
+
+    @Test
+    void verticesBeyondTheBoundAreUnreached() {
+        Random random = new Random(9);
+        TestEdges edges = randomEdges(random, 2000, 8000, false);
+        Graph g = edges.build();
+        int source = edges.src[0];
+        Map<Integer, Double> expected = edges.dijkstra(source);
+        for (double bound : new double[]{0.0, 5.0, 12.5, 40.0}) {
+            assertDistances(expected, g.singleSourceShortestPath(source, bound, 0.0), bound, "bound " + bound);
+        }
+    }
+
+    @Test
+    void unknownSourceReachesNothing() {
+        Graph g = randomEdges(new Random(10), 100, 300, false).build();
+        ShortestPathResult result = g.singleSourceShortestPath(-42);
+        assertEquals(0, result.reached);
+        assertTrue(Arrays.stream(result.distance).allMatch(d -> d == Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void negativeWeightsAreRejected() {
+        Graph g = new Graph();
+        g.addEdge(1, 2, 1.0);
+        g.addEdge(2, 1, -0.5);
+        g.buildCSR();
+        assertThrows(IllegalArgumentException.class, () -> g.singleSourceShortestPath(1));
+    }
+
+    private static void assertDistances(Map<Integer, Double> expected, ShortestPathResult result, double bound,
+                                        String label) {
+        int reached = 0;
+        for (int i = 0; i < result.distance.length; i++) {
+            int id = result.nodeIds[i];
+            double d = expected.getOrDefault(id, Double.POSITIVE_INFINITY);
+            if (d > bound) d = Double.POSITIVE_INFINITY;
+            if (d != Double.POSITIVE_INFINITY) reached++;
+            assertEquals(d, result.distance[i], 1e-9, label + ", distance to " + id);
+        }
+        assertEquals(reached, result.reached, label);
+    }
+
+    // --- 随机有向图：ID 稀疏，约 1/11 的目标不在本图中，含平行边与零权边；fractional 时权重带小数 ---
+    private static TestEdges randomEdges(Random random, int n, int m, boolean fractional) {
+        return TestEdges.random(random, n, m, 3, 1, n / 10,
+                () -> fractional ? random.nextDouble() * 10 : random.nextInt(10));
+    }
+}
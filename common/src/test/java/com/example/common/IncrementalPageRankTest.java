@@ -0,0 +1,124 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 增量 PageRank 与完整幂迭代对照：同样的插入 / 删除同时施加到两份图上，一份逐轮增量推送，
+// 另一份每轮从头完整计算，按真实 ID 逐点一致（误差受 tolerance 约束）；两份都在读取前同步合并，读到每轮的更新
+class IncrementalPageRankTest {
+
+    private static final double DAMPING = 0.85;
+    private static final double TOLERANCE = 1e-6;     // 与 /pagerank 接口的默认值一致
+
+    @Test
+    void pushedRanksMatchFullIteration() {
+        Random random = new Random(21);
+        Graph g = graph(22, 2000);
+        Graph reference = graph(22, 2000);
+
+        PageRankResult baseline = g.incrementalPageRank(DAMPING, TOLERANCE, 1000);
+        assertEquals(PageRankResult.FULL, baseline.mode);
+        assertMatches(reference, baseline);
+
+        for (int round = 0; round < 5; round++) {
+            // 少量变化：已有顶点之间插入，删除若干已有边（可能产生悬挂点），偶尔追加新顶点
+            List<int[]> edges = g.getAllEdges();
+            int deletes = 1 + random.nextInt(20);
+            int[] ds = new int[deletes];
+            int[] dd = new int[deletes];
+            for (int i = 0; i < deletes; i++) {
+                int[] e = edges.get(random.nextInt(edges.size()));
+                ds[i] = e[0];
+                dd[i] = e[1];
+            }
+            int inserts = 1 + random.nextInt(20);
+            int[] is = new int[inserts];
+            int[] id = new int[inserts];
+            double[] iw = new double[inserts];
+            for (int i = 0; i < inserts; i++) {
+                is[i] = round % 2 == 1 && i == 0 ? 20_000 + round : random.nextInt(2000) * 5;
+                id[i] = random.nextInt(2000) * 5;
+                iw[i] = 1;
+            }
+            for (Graph target : new Graph[]{g, reference}) {
+                target.deleteEdges(ds, dd, deletes);
+                target.insertEdges(is, id, iw, inserts);
+            }
+
+            PageRankResult result = g.incrementalPageRank(DAMPING, TOLERANCE, 1000);
+            assertTrue(!PageRankResult.CACHED.equals(result.mode), "round " + round);
+            assertMatches(reference, result);
+        }
+
+        // 图未变化且参数相同：直接复用上次结果
+        PageRankResult last = g.incrementalPageRank(DAMPING, TOLERANCE, 1000);
+        PageRankResult cached = g.incrementalPageRank(DAMPING, TOLERANCE, 1000);
+        assertEquals(PageRankResult.CACHED, cached.mode);
+        assertSame(last.rank, cached.rank);
+    }
+
+    // 单条边的变化走残差推送，不回退到幂迭代
+    @Test
+    void singleEdgeIsPushed() {
+        Graph g = graph(23, 5000);
+        Graph reference = graph(23, 5000);
+        g.incrementalPageRank(DAMPING, TOLERANCE, 1000);
+        // 插入分量内部的一条边（跨分量的边会合并分量，按新大小重新归一化后不再是小范围变化）
+        int target = -1;
+        for (Set<Integer> component : g.getConnectedComponentsBFS()) {
+            if (!component.contains(0)) continue;
+            for (int v : component) if (v != 0) target = v;
+        }
+        for (Graph t : new Graph[]{g, reference}) t.insertEdges(new int[]{0}, new int[]{target}, new double[]{1}, 1);
+        PageRankResult result = g.incrementalPageRank(DAMPING, TOLERANCE, 1000);
+        assertEquals(PageRankResult.PUSH, result.mode);
+        assertMatches(reference, result);
+    }
+
+    // 变化量超过推送预算时改为热启动幂迭代，结果同样收敛到完整计算的排名
+    @Test
+    void largeChangeFallsBackToWarmIteration() {
+        Random random = new Random(24);
+        Graph g = graph(25, 2000);
+        Graph reference = graph(25, 2000);
+        g.incrementalPageRank(DAMPING, TOLERANCE, 1000);
+        List<int[]> edges = g.getAllEdges();
+        int[] ds = new int[edges.size() / 2];
+        int[] dd = new int[ds.length];
+        for (int i = 0; i < ds.length; i++) {
+            int[] e = edges.get(random.nextInt(edges.size()));
+            ds[i] = e[0];
+            dd[i] = e[1];
+        }
+        for (Graph target : new Graph[]{g, reference}) target.deleteEdges(ds, dd, ds.length);
+        PageRankResult result = g.incrementalPageRank(DAMPING, TOLERANCE, 1000);
+        assertTrue(!PageRankResult.CACHED.equals(result.mode) && !PageRankResult.PUSH.equals(result.mode),
+                "mode " + result.mode);
+        assertMatches(reference, result);
+    }
+
+    private static Graph graph(long seed, int n) {
+        Graph g = PageRankEngineTest.randomGraph(new Random(seed), n);
+        g.setCompactOnRead(true);
+        return g;
+    }
+
+    // --- 参照图做一次收紧 tolerance 的完整计算；两者的 L1 误差都不超过 tolerance / (1 - damping) 量级 ---
+    private static void assertMatches(Graph reference, PageRankResult result) {
+        PageRankResult expected = reference.pageRank(DAMPING, 1e-14, 10_000);
+        assertEquals(expected.rank.length, result.rank.length);
+        double l1 = 0.0;
+        for (int i = 0; i < result.rank.length; i++) {
+            assertEquals(expected.components.nodeIds[i], result.components.nodeIds[i]);
+            l1 += Math.abs(expected.rank[i] - result.rank[i]);
+        }
+        assertTrue(l1 < 20 * TOLERANCE, "L1 error " + l1 + ", mode " + result.mode);
+    }
+}
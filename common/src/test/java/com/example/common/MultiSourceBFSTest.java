@@ -0,0 +1,133 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// 多源 BFS 与逐源队列 BFS 对照：多批源（超过 64 个、含未知源）、超过 255 / 65535 层的长路径（行宽度逐级加宽），
+// 内存中的结果与解码后的二进制距离矩阵都要按真实 ID 逐点一致
+class MultiSourceBFSTest {
+
+    @Test
+    void rowsMatchPerSourceBFS() throws IOException {
+        Random random = new Random(23);
+        Edges edges = new Edges();
+        int n = 3000;
+        for (int v = 0; v < n; v++) edges.add(v * 3, random.nextInt(n) * 3);
+        for (int e = 0; e < n * 2; e++) {
+            // 约 1/20 的目标不在本图中
+            edges.add(random.nextInt(n) * 3, random.nextInt(n + n / 20) * 3);
+        }
+        // 一条 301 个顶点的单向链挂在 0 上：链尾超过 255 层，需要 2 字节宽度
+        for (int k = 0; k <= 300; k++) edges.add(k == 0 ? 0 : -k, -(k + 1));
+        edges.add(-301, -301);
+        Graph g = edges.build();
+
+        int[] sources = new int[150];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = switch (i % 10) {
+                case 0 -> -1 - random.nextInt(301);     // 链上
+                case 1 -> 1;                            // 未知源
+                default -> random.nextInt(n) * 3;
+            };
+        }
+        sources[0] = 0;     // 经链到达第 301 层
+        assertMatches(edges, g, sources);
+    }
+
+    // 超过 65535 层时按 4 字节存储与写出
+    @Test
+    void longPathWidensToInt() throws IOException {
+        Edges edges = new Edges();
+        int n = 70_000;
+        for (int v = 0; v < n; v++) edges.add(v, v + 1 < n ? v + 1 : v);
+        assertMatches(edges, edges.build(), new int[]{0, 10, n - 300, n - 1});
+    }
+
+    private static void assertMatches(Edges edges, Graph g, int[] sources) throws IOException {
+        List<Map<Integer, Integer>> expected = new ArrayList<>();
+        for (int s : sources) expected.add(reference(edges, s));
+
+        MultiSourceBFSResult result = g.multiSourceBFS(sources);
+        for (int r = 0; r < sources.length; r++) {
+            for (int i = 0; i < g.getNodeCount(); i++) {
+                int id = g.getNodeId(i);
+                assertEquals(expected.get(r).getOrDefault(id, -1), result.distance[r][i],
+                        "row " + r + " (source " + sources[r] + ") -> " + id);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        g.writeDistanceMatrix(sources, out);
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(DistanceMatrixWriter.MAGIC, in.getInt());
+        assertEquals(DistanceMatrixWriter.VERSION, in.getInt());
+        assertEquals(sources.length, in.getInt());
+        int[] columns = new int[in.getInt()];
+        for (int c = 0; c < columns.length; c++) columns[c] = in.getInt();
+        for (int r = 0; r < sources.length; r++) {
+            assertEquals(sources[r], in.getInt());
+            int width = in.get();
+            int max = 0;
+            for (int d : expected.get(r).values()) max = Math.max(max, d);
+            assertEquals(max < 0xFF ? 1 : max < 0xFFFF ? 2 : 4, width, "width of row " + r);
+            for (int id : columns) {
+                int d = switch (width) {
+                    case 1 -> in.get() & 0xFF;
+                    case 2 -> in.getShort() & 0xFFFF;
+                    default -> in.getInt();
+                };
+                if (d == (width == 4 ? -1 : (1 << (8 * width)) - 1)) d = -1;
+                assertEquals(expected.get(r).getOrDefault(id, -1), d, "file row " + r + " -> " + id);
+            }
+        }
+        assertFalse(in.hasRemaining());
+    }
+
+    // --- 朴素参照：全图队列 BFS，顶点为全部源点，指向不存在顶点的边忽略；未知源什么也到不了 ---
+    private static Map<Integer, Integer> reference(Edges edges, int source) {
+        Map<Integer, Integer> distances = new HashMap<>();
+        if (!edges.out.containsKey(source)) return distances;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        distances.put(source, 0);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int v : edges.out.get(u)) {
+                if (!edges.out.containsKey(v) || distances.containsKey(v)) continue;
+                distances.put(v, distances.get(u) + 1);
+                queue.add(v);
+            }
+        }
+        return distances;
+    }
+
+    private static final class Edges {
+        final Map<Integer, List<Integer>> out = new HashMap<>();
+        final List<int[]> list = new ArrayList<>();
+
+        void add(int u, int v) {
+            out.computeIfAbsent(u, k -> new ArrayList<>()).add(v);
+            list.add(new int[]{u, v});
+        }
+
+        Graph build() {
+            Graph g = new Graph();
+            for (int[] e : list) g.addEdge(e[0], e[1], 1.0);
+            g.buildCSR();
+            return g;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 单趟 PageRank 与逐分量的朴素幂迭代（原 computePageRank 的做法）对照：同样的迭代轮数下按真实 ID 逐点一致
+class PageRankEngineTest {
+
+    private static final double DAMPING = 0.85;
+
+    @Test
+    void matchesPerComponentPowerIteration() {
+        Random random = new Random(4);
+        for (int trial = 0; trial < 3; trial++) {
+            Graph g = randomGraph(random, 200 + 300 * trial);
+            assertMatchesReference(g, 10, 1e-15);
+            assertMatchesReference(g, 60, 1e-15);
+        }
+    }
+
+    // 删除部分顶点的全部出边（合并后成为悬挂点），其排名在分量内均匀回流
+    @Test
+    void danglingMassStaysInsideItsComponent() {
+        Random random = new Random(5);
+        Graph g = randomGraph(random, 400);
+        List<int[]> edges = g.getAllEdges();
+        int[] src = new int[edges.size()];
+        int[] dst = new int[edges.size()];
+        int count = 0;
+        for (int[] e : edges) {
+            if (e[0] % 7 != 0) continue;
+            src[count] = e[0];
+            dst[count++] = e[1];
+        }
+        g.deleteEdges(src, dst, count);
+        g.compact();
+        assertEquals(400, g.getNodeCount());
+        assertTrue(g.getAllEdges().stream().noneMatch(e -> e[0] % 7 == 0));
+        assertMatchesReference(g, 10, 1e-15);
+        assertMatchesReference(g, 60, 1e-15);
+    }
+
+    @Test
+    void stopsOnceTheL1ChangeFallsBelowTolerance() {
+        Graph g = randomGraph(new Random(6), 500);
+        PageRankResult loose = g.pageRank(DAMPING, 1e-3, 1000);
+        PageRankResult tight = g.pageRank(DAMPING, 1e-12, 1000);
+        assertTrue(loose.residual < 1e-3);
+        assertTrue(tight.residual < 1e-12);
+        assertTrue(loose.iterations < tight.iterations);
+        assertTrue(tight.iterations < 1000);
+    }
+
+    private static void assertMatchesReference(Graph g, int iterations, double eps) {
+        // tolerance 为 0 时固定跑满 iterations 轮
+        PageRankResult result = g.pageRank(DAMPING, 0.0, iterations);
+        assertEquals(iterations, result.iterations);
+        Map<Integer, Double> expected = reference(g, iterations);
+        assertEquals(expected.size(), result.rank.length);
+        for (int i = 0; i < result.rank.length; i++) {
+            int id = result.components.nodeIds[i];
+            assertEquals(expected.get(id), result.rank[i], eps, "rank of " + id + " after " + iterations);
+        }
+    }
+
+    // --- 朴素参照：每个分量单独做幂迭代；出度按全部本地出边计，流出分量的份额丢弃，悬挂点与跳转在分量内均分 ---
+    private static Map<Integer, Double> reference(Graph g, int iterations) {
+        Map<Integer, List<Integer>> out = new HashMap<>();
+        for (int[] e : g.getAllEdges()) out.computeIfAbsent(e[0], k -> new ArrayList<>()).add(e[1]);
+        Map<Integer, Double> ranks = new HashMap<>();
+        for (Set<Integer> component : g.getConnectedComponentsBFS()) {
+            int size = component.size();
+            Map<Integer, Double> rank = new HashMap<>();
+            for (int v : component) rank.put(v, 1.0 / size);
+            for (int iter = 0; iter < iterations; iter++) {
+                Map<Integer, Double> next = new HashMap<>();
+                double leak = 0.0;
+                for (int u : component) {
+                    List<Integer> targets = out.getOrDefault(u, List.of());
+                    if (targets.isEmpty()) {
+                        leak += rank.get(u);
+                        continue;
+                    }
+                    double share = rank.get(u) / targets.size();
+                    for (int v : targets) {
+                        if (component.contains(v)) next.merge(v, DAMPING * share, Double::sum);
+                    }
+                }
+                double correction = (1.0 - DAMPING + DAMPING * leak) / size;
+                for (int v : component) next.merge(v, correction, Double::sum);
+                rank = next;
+            }
+            ranks.putAll(rank);
+        }
+        return ranks;
+    }
+
+    // --- 每个顶点至少一条出边（目标都是本地顶点），若干个互不相连的块，ID 稀疏 ---
+    static Graph randomGraph(Random random, int n) {
+        int blocks = 1 + random.nextInt(4);
+        int m = n * 3;
+        int[] src = new int[n + m];
+        int[] dst = new int[n + m];
+        for (int v = 0; v < n; v++) {
+            src[v] = v * 5;
+            dst[v] = random.nextInt(n) * 5;
+        }
+        for (int e = n; e < n + m; e++) {
+            int block = random.nextInt(blocks);
+            int lo = n * block / blocks;
+            int hi = n * (block + 1) / blocks;
+            src[e] = (lo + random.nextInt(hi - lo)) * 5;
+            dst[e] = (lo + random.nextInt(hi - lo)) * 5;
+        }
+        Graph g = new Graph();
+        for (int e = 0; e < src.length; e++) g.addEdge(src[e], dst[e]);
+        g.buildCSR();
+        return g;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 分布式 BFS：在进程内按取模划分为 1 / 3 / 5 个分区模拟层同步超步（扩展、交换远端候选、应用），
+// 有无方向优化下各顶点的全局跳数都与单机队列 BFS 一致
+class PartitionedBFSTest {
+
+    @Test
+    void hopDistancesMatchSequentialBFS() {
+        Random random = new Random(14);
+        int n = 3000;
+        int m = n * 8;
+        int[] src = new int[n + m];
+        int[] dst = new int[n + m];
+        for (int v = 0; v < n; v++) {
+            src[v] = v * 2;
+            dst[v] = random.nextInt(n) * 2;
+        }
+        for (int e = n; e < n + m; e++) {
+            src[e] = random.nextInt(n) * 2;
+            // 部分目标在任何分区都不存在
+            dst[e] = random.nextInt(30) == 0 ? random.nextInt(n) * 2 + 1 : random.nextInt(n) * 2;
+        }
+        for (int source : new int[]{0, src[n / 3], 2 * (n - 1), 12345}) {
+            Map<Integer, Integer> expected = reference(src, dst, source);
+            for (int workers : new int[]{1, 3, 5}) {
+                for (boolean directionOptimizing : new boolean[]{false, true}) {
+                    Map<Integer, Integer> actual = distributed(src, dst, workers, source, directionOptimizing);
+                    assertEquals(expected, actual,
+                            workers + " partitions, source " + source + ", direction optimizing " + directionOptimizing);
+                }
+            }
+        }
+    }
+
+    // --- 按主控的协议驱动：各分区 start，之后每层 expand、交换 outboundIds、apply，直到全局前沿为空 ---
+    private static Map<Integer, Integer> distributed(int[] src, int[] dst, int workers, int source,
+                                                     boolean directionOptimizing) {
+        OwnerMap owners = OwnerMap.modulo(workers);
+        PartitionedBFS[] states = new PartitionedBFS[workers];
+        for (int w = 0; w < workers; w++) {
+            Graph part = new Graph();
+            for (int e = 0; e < src.length; e++) {
+                if (owners.ownerOf(src[e]) == w) part.addEdge(src[e], dst[e], 1.0);
+            }
+            part.buildCSR();
+            states[w] = part.partitionedBFS(owners, w, directionOptimizing);
+        }
+        long frontier = 0;
+        for (PartitionedBFS s : states) frontier += s.start(source) ? 1 : 0;
+        try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("test")) {
+            while (frontier > 0) {
+                for (PartitionedBFS s : states) s.expand(job);
+                for (int w = 0; w < workers; w++) {
+                    for (int t = 0; t < workers; t++) {
+                        int[] ids = t == w ? null : states[w].outboundIds(t);
+                        if (ids != null) states[t].receive(ids);
+                    }
+                }
+                frontier = 0;
+                for (PartitionedBFS s : states) frontier += s.apply();
+            }
+        }
+        Map<Integer, Integer> distances = new HashMap<>();
+        for (PartitionedBFS s : states) {
+            BFSResult result = s.getResult();
+            for (int i = 0; i < result.distance.length; i++) {
+                if (result.distance[i] >= 0) distances.put(result.nodeIds[i], result.distance[i]);
+            }
+        }
+        return distances;
+    }
+
+    // --- 朴素参照：全图队列 BFS，顶点为全部源点，指向不存在顶点的边忽略 ---
+    private static Map<Integer, Integer> reference(int[] src, int[] dst, int source) {
+        Set<Integer> vertices = new HashSet<>();
+        for (int u : src) vertices.add(u);
+        Map<Integer, List<Integer>> out = new HashMap<>();
+        for (int e = 0; e < src.length; e++) out.computeIfAbsent(src[e], k -> new ArrayList<>()).add(dst[e]);
+        Map<Integer, Integer> distances = new HashMap<>();
+        if (!vertices.contains(source)) return distances;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        distances.put(source, 0);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int v : out.get(u)) {
+                if (!vertices.contains(v) || distances.containsKey(v)) continue;
+                distances.put(v, distances.get(u) + 1);
+                queue.add(v);
+            }
+        }
+        return distances;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 分布式 PageRank：在进程内按取模划分为 1 / 3 / 5 个分区模拟 BSP 超步（注册槽位、交换批量值、应用），
+// 结果与单机的朴素全局 PageRank 逐点一致
+class PartitionedPageRankTest {
+
+    private static final double DAMPING = 0.85;
+    private static final int STEPS = 30;
+
+    @Test
+    void partitionCountDoesNotChangeRanks() {
+        Random random = new Random(5);
+        int n = 600;
+        int m = n * 4;
+        int[] src = new int[n + m];
+        int[] dst = new int[n + m];
+        // 每 11 个顶点中有一个只有一条指向不存在顶点的边：丢弃后成为悬挂点
+        for (int v = 0; v < n; v++) {
+            src[v] = v;
+            dst[v] = v % 11 == 0 ? n + v : random.nextInt(n);
+        }
+        for (int e = n; e < n + m; e++) {
+            do {
+                src[e] = random.nextInt(n);
+            } while (src[e] % 11 == 0);
+            // 约 5% 的边指向任何分区都没有的顶点，应被丢弃且不计入出度
+            dst[e] = random.nextInt(20) == 0 ? n + random.nextInt(n) : random.nextInt(n);
+        }
+        Map<Integer, Double> expected = reference(src, dst, STEPS);
+        for (int workers : new int[]{1, 3, 5}) {
+            Map<Integer, Double> actual = distributed(src, dst, workers, STEPS);
+            assertEquals(expected.size(), actual.size(), workers + " partitions");
+            for (Map.Entry<Integer, Double> e : expected.entrySet()) {
+                assertEquals(e.getValue(), actual.get(e.getKey()), 1e-15,
+                        workers + " partitions, rank of " + e.getKey());
+            }
+        }
+    }
+
+    // --- 按 OwnerMap 取模把边分给各分区，逐个超步按主控与 worker 的协议驱动 ---
+    private static Map<Integer, Double> distributed(int[] src, int[] dst, int workers, int steps) {
+        OwnerMap owners = OwnerMap.modulo(workers);
+        PartitionedPageRank[] states = new PartitionedPageRank[workers];
+        for (int w = 0; w < workers; w++) {
+            Graph part = new Graph();
+            for (int e = 0; e < src.length; e++) {
+                if (owners.ownerOf(src[e]) == w) part.addEdge(src[e], dst[e]);
+            }
+            part.buildCSR();
+            states[w] = part.partitionedPageRank(owners, w);
+        }
+        long total = 0;
+        for (int w = 0; w < workers; w++) {
+            for (int t = 0; t < workers; t++) {
+                int[] ids = states[w].slotIdsFor(t);
+                if (t == w || ids.length == 0) continue;
+                states[w].dropSlots(t, states[t].registerInbound(w, ids));
+            }
+            total += states[w].getLocalVertexCount();
+        }
+        for (PartitionedPageRank s : states) s.start(total);
+
+        try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("test")) {
+            for (int step = 0; step < steps; step++) {
+                double dangling = 0.0;
+                for (PartitionedPageRank s : states) dangling += s.step(job);
+                for (int w = 0; w < workers; w++) {
+                    for (int t = 0; t < workers; t++) {
+                        double[] values = t == w ? null : states[w].outboundValues(t);
+                        if (values != null) states[t].receive(w, values);
+                    }
+                }
+                for (PartitionedPageRank s : states) s.apply(DAMPING, dangling);
+            }
+        }
+        Map<Integer, Double> ranks = new HashMap<>();
+        for (PartitionedPageRank s : states) {
+            for (int i = 0; i < s.getLocalVertexCount(); i++) ranks.put(s.getNodeIds()[i], s.getRank()[i]);
+        }
+        return ranks;
+    }
+
+    // --- 朴素参照：顶点为全部源点，指向不存在顶点的边丢弃；跳转与悬挂质量在全图均分 ---
+    private static Map<Integer, Double> reference(int[] src, int[] dst, int steps) {
+        Set<Integer> vertices = new HashSet<>();
+        for (int u : src) vertices.add(u);
+        Map<Integer, List<Integer>> out = new HashMap<>();
+        for (int v : vertices) out.put(v, new ArrayList<>());
+        for (int e = 0; e < src.length; e++) {
+            if (vertices.contains(dst[e])) out.get(src[e]).add(dst[e]);
+        }
+        int n = vertices.size();
+        Map<Integer, Double> rank = new HashMap<>();
+        for (int v : vertices) rank.put(v, 1.0 / n);
+        for (int step = 0; step < steps; step++) {
+            double dangling = 0.0;
+            Map<Integer, Double> sum = new HashMap<>();
+            for (int u : vertices) {
+                List<Integer> targets = out.get(u);
+                if (targets.isEmpty()) {
+                    dangling += rank.get(u);
+                    continue;
+                }
+                for (int v : targets) sum.merge(v, rank.get(u) / targets.size(), Double::sum);
+            }
+            Map<Integer, Double> next = new HashMap<>();
+            double base = (1.0 - DAMPING) / n + DAMPING * dangling / n;
+            for (int v : vertices) next.put(v, base + DAMPING * sum.getOrDefault(v, 0.0));
+            rank = next;
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// 批量点对点最短路与逐源 Dijkstra 对照：不带地标（默认）、带 ALT 地标、增量更新之后，按真实 ID 逐对一致
+class PointToPointSearchTest {
+
+    @Test
+    void matchesDijkstraWithAndWithoutLandmarks() {
+        Random random = new Random(24);
+        TestEdges edges = new TestEdges();
+        int n = 2000;
+        for (int v = 0; v < n; v++) edges.add(v * 2, random.nextInt(n) * 2, random.nextInt(10));
+        for (int e = 0; e < n * 4; e++) {
+            // 约 1/20 的目标不在本图中
+            edges.add(random.nextInt(n) * 2, random.nextInt(n + n / 20) * 2, random.nextDouble() * 10);
+        }
+        Graph g = edges.build();
+        int[][] queries = randomQueries(random, n, 300);
+
+        PathQueryResult plain = g.shortestPaths(queries[0], queries[1]);
+        assertEquals(0, plain.landmarks);
+        assertDistances(edges, queries, plain, "plain");
+
+        g.prepareLandmarks(8, 42);
+        PathQueryResult alt = g.shortestPaths(queries[0], queries[1]);
+        assertEquals(8, alt.landmarks);
+        assertDistances(edges, queries, alt, "landmarks");
+
+        // 增量更新并合并后重新构建地标表，结果按更新后的图计算
+        int[] is = new int[200];
+        int[] id = new int[200];
+        double[] iw = new double[200];
+        for (int i = 0; i < is.length; i++) {
+            is[i] = random.nextInt(n) * 2;
+            id[i] = random.nextInt(n) * 2;
+            iw[i] = random.nextDouble();
+            edges.add(is[i], id[i], iw[i]);
+        }
+        g.insertEdges(is, id, iw, is.length);
+        g.compact();
+        g.prepareLandmarks(8, 42);
+        assertDistances(edges, queries, g.shortestPaths(queries[0], queries[1]), "after insert");
+    }
+
+    @Test
+    void negativeWeightsAreRejected() {
+        Graph g = new Graph();
+        g.addEdge(1, 2, 1.0);
+        g.addEdge(2, 3, -0.5);
+        g.addEdge(3, 1, 2.0);
+        g.buildCSR();
+        assertThrows(IllegalArgumentException.class, () -> g.shortestPaths(new int[]{1}, new int[]{3}));
+        assertThrows(IllegalArgumentException.class, () -> g.prepareLandmarks(2, 1));
+        // 建表失败不清除配置的地标数
+        assertEquals(2, g.getLandmarkCount());
+    }
+
+    // 构建后不自动建表（由调用方 prepareLandmarks）；合并使地标表失效后，第一次查询在后台重建
+    @Test
+    void compactionRebuildsLandmarksInTheBackground() throws InterruptedException {
+        Random random = new Random(25);
+        TestEdges edges = new TestEdges();
+        int n = 500;
+        for (int e = 0; e < n * 4; e++) edges.add(e < n ? e : random.nextInt(n), random.nextInt(n), random.nextInt(5));
+        Graph g = edges.build();
+        g.setLandmarks(4, 7);
+        int[][] queries = randomQueries(random, n, 50);
+        assertEquals(0, g.shortestPaths(queries[0], queries[1]).landmarks);
+        Thread.sleep(50);
+        assertNull(g.getLandmarks());
+
+        g.prepareLandmarks(4, 7);
+        assertEquals(4, g.shortestPaths(queries[0], queries[1]).landmarks);
+
+        g.insertEdges(new int[]{0}, new int[]{1}, new double[]{0.5}, 1);
+        edges.add(0, 1, 0.5);
+        g.compact();
+        assertDistances(edges, queries, g.shortestPaths(queries[0], queries[1]), "after compaction");
+        for (int wait = 0; wait < 200 && g.getLandmarks() == null; wait++) Thread.sleep(10);
+        PathQueryResult rebuilt = g.shortestPaths(queries[0], queries[1]);
+        assertEquals(4, rebuilt.landmarks);
+        assertDistances(edges, queries, rebuilt, "rebuilt landmarks");
+    }
+
+    // --- 源与目标：多数为本图顶点，含未知 ID 与源目标相同的查询 ---
+    private static int[][] randomQueries(Random random, int n, int count) {
+        int[][] queries = new int[2][count];
+        for (int q = 0; q < count; q++) {
+            queries[0][q] = q % 25 == 0 ? -7 : random.nextInt(n) * 2;
+            queries[1][q] = q % 30 == 0 ? queries[0][q] : q % 25 == 1 ? 3 : random.nextInt(n) * 2;
+        }
+        return queries;
+    }
+
+    private static void assertDistances(TestEdges edges, int[][] queries, PathQueryResult result, String label) {
+        Map<Integer, Map<Integer, Double>> bySource = new HashMap<>();
+        for (int q = 0; q < queries[0].length; q++) {
+            int s = queries[0][q];
+            int t = queries[1][q];
+            double expected = bySource.computeIfAbsent(s, edges::dijkstra).getOrDefault(t, Double.POSITIVE_INFINITY);
+            assertEquals(expected, result.distance[q], 1e-9, label + ": " + s + " -> " + t);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+// 带权边表测试夹具：随机生成、构建 Graph，并提供朴素的二叉堆 Dijkstra 参照。
+// 与 Graph 的语义一致：顶点为全部源点，目标不是源点的边在本图中是远端边，不参与计算
+final class TestEdges {
+
+    int[] src = new int[16];
+    int[] dst = new int[16];
+    double[] w = new double[16];
+    private int size;
+
+    // --- 随机有向图：前 n 条边让 n 个顶点都成为源点，其余 m 条随机；ID 为 下标 * stride + offset，
+    //     目标从 n + extra 个候选中取，多出的 extra 个不在本图中（远端边） ---
+    static TestEdges random(Random random, int n, int m, int stride, int offset, int extra, DoubleSupplier weights) {
+        TestEdges edges = new TestEdges();
+        for (int e = 0; e < n + m; e++) {
+            int u = e < n ? e : random.nextInt(n);
+            edges.add(u * stride + offset, random.nextInt(n + extra) * stride + offset, weights.getAsDouble());
+        }
+        return edges;
+    }
+
+    void add(int u, int v, double weight) {
+        if (size == src.length) {
+            src = Arrays.copyOf(src, size * 2);
+            dst = Arrays.copyOf(dst, size * 2);
+            w = Arrays.copyOf(w, size * 2);
+        }
+        src[size] = u;
+        dst[size] = v;
+        w[size++] = weight;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Graph build() {
+        Graph g = new Graph();
+        g.addEdges(src, dst, w, size);
+        g.buildCSR();
+        return g;
+    }
+
+    // --- 朴素参照：二叉堆 Dijkstra；不在本图中的源什么也到不了 ---
+    Map<Integer, Double> dijkstra(int source) {
+        Map<Integer, List<double[]>> out = new HashMap<>();
+        for (int e = 0; e < size; e++) out.computeIfAbsent(src[e], k -> new ArrayList<>());
+        for (int e = 0; e < size; e++) {
+            if (out.containsKey(dst[e])) out.get(src[e]).add(new double[]{dst[e], w[e]});
+        }
+        Map<Integer, Double> dist = new HashMap<>();
+        if (!out.containsKey(source)) return dist;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        dist.put(source, 0.0);
+        queue.add(new double[]{0.0, source});
+        while (!queue.isEmpty()) {
+            double[] top = queue.poll();
+            int u = (int) top[1];
+            if (top[0] > dist.get(u)) continue;
+            for (double[] e : out.get(u)) {
+                int v = (int) e[0];
+                double nd = top[0] + e[1];
+                if (nd < dist.getOrDefault(v, Double.POSITIVE_INFINITY)) {
+                    dist.put(v, nd);
+                    queue.add(new double[]{nd, v});
+                }
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 顶点重排只改变下标布局：按真实 ID 比较，各排列下的 PageRank、分量、BFS、最短路结果必须一致
+class VertexReorderingTest {
+
+    private static final String[] ORDERINGS = {"none", "degree", "hub", "rcm"};
+
+    @Test
+    void directedComponentsDoNotDependOnOrdering() {
+        int[] src = {0, 1, 2, 1, 3};
+        int[] dst = {1, 2, 1, 3, 2};
+        double[] w = {1, 1, 1, 1, 1};
+        Graph reference = build(src, dst, w, "none");
+        for (String ordering : ORDERINGS) {
+            Graph g = build(src, dst, w, ordering);
+            assertEquals(reference.getConnectedComponentsBFS(), g.getConnectedComponentsBFS(), ordering);
+            assertRanksEqual(reference, g, ordering);
+        }
+    }
+
+    @Test
+    void resultsMatchAcrossOrderingsOnRandomDirectedGraphs() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 4; trial++) {
+            int n = 300 + random.nextInt(300);
+            int m = n * (1 + trial);
+            int[] src = new int[m];
+            int[] dst = new int[m];
+            double[] w = new double[m];
+            for (int e = 0; e < m; e++) {
+                src[e] = random.nextInt(n) * 3;     // 稀疏的真实 ID
+                dst[e] = random.nextInt(n) * 3;
+                w[e] = 1 + random.nextInt(20);
+            }
+            Graph reference = build(src, dst, w, "none");
+            for (String ordering : ORDERINGS) {
+                assertSameResults(reference, build(src, dst, w, ordering), ordering + " trial " + trial, src[0]);
+            }
+            Graph reordered = build(src, dst, w, "none");
+            reordered.reorder("rcm");
+            assertSameResults(reference, reordered, "reorder() trial " + trial, src[0]);
+        }
+    }
+
+    // 合并增量时新顶点追加在下标末尾，nodeMap 不再升序；结果应与同样的边直接构建一致
+    @Test
+    void compactedGraphMatchesFreshBuild() {
+        Random random = new Random(7);
+        int n = 400;
+        int m = 1200;
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        double[] w = new double[m];
+        for (int e = 0; e < m; e++) {
+            src[e] = 1000 + random.nextInt(n);
+            dst[e] = 1000 + random.nextInt(n);
+            w[e] = 1 + random.nextInt(9);
+        }
+        int split = m * 3 / 4;
+        Graph compacted = new Graph();
+        compacted.addEdges(src, dst, w, split);
+        compacted.buildCSR();
+        int[] extraSrc = new int[m - split + 2];
+        int[] extraDst = new int[m - split + 2];
+        double[] extraW = new double[m - split + 2];
+        for (int e = split; e < m; e++) {
+            extraSrc[e - split] = src[e];
+            extraDst[e - split] = dst[e];
+            extraW[e - split] = w[e];
+        }
+        // 比已有 ID 都小的新顶点
+        extraSrc[m - split] = 5;
+        extraDst[m - split] = src[0];
+        extraW[m - split] = 2;
+        extraSrc[m - split + 1] = dst[1];
+        extraDst[m - split + 1] = 7;
+        extraW[m - split + 1] = 3;
+        compacted.insertEdges(extraSrc, extraDst, extraW, extraW.length);
+        compacted.compact();
+
+        int total = m + 2;
+        int[] allSrc = new int[total];
+        int[] allDst = new int[total];
+        double[] allW = new double[total];
+        System.arraycopy(src, 0, allSrc, 0, split);
+        System.arraycopy(dst, 0, allDst, 0, split);
+        System.arraycopy(w, 0, allW, 0, split);
+        System.arraycopy(extraSrc, 0, allSrc, split, extraSrc.length);
+        System.arraycopy(extraDst, 0, allDst, split, extraDst.length);
+        System.arraycopy(extraW, 0, allW, split, extraW.length);
+        assertSameResults(build(allSrc, allDst, allW, "none"), compacted, "compacted", 5);
+    }
+
+    @Test
+    void unknownOrderingIsRejected() {
+        Graph g = new Graph();
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class,
+                () -> g.setVertexOrdering("gorder"));
+    }
+
+    private static Graph build(int[] src, int[] dst, double[] w, String ordering) {
+        Graph g = new Graph();
+        g.setVertexOrdering(ordering);
+        g.addEdges(src, dst, w, src.length);
+        g.buildCSR();
+        return g;
+    }
+
+    private static void assertSameResults(Graph expected, Graph actual, String label, int source) {
+        assertEquals(expected.getNodeCount(), actual.getNodeCount(), label);
+        List<Set<Integer>> components = expected.getConnectedComponentsBFS();
+        assertEquals(components, actual.getConnectedComponentsBFS(), label + " components");
+        assertRanksEqual(expected, actual, label);
+        assertEquals(byId(expected, expected.parallelBFS(source).distance),
+                byId(actual, actual.parallelBFS(source).distance), label + " bfs");
+        assertEquals(byId(expected, expected.fullParallelBFS().distance),
+                byId(actual, actual.fullParallelBFS().distance), label + " full bfs");
+        assertEquals(byId(expected, expected.singleSourceShortestPath(source).distance),
+                byId(actual, actual.singleSourceShortestPath(source).distance), label + " sssp");
+        assertEquals(expected.minimumSpanningTree().totalWeight, actual.minimumSpanningTree().totalWeight,
+                1e-9, label + " mst");
+    }
+
+    private static void assertRanksEqual(Graph expected, Graph actual, String label) {
+        double[] a = expected.pageRank(0.85, 1e-12, 200).rank;
+        double[] b = actual.pageRank(0.85, 1e-12, 200).rank;
+        for (int i = 0; i < a.length; i++) {
+            int id = expected.getNodeId(i);
+            assertEquals(a[i], b[actual.indexOf(id)], 1e-12, label + " rank of " + id);
+        }
+    }
+
+    private static Map<Integer, Integer> byId(Graph g, int[] values) {
+        Map<Integer, Integer> out = new HashMap<>();
+        for (int i = 0; i < values.length; i++) out.put(g.getNodeId(i), values[i]);
+        return out;
+    }
+
+    private static Map<Integer, Double> byId(Graph g, double[] values) {
+        Map<Integer, Double> out = new HashMap<>();
+        for (int i = 0; i < values.length; i++) out.put(g.getNodeId(i), values[i]);
+        return out;
+    }
+}
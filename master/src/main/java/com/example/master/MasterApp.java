@@ -1,28 +1,72 @@
 package com.example.master;
 
+import com.example.common.BinaryCodec;
+import com.example.common.ComponentLabels;
+import com.example.common.CompressedBitmap;
+import com.example.common.CsvWriter;
+import com.example.common.EdgeList;
+import com.example.common.EdgeStreamCodec;
+import com.example.common.Graph;
+import com.example.common.GraphGenerators;
+import com.example.common.IntIntHashMap;
+import com.example.common.OwnerMap;
+import com.example.common.SpanningForest;
+import com.example.master.client.WorkerClient;
+import com.example.master.metrics.PhaseBreakdown;
+import com.example.master.partition.HashPartitioner;
+import com.example.master.partition.PartitionPlan;
+import com.example.master.partition.PartitionReport;
+import com.example.master.partition.Partitioner;
 import com.example.master.utils.DSU;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 @SpringBootApplication
 public class MasterApp {
 
+    private static final double PR_DAMPING = 0.85;
+    private static final double PR_TOLERANCE = 1e-6;
+    private static final int PR_MAX_SUPERSTEPS = 100;
+    // 全图遍历只统计访问节点数，不传输节点集合
+    private static final boolean TRAVERSE_CARDINALITY_ONLY = Boolean.getBoolean("graph.traverse.cardinalityOnly");
+    // 边分发前的划分策略：hash（默认，与原有取模划分一致）/ range / ldg / fennel，用 -Dgraph.partitioner 选择；
+    // compare 时额外评估全部策略（含仅评估用的顶点切分）
+    private static final Partitioner PARTITIONER = Partitioner.byName(System.getProperty("graph.partitioner", "hash"));
+    private static final boolean PARTITION_COMPARE = Boolean.getBoolean("graph.partition.compare");
+    // 所有主控 -> worker 调用共用的连接池与延迟统计
+    private static final WorkerClient CLIENT = WorkerClient.fromSystemProperties();
+
+    // 增量更新测试：批数与每批操作数（插入、删除各一半）
+    private static final int UPDATE_BATCHES = 10;
+    private static final int UPDATE_BATCH = 2000;
+
     public static void main(String[] args) throws ExecutionException, InterruptedException {
+        if (PARTITIONER.isVertexCut()) {
+            throw new IllegalArgumentException("Partitioner " + PARTITIONER.getName()
+                    + " is a vertex-cut and can only be evaluated with -Dgraph.partition.compare=true");
+        }
         SpringApplication.run(MasterApp.class, args);
 
         List<String> resultLines = new ArrayList<>();
-        resultLines.add("workers,nodes,bfs_time,dfs_time,pagerank_time,mst_time,shortest_path_time");
+        resultLines.add("workers,nodes,bfs_time,dfs_time,pagerank_time,mst_time,shortest_path_time,distributed_bfs_time,components_time,updates_time");
+        List<String> superstepLines = new ArrayList<>();
+        superstepLines.add("workers,nodes,superstep,step_ms,apply_ms,messages,bytes,delta");
+        List<String> bfsLevelLines = new ArrayList<>();
+        bfsLevelLines.add("workers,nodes,level,step_ms,apply_ms,frontier,remote_vertices,messages,bytes");
+        List<String> partitionLines = new ArrayList<>();
+        partitionLines.add(PartitionReport.csvHeader());
+        PhaseBreakdown phases = new PhaseBreakdown(CLIENT);
 
         // 定义不同规模测试
         int[] nodeCounts = {100000, 200000, 500000, 1000000};
@@ -53,13 +97,28 @@ public class MasterApp {
             System.out.println("\n====== Testing with " + numWorkers + " workers ======");
 
             for (int totalNodes : nodeCounts) {
-                Map<Integer, List<int[]>> assignments = generateConnectedGraphEdges(
-                        totalNodes, avgDegree, workers.size());
-
-                for (int i = 0; i < workers.size(); i++) {
-                    sendGraphToWorker(workers.get(i), assignments.get(i));
-                    finalizeWorker(workers.get(i));
+                // 全局边表（生成时不分配归属，由划分器决定）
+                EdgeList edges = GraphGenerators.connected(totalNodes, avgDegree, new Random());
+
+                // 先划分并评估，再按划分结果分发边；非取模划分时把归属表一并下发
+                long partStart = System.nanoTime();
+                PartitionPlan plan = PARTITIONER.partition(edges, totalNodes, numWorkers);
+                PartitionReport report = PartitionReport.evaluate(PARTITIONER.getName(), edges, plan,
+                        (System.nanoTime() - partStart) / 1_000_000);
+                System.out.println("Partition " + report);
+                partitionLines.add(report.toCsv(totalNodes, edges.size()));
+                if (PARTITION_COMPARE) {
+                    for (Partitioner other : Partitioner.all()) {
+                        if (other.getName().equals(PARTITIONER.getName())) continue;
+                        PartitionReport r = PartitionReport.run(other, edges, totalNodes, numWorkers);
+                        System.out.println("  compare " + r);
+                        partitionLines.add(r.toCsv(totalNodes, edges.size()));
+                    }
                 }
+                boolean ownerTable = !(PARTITIONER instanceof HashPartitioner);
+                OwnerMap owners = ownerTable ? OwnerMap.table(numWorkers, plan.owner) : OwnerMap.modulo(numWorkers);
+
+                loadGraph(workers, edges, plan, ownerTable);
 
                 // 触发 BFS 测试
                 System.out.println("\n=== Testing BFS for " + totalNodes + " nodes ===");
@@ -77,13 +136,11 @@ public class MasterApp {
                 System.out.printf("DFS time for %d nodes with %d workers: %.2f seconds\n",
                         totalNodes, numWorkers, (dfsEnd - dfsStart) / 1000.0);
 
-                // 触发 PageRank 测试
+                // 触发分布式 PageRank 测试
                 System.out.println("\n=== Testing PageRank for " + totalNodes + " nodes ===");
                 long prStart = System.currentTimeMillis();
-                for (String worker : workers) {
-                    triggerPageRankCSV(worker);
-                }
-                aggregatePageRankCSVs(workers);
+                distributedPageRank(workers, totalNodes, superstepLines);
+                mergeCSVStreams(workers, "GET", "/dpr/result", "pagerank.csv");
                 long prEnd = System.currentTimeMillis();
 
                 System.out.printf("Total PageRank time for %d nodes with %d workers: %.2f seconds\n",
@@ -92,10 +149,7 @@ public class MasterApp {
                 // 触发 MST 测试
                 System.out.println("\n=== Testing MST for " + totalNodes + " nodes ===");
                 long mstStart = System.currentTimeMillis();
-                for (String worker : workers) {
-                    triggerMSTCSV(worker);
-                }
-                aggregateMSTCSVs(workers);
+                distributedMST(workers);
                 long mstEnd = System.currentTimeMillis();
                 System.out.printf("Total MST time for %d nodes with %d workers: %.2f seconds\n",
                         totalNodes, numWorkers, (mstEnd - mstStart) / 1000.0);
@@ -104,28 +158,54 @@ public class MasterApp {
                 System.out.println("\n=== Testing ShortestPath for " + totalNodes + " nodes ===");
                 int source = 0;
                 long sspStart = System.currentTimeMillis();
-                for (String worker : workers) {
-                    triggerSSPCSV(worker, source);
-                }
-                aggregateSSPCSVs(workers);
+                mergeCSVStreams(workers, "POST", "/ssp_csv?start=" + source, "ssp.csv");
                 long sspEnd = System.currentTimeMillis();
                 System.out.printf("Total ShortestPath time for %d nodes with %d workers: %.2f seconds\n",
                         totalNodes, numWorkers, (sspEnd - sspStart) / 1000.0);
 
+                // 触发分布式 BFS 测试（跨 worker 跟随边）
+                System.out.println("\n=== Testing distributed BFS for " + totalNodes + " nodes ===");
+                long dbfsStart = System.currentTimeMillis();
+                distributedBFS(workers, totalNodes, source, bfsLevelLines);
+                mergeCSVStreams(workers, "GET", "/dbfs/result", "dbfs.csv");
+                long dbfsEnd = System.currentTimeMillis();
+                System.out.printf("Total distributed BFS time for %d nodes with %d workers: %.2f seconds\n",
+                        totalNodes, numWorkers, (dbfsEnd - dbfsStart) / 1000.0);
+
+                // 触发分布式连通分量测试（只交换跨分区边界）
+                System.out.println("\n=== Testing connected components for " + totalNodes + " nodes ===");
+                long ccStart = System.currentTimeMillis();
+                distributedComponents(workers, owners);
+                mergeCSVStreams(workers, "GET", "/cc/result", "component_labels.csv");
+                long ccEnd = System.currentTimeMillis();
+                System.out.printf("Total connected components time for %d nodes with %d workers: %.2f seconds\n",
+                        totalNodes, numWorkers, (ccEnd - ccStart) / 1000.0);
+
+                // 触发增量更新测试：按源点归属分批插入 / 删除边，随后合并（不重新加载、不重建 CSR）
+                System.out.println("\n=== Testing incremental updates for " + totalNodes + " nodes ===");
+                long updStart = System.currentTimeMillis();
+                incrementalUpdates(workers, edges, owners, totalNodes);
+                long updEnd = System.currentTimeMillis();
+                System.out.printf("Total incremental update time for %d nodes with %d workers: %.2f seconds\n",
+                        totalNodes, numWorkers, (updEnd - updStart) / 1000.0);
+
                 String line = String.format(Locale.US,
-                        "%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f",
+                        "%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
                         numWorkers, totalNodes,
                         (bfsEnd - bfsStart) / 1000.0,
                         (dfsEnd - dfsStart) / 1000.0,
                         (prEnd - prStart) / 1000.0,
                         (mstEnd - mstStart) / 1000.0,
-                        (sspEnd - sspStart) / 1000.0);
+                        (sspEnd - sspStart) / 1000.0,
+                        (dbfsEnd - dbfsStart) / 1000.0,
+                        (ccEnd - ccStart) / 1000.0,
+                        (updEnd - updStart) / 1000.0);
                 resultLines.add(line);
                 System.out.println(">>> " + line);
 
-                for (String worker : workers) {
-                    clearWorkerGraph(worker);
-                }
+                // 清图前抓取 worker 阶段计时与 CSR 内存（清图后 gauge 归零）
+                phases.scrape(workers, totalNodes);
+                clearWorkerGraphs(workers);
             }
         }
         try (PrintWriter writer = new PrintWriter(new File("timing_results.csv"))) {
@@ -136,6 +216,47 @@ public class MasterApp {
         } catch (IOException e) {
             e.printStackTrace();
         }
+        try (PrintWriter writer = new PrintWriter(new File("phase_breakdown.csv"))) {
+            for (String line : phases.getPhaseLines()) {
+                writer.println(line);
+            }
+            System.out.println("Exported phase_breakdown.csv");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        try (PrintWriter writer = new PrintWriter(new File("worker_memory.csv"))) {
+            for (String line : phases.getMemoryLines()) {
+                writer.println(line);
+            }
+            System.out.println("Exported worker_memory.csv");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        try (PrintWriter writer = new PrintWriter(new File("pagerank_supersteps.csv"))) {
+            for (String line : superstepLines) {
+                writer.println(line);
+            }
+            System.out.println("Exported pagerank_supersteps.csv");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        try (PrintWriter writer = new PrintWriter(new File("partition_report.csv"))) {
+            for (String line : partitionLines) {
+                writer.println(line);
+            }
+            System.out.println("Exported partition_report.csv");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        try (PrintWriter writer = new PrintWriter(new File("dbfs_levels.csv"))) {
+            for (String line : bfsLevelLines) {
+                writer.println(line);
+            }
+            System.out.println("Exported dbfs_levels.csv");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        CLIENT.writeLatencyCSV("rpc_latency.csv");
         try {
             Process p = new ProcessBuilder("python", "plot_timing.py")
                     .inheritIO()
@@ -147,219 +268,355 @@ public class MasterApp {
         }
     }
 
-    private static void sendGraphToWorker(String url, List<int[]> edges) {
-        RestTemplate rest = new RestTemplate();
-        rest.postForEntity(url + "/load", edges, String.class);
+    // --- 同时向各 worker 分块流式发送分区边（边写边发，不在内存中组装完整请求体），
+    //     随后下发归属表（如有）并构建 CSR；总耗时取决于最慢的 worker ---
+    private static void loadGraph(List<String> workers, EdgeList edges, PartitionPlan plan, boolean ownerTable)
+            throws ExecutionException, InterruptedException {
+        int[][] groups = plan.edgesByWorker(edges);
+        CLIENT.fanOut(workers, (i, w) -> {
+            long t0 = System.nanoTime();
+            int[] edgeIds = groups[i];
+            return CLIENT.postStream(w + "/load_stream", out -> {
+                EdgeStreamCodec.Writer writer = new EdgeStreamCodec.Writer(out, false);
+                for (int e : edgeIds) writer.write(edges.source(e), edges.target(e));
+                writer.flush();
+            }).thenCompose(reply -> {
+                double seconds = Math.max(1e-9, (System.nanoTime() - t0) / 1e9);
+                System.out.printf(Locale.US, "Streamed %d edges to %s: %.0f edges/s (worker: %s)\n",
+                        edgeIds.length, w, edgeIds.length / seconds, reply);
+                return ownerTable
+                        ? CLIENT.postBytes(w + "/partition/owners?workers=" + plan.numWorkers,
+                                BinaryCodec.encodeInts(plan.owner)).thenApply(String::new)
+                        : CompletableFuture.completedFuture(reply);
+            }).thenCompose(x -> CLIENT.post(w + "/finalize"));
+        });
     }
 
-    private static void finalizeWorker(String url) {
-        RestTemplate rest = new RestTemplate();
-        rest.postForEntity(url + "/finalize", null, String.class);
-    }
-
-    private static void clearWorkerGraph(String url) {
-        RestTemplate rest = new RestTemplate();
-        rest.postForEntity(url + "/clear", null, String.class);
-    }
-
-    private static Set<Integer> parallelTraverse(List<String> workers, String path) throws ExecutionException, InterruptedException {
-        ExecutorService exec = Executors.newFixedThreadPool(workers.size());
-        List<Future<Set<Integer>>> futures = new ArrayList<>();
-        for (String w : workers) {
-            futures.add(exec.submit(() -> fetchSet(w + path)));
-        }
-        Set<Integer> total = new HashSet<>();
-        for (Future<Set<Integer>> f : futures) total.addAll(f.get());
-        exec.shutdown();
-        return total;
+    private static void clearWorkerGraphs(List<String> workers) throws ExecutionException, InterruptedException {
+        CLIENT.fanOut(workers, (i, w) -> CLIENT.post(w + "/clear"));
     }
 
-    private static Set<Integer> fetchSet(String url) {
-        RestTemplate rest = new RestTemplate();
-        ResponseEntity<Set> resp = rest.postForEntity(url, null, Set.class);
-        Set<Integer> body = resp.getBody();
-        return body != null ? body : Set.of();
-    }
-
-    private static List<int[]> fetchEdges(String url) {
-        RestTemplate rest = new RestTemplate();
-        ResponseEntity<List> resp = rest.getForEntity(url + "/edges", List.class);
-        List<int[]> edges = new ArrayList<>();
-        List<?> raw = resp.getBody();
-        if (raw != null) {
-            for (Object o : raw) {
-                @SuppressWarnings("unchecked")
-                List<Integer> e = (List<Integer>) o;
-                edges.add(new int[]{e.get(0), e.get(1)});
+    // --- 全图遍历：各 worker 返回压缩位图，主控按位或合并；只需基数时直接累加各 worker 的计数 ---
+    private static long parallelTraverse(List<String> workers, String path) throws ExecutionException, InterruptedException {
+        if (TRAVERSE_CARDINALITY_ONLY) {
+            // 每个节点只归属一个 worker（按源点分区），各 worker 的访问集合互不相交
+            long total = 0;
+            for (Long c : CLIENT.fanOut(workers, (i, w) ->
+                    CLIENT.post(w + path + "/cardinality", null, Long.class))) {
+                if (c != null) total += c;
             }
+            return total;
+        }
+        CompressedBitmap visited = new CompressedBitmap();
+        long bytes = 0;
+        for (byte[] body : CLIENT.fanOut(workers, (i, w) ->
+                CLIENT.post(w + path + "/bitmap", null, byte[].class))) {
+            if (body == null) continue;
+            bytes += body.length;
+            visited.or(CompressedBitmap.deserialize(body));
         }
-        return edges;
+        System.out.printf("%s: %d visited nodes, %d bitmap bytes\n", path, visited.cardinality(), bytes);
+        return visited.cardinality();
     }
 
-    private static void writeComponentsCSV(Map<Integer, Set<Integer>> components) {
-        try (PrintWriter writer = new PrintWriter(new File("components.csv"))) {
-            writer.println("component_id,size,hash_summary");
-            for (var entry : components.entrySet()) {
-                int id = entry.getKey();
-                int size = entry.getValue().size();
-                long hash = entry.getValue().stream().mapToLong(i -> i).sum();
-                writer.println(id + "," + size + "," + hash);
+    // --- summary 为按标号升序的 [标号, 节点数, ID 之和] 三元组；hash_summary 为分量内节点 ID 之和 ---
+    private static void writeComponentsCSV(long[] summary) {
+        int count = summary.length / 3;
+        try (OutputStream out = new FileOutputStream("components.csv")) {
+            CsvWriter writer = new CsvWriter(out).header("component_id,size,hash_summary");
+            for (int c = 0; c < count; c++) {
+                writer.field(c).field(summary[3 * c + 1]).field(summary[3 * c + 2]).endRow();
             }
-            System.out.println("Exported components.csv with " + components.size() + " components");
+            writer.flush();
+            System.out.println("Exported components.csv with " + count + " components");
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    private static void triggerPageRankCSV(String url) {
-        RestTemplate rest = new RestTemplate();
-        rest.postForEntity(url + "/pagerank_csv", null, String.class);
-    }
-
-    private static void aggregatePageRankCSVs(List<String> workers) {
-        RestTemplate rest = new RestTemplate();
-        List<String> aggregated = new ArrayList<>();
-        boolean first = true;
-        for (String worker : workers) {
-            String csv = rest.getForObject(worker + "/pagerank_csv", String.class);
-            if (csv == null) continue;
-            String[] lines = csv.split("\\r?\\n");
-            for (int i = 0; i < lines.length; i++) {
-                if (i == 0) {
-                    if (first) { aggregated.add(lines[i]); first = false; }
-                } else {
-                    aggregated.add(lines[i]);
-                }
+    // --- 增量更新：每批一半插入随机边、一半删除已有边，按源点归属分组后同时发给各 worker；
+    //     批延迟只与批大小有关，最后统一合并并报告各 worker 的合并耗时 ---
+    private static void incrementalUpdates(List<String> workers, EdgeList edges, OwnerMap owners, int totalNodes)
+            throws ExecutionException, InterruptedException {
+        Random rand = new Random();
+        long worst = 0;
+        long total = 0;
+        for (int b = 0; b < UPDATE_BATCHES; b++) {
+            EdgeList[] inserts = new EdgeList[workers.size()];
+            EdgeList[] deletes = new EdgeList[workers.size()];
+            for (int i = 0; i < workers.size(); i++) {
+                inserts[i] = new EdgeList();
+                deletes[i] = new EdgeList();
+            }
+            for (int k = 0; k < UPDATE_BATCH / 2; k++) {
+                int u = rand.nextInt(totalNodes);
+                inserts[owners.ownerOf(u)].add(u, rand.nextInt(totalNodes));
+                int e = rand.nextInt(edges.size());
+                deletes[owners.ownerOf(edges.source(e))].add(edges.source(e), edges.target(e));
             }
+            long t0 = System.nanoTime();
+            CLIENT.fanOut(workers, (i, w) -> CLIENT.postStream(w + "/edges/insert", out -> writeEdges(out, inserts[i]))
+                    .thenCompose(x -> CLIENT.postStream(w + "/edges/delete", out -> writeEdges(out, deletes[i]))));
+            long nanos = System.nanoTime() - t0;
+            worst = Math.max(worst, nanos);
+            total += nanos;
         }
-        try (PrintWriter writer = new PrintWriter(new File("pagerank.csv"))) {
-            for (String line : aggregated) writer.println(line);
-            System.out.println("Exported pagerank.csv with " + (aggregated.size()-1) + " rows");
-        } catch (IOException e) {
-            e.printStackTrace();
+        System.out.printf(Locale.US, "%d update batches of %d edges: mean %.2f ms, worst %.2f ms\n",
+                UPDATE_BATCHES, UPDATE_BATCH, total / 1e6 / UPDATE_BATCHES, worst / 1e6);
+        for (String reply : CLIENT.fanOut(workers, (i, w) -> CLIENT.post(w + "/compact"))) {
+            System.out.println("Compaction: " + reply);
         }
     }
 
-    public static Map<Integer, List<int[]>> generateConnectedGraphEdges(
-            int totalNodes, int avgDegree, int numWorkers) {
-
-        Map<Integer, List<int[]>> workerEdges = new HashMap<>();
-        for (int i = 0; i < numWorkers; i++) workerEdges.put(i, new ArrayList<>());
-        Random rand = new Random();
+    private static void writeEdges(OutputStream out, EdgeList edges) throws IOException {
+        EdgeStreamCodec.Writer writer = new EdgeStreamCodec.Writer(out, false);
+        for (int e = 0; e < edges.size(); e++) writer.write(edges.source(e), edges.target(e));
+        writer.flush();
+    }
 
-        // 1. 生成一棵连通图的生成树（保证连通）
-        for (int i = 1; i < totalNodes; i++) {
-            int u = i;
-            int v = rand.nextInt(i); // 保证 u 和 0~i-1 中的某个点连接
-            int w = u % numWorkers;
-            workerEdges.get(w).add(new int[]{u, v});
+    // --- 分布式连通分量：worker 先在本地合并，主控只对边界对 (本地代表, 远端代表) 做并查集，
+    //     以分量内最小节点 ID 为全局标号，再把变化的代表 -> 标号回推给各代表所在 worker ---
+    private static void distributedComponents(List<String> workers, OwnerMap owners)
+            throws ExecutionException, InterruptedException {
+        long localComponents = 0;
+        for (Map<String, Object> st : CLIENT.fanOut(workers, (i, w) ->
+                CLIENT.post(w + "/cc/prepare", null, WorkerClient.JSON_OBJECT))) {
+            localComponents += ((Number) st.get("localComponents")).longValue();
         }
-
-        // 2. 随机补充边（增强稀疏图的结构复杂性）
-        for (int u = 0; u < totalNodes; u++) {
-            int deg = rand.nextInt(avgDegree); // 控制在树结构基础上补边
-            for (int j = 0; j < deg; j++) {
-                int v = rand.nextInt(totalNodes);
-                if (u != v) {
-                    int w = u % numWorkers;
-                    workerEdges.get(w).add(new int[]{u, v});
-                }
+        List<int[]> boundary = CLIENT.fanOut(workers, (i, w) ->
+                CLIENT.getBytes(w + "/cc/boundary").thenApply(BinaryCodec::decodeInts));
+
+        // 远端节点按 owner 分组去重，向 owner 查询其本地代表
+        int[][] query = new int[workers.size()][];
+        int[] querySize = new int[workers.size()];
+        IntIntHashMap seen = new IntIntHashMap();
+        long pairs = 0;
+        for (int[] bp : boundary) {
+            pairs += bp.length / 2;
+            for (int k = 1; k < bp.length; k += 2) {
+                int id = bp[k];
+                if (seen.putIfAbsent(id, 0) >= 0) continue;
+                int o = owners.ownerOf(id);
+                if (query[o] == null) query[o] = new int[16];
+                if (querySize[o] == query[o].length) query[o] = Arrays.copyOf(query[o], querySize[o] * 2);
+                query[o][querySize[o]++] = id;
             }
         }
-
-        // 3. 添加自环，保证每个点有出边
-        for (int i = 0; i < totalNodes; i++) {
-            int w = i % numWorkers;
-            workerEdges.get(w).add(new int[]{i, i});
+        List<int[]> resolved = CLIENT.fanOut(workers, (i, w) -> querySize[i] == 0
+                ? CompletableFuture.completedFuture(new int[0])
+                : CLIENT.postBytes(w + "/cc/resolve", BinaryCodec.encodeInts(query[i], 0, querySize[i]))
+                        .thenApply(BinaryCodec::decodeInts));
+        IntIntHashMap remoteRep = new IntIntHashMap(seen.size());
+        for (int o = 0; o < workers.size(); o++) {
+            int[] reps = resolved.get(o);
+            for (int k = 0; k < reps.length; k++) remoteRep.put(query[o][k], reps[k]);
         }
 
-        return workerEdges;
+        // 只在代表之间合并；远端节点不存在（悬空边）时跳过
+        DSU dsu = new DSU(seen.size() * 2);
+        for (int[] bp : boundary) {
+            for (int k = 0; k < bp.length; k += 2) {
+                int r = remoteRep.get(bp[k + 1]);
+                if (r >= 0) dsu.union(bp[k], r);
+            }
+        }
+        int[] repIds = dsu.nodeIds();
+        ComponentLabels sets = dsu.labels();
+        int[] minId = new int[sets.count];
+        Arrays.fill(minId, Integer.MAX_VALUE);
+        for (int i = 0; i < repIds.length; i++) minId[sets.label[i]] = Math.min(minId[sets.label[i]], repIds[i]);
+
+        int[][] push = new int[workers.size()][];
+        int[] pushSize = new int[workers.size()];
+        for (int i = 0; i < repIds.length; i++) {
+            int global = minId[sets.label[i]];
+            if (global == repIds[i]) continue;
+            int o = owners.ownerOf(repIds[i]);
+            if (push[o] == null) push[o] = new int[16];
+            if (pushSize[o] + 2 > push[o].length) push[o] = Arrays.copyOf(push[o], push[o].length * 2);
+            push[o][pushSize[o]++] = repIds[i];
+            push[o][pushSize[o]++] = global;
+        }
+        CLIENT.fanOut(workers, (i, w) -> pushSize[i] == 0 ? CompletableFuture.completedFuture(new byte[0])
+                : CLIENT.postBytes(w + "/cc/apply", BinaryCodec.encodeInts(push[i], 0, pushSize[i])));
+
+        // 各 worker 的分量汇总按标号合并
+        List<long[]> summaries = CLIENT.fanOut(workers, (i, w) ->
+                CLIENT.getBytes(w + "/cc/summary").thenApply(BinaryCodec::decodeLongs));
+        int total = 0;
+        for (long[] sm : summaries) total += sm.length / 3;
+        long[] keyed = new long[total];
+        long[] sizes = new long[total];
+        long[] hashes = new long[total];
+        int t = 0;
+        for (long[] sm : summaries) {
+            for (int k = 0; k < sm.length; k += 3, t++) {
+                keyed[t] = (sm[k] << 32) | t;
+                sizes[t] = sm[k + 1];
+                hashes[t] = sm[k + 2];
+            }
+        }
+        Arrays.sort(keyed);
+        long[] merged = new long[3 * total];
+        int count = 0;
+        for (int k = 0; k < total; k++) {
+            int j = (int) keyed[k];
+            long label = keyed[k] >> 32;
+            if (count == 0 || merged[3 * (count - 1)] != label) {
+                merged[3 * count] = label;
+                count++;
+            }
+            merged[3 * count - 2] += sizes[j];
+            merged[3 * count - 1] += hashes[j];
+        }
+        System.out.printf("Connected components: %d local components, %d boundary pairs, %d global components\n",
+                localComponents, pairs, count);
+        writeComponentsCSV(Arrays.copyOf(merged, 3 * count));
     }
 
-    public static Map<Integer, List<int[]>> generateComponentAssignedEdges(
-            int totalNodes, int numComponents, int avgDegree, int numWorkers) {
-        Map<Integer, List<int[]>> workerEdges = new HashMap<>();
-        for (int i = 0; i < numWorkers; i++) workerEdges.put(i, new ArrayList<>());
-        Random rand = new Random();
-        int nodesPerComp = totalNodes / numComponents;
-        for (int c = 0; c < numComponents; c++) {
-            int off = c * nodesPerComp;
-            int w = c % numWorkers;
-            var compEdges = workerEdges.get(w);
-            for (int i = 0; i < nodesPerComp; i++) {
-                int u = off + i;
-                int deg = rand.nextInt(avgDegree) + 1;
-                for (int j = 0; j < deg; j++) {
-                    int v = off + rand.nextInt(nodesPerComp);
-                    if (u != v) compEdges.add(new int[]{u, v});
-                }
-            }
-            for (int i = 0; i < nodesPerComp; i++) {
-                compEdges.add(new int[]{off + i, off + i});
+    // --- 分布式 PageRank：主控驱动 BSP 超步，worker 之间直接交换边界贡献 ---
+    private static void distributedPageRank(List<String> workers, int totalNodes, List<String> superstepLines)
+            throws ExecutionException, InterruptedException {
+        CLIENT.fanOut(workers, (i, w) -> CLIENT.post(w + "/dpr/prepare",
+                Map.of("workers", workers, "self", i), String.class));
+        List<Map<String, Object>> connected = CLIENT.fanOut(workers, (i, w) ->
+                CLIENT.post(w + "/dpr/connect", null, WorkerClient.JSON_OBJECT));
+        long totalVertices = 0;
+        for (Map<String, Object> info : connected) totalVertices += ((Number) info.get("localVertices")).longValue();
+        final long n = totalVertices;
+        CLIENT.fanOut(workers, (i, w) -> CLIENT.post(w + "/dpr/start",
+                Map.of("totalVertices", n), String.class));
+
+        for (int step = 1; step <= PR_MAX_SUPERSTEPS; step++) {
+            long t0 = System.nanoTime();
+            List<Map<String, Object>> stats = CLIENT.fanOut(workers, (i, w) ->
+                    CLIENT.post(w + "/dpr/step", null, WorkerClient.JSON_OBJECT));
+            long t1 = System.nanoTime();
+            double dangling = 0.0;
+            long messages = 0, bytes = 0;
+            for (Map<String, Object> st : stats) {
+                dangling += ((Number) st.get("dangling")).doubleValue();
+                messages += ((Number) st.get("messages")).longValue();
+                bytes += ((Number) st.get("bytes")).longValue();
             }
+            final double totalDangling = dangling;
+            List<Map<String, Object>> applied = CLIENT.fanOut(workers, (i, w) -> CLIENT.post(w + "/dpr/apply",
+                    Map.of("damping", PR_DAMPING, "dangling", totalDangling), WorkerClient.JSON_OBJECT));
+            long t2 = System.nanoTime();
+            double delta = 0.0;
+            for (Map<String, Object> a : applied) delta += ((Number) a.get("delta")).doubleValue();
+
+            String line = String.format(Locale.US, "%d,%d,%d,%.3f,%.3f,%d,%d,%.3e",
+                    workers.size(), totalNodes, step, (t1 - t0) / 1e6, (t2 - t1) / 1e6, messages, bytes, delta);
+            superstepLines.add(line);
+            System.out.println("PageRank superstep " + line);
+            if (delta < PR_TOLERANCE) break;
         }
-        return workerEdges;
     }
 
-    private static void triggerMSTCSV(String url) {
-        RestTemplate rest = new RestTemplate();
-        rest.postForEntity(url + "/mst_csv", null, String.class);
+    // --- 分布式 BFS：主控驱动层同步超步，worker 之间直接交换远端前沿顶点 ---
+    private static void distributedBFS(List<String> workers, int totalNodes, int source, List<String> levelLines)
+            throws ExecutionException, InterruptedException {
+        CLIENT.fanOut(workers, (i, w) -> CLIENT.post(w + "/dbfs/prepare",
+                Map.of("workers", workers, "self", i, "directionOptimizing", true), String.class));
+        long frontier = 0;
+        for (Map<String, Object> st : CLIENT.fanOut(workers, (i, w) -> CLIENT.post(w + "/dbfs/start",
+                Map.of("source", source), WorkerClient.JSON_OBJECT))) {
+            frontier += ((Number) st.get("frontier")).longValue();
+        }
+
+        long reached = frontier;
+        int level = 0;
+        while (frontier > 0) {
+            long t0 = System.nanoTime();
+            List<Map<String, Object>> stats = CLIENT.fanOut(workers, (i, w) ->
+                    CLIENT.post(w + "/dbfs/step", null, WorkerClient.JSON_OBJECT));
+            long t1 = System.nanoTime();
+            long remote = 0, messages = 0, bytes = 0;
+            for (Map<String, Object> st : stats) {
+                remote += ((Number) st.get("remoteVertices")).longValue();
+                messages += ((Number) st.get("messages")).longValue();
+                bytes += ((Number) st.get("bytes")).longValue();
+            }
+            List<Map<String, Object>> applied = CLIENT.fanOut(workers, (i, w) ->
+                    CLIENT.post(w + "/dbfs/apply", null, WorkerClient.JSON_OBJECT));
+            long t2 = System.nanoTime();
+            frontier = 0;
+            for (Map<String, Object> a : applied) frontier += ((Number) a.get("frontier")).longValue();
+            reached += frontier;
+            level++;
+
+            String line = String.format(Locale.US, "%d,%d,%d,%.3f,%.3f,%d,%d,%d,%d",
+                    workers.size(), totalNodes, level, (t1 - t0) / 1e6, (t2 - t1) / 1e6,
+                    frontier, remote, messages, bytes);
+            levelLines.add(line);
+            System.out.println("Distributed BFS level " + line);
+        }
+        System.out.printf("Distributed BFS from %d reached %d nodes in %d levels\n", source, reached, Math.max(0, level - 1));
     }
 
-    private static void aggregateMSTCSVs(List<String> workers) {
-        RestTemplate rest = new RestTemplate();
-        List<String> aggregated = new ArrayList<>();
-        boolean first = true;
-        for (String worker : workers) {
-            String csv = rest.getForObject(worker + "/mst_csv", String.class);
-            if (csv == null) continue;
-            String[] lines = csv.split("\\r?\\n");
-            for (int i = 0; i < lines.length; i++) {
-                if (i == 0 && first) {
-                    aggregated.add(lines[i]);
-                    first = false;
-                } else if (i > 0) {
-                    aggregated.add(lines[i]);
+    // --- 同时向各 worker 发起请求（worker 并行计算），再按顺序把响应流拼接写盘，只保留第一份表头 ---
+    private static void mergeCSVStreams(List<String> workers, String method, String path, String fileName)
+            throws ExecutionException, InterruptedException {
+        List<InputStream> streams = CLIENT.fanOut(workers, (i, w) -> CLIENT.openStream(method, w + path));
+        long rows = 0;
+        byte[] buf = new byte[1 << 16];
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16)) {
+            for (int k = 0; k < streams.size(); k++) {
+                boolean inHeader = true;
+                try (InputStream in = streams.get(k)) {
+                    int r;
+                    while ((r = in.read(buf)) > 0) {
+                        int from = 0;
+                        if (inHeader) {
+                            while (from < r && buf[from] != '\n') from++;
+                            if (from == r) continue;
+                            inHeader = false;
+                            from++;
+                            if (k == 0) out.write(buf, 0, from);
+                        }
+                        for (int i = from; i < r; i++) if (buf[i] == '\n') rows++;
+                        out.write(buf, from, r - from);
+                    }
                 }
             }
-        }
-        try (PrintWriter writer = new PrintWriter(new File("mst.csv"))) {
-            for (String line : aggregated) writer.println(line);
-            System.out.println("Exported mst.csv with " + (aggregated.size() - 1) + " edges");
+            System.out.println("Exported " + fileName + " with " + rows + " rows");
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
-    private static void triggerSSPCSV(String url, int startNode) {
-        RestTemplate rest = new RestTemplate();
-        Map<String, Integer> body = Map.of("start", startNode);
-        rest.postForEntity(url + "/ssp_csv", body, String.class);
-    }
 
-    private static void aggregateSSPCSVs(List<String> workers) {
-        RestTemplate rest = new RestTemplate();
-        List<String> allLines = new ArrayList<>();
-        boolean first = true;
-        for (String worker : workers) {
-            String csv = rest.getForObject(worker + "/ssp_csv", String.class);
-            if (csv == null) continue;
-            String[] lines = csv.split("\\r?\\n");
-            for (int i = 0; i < lines.length; i++) {
-                if (i == 0 && first) {
-                    allLines.add(lines[i]);
-                    first = false;
-                } else if (i > 0) {
-                    allLines.add(lines[i]);
-                }
-            }
+    // --- 分布式 MST：各 worker 返回本地森林 + 跨分区边，主控只在这些候选边上做 Borůvka 合并 ---
+    private static void distributedMST(List<String> workers) throws ExecutionException, InterruptedException {
+        // 候选边按两个方向加入，保证所有端点都是本地顶点（不会被当作跨分区边丢弃）；边到达即解析
+        Graph merged = new Graph();
+        long candidates = 0;
+        for (long count : CLIENT.fanOut(workers, (i, w) -> CLIENT.openStream(w + "/mst/candidates", Map.of("workers", workers, "self", i))
+                .thenApply(stream -> {
+                    try (InputStream in = stream) {
+                        return EdgeStreamCodec.read(in, (src, dst, wt, n) -> {
+                            merged.addEdges(src, dst, wt, n);
+                            merged.addEdges(dst, src, wt, n);
+                        });
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Malformed MST candidate stream from " + w, e);
+                    }
+                }))) {
+            candidates += count;
         }
-        try (PrintWriter writer = new PrintWriter(new File("ssp.csv"))) {
-            for (String line : allLines) writer.println(line);
-            System.out.println("Exported ssp.csv with " + (allLines.size() - 1) + " rows");
+        merged.buildCSR();
+        SpanningForest mst = merged.minimumSpanningTree();
+
+        try (OutputStream out = new FileOutputStream("mst.csv")) {
+            CsvWriter writer = new CsvWriter(out).header("u,v,weight");
+            for (int i = 0; i < mst.edgeCount; i++) {
+                writer.field(mst.source[i]).field(mst.target[i]).field(mst.weight[i]).endRow();
+            }
+            writer.flush();
+            System.out.printf(Locale.US, "Exported mst.csv with %d edges (total weight %.4f) from %d candidate edges\n",
+                    mst.edgeCount, mst.totalWeight, candidates);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
-
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package com.example.master.client;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// 单个端点的调用延迟直方图：微秒值按 2 的幂分段、每段再四等分（相对误差约 19%），无锁累加
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private volatile long maxMicros;
+
+    public void record(long nanos, boolean failed) {
+        long micros = Math.max(1, nanos / 1000);
+        counts.incrementAndGet(bucketOf(micros));
+        calls.increment();
+        totalMicros.add(micros);
+        if (failed) errors.increment();
+        if (micros > maxMicros) {
+            synchronized (this) {
+                if (micros > maxMicros) maxMicros = micros;
+            }
+        }
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    private static int bucketOf(long micros) {
+        int exp = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = exp < 2 ? 0 : (int) ((micros >>> (exp - 2)) & (SUB_BUCKETS - 1));
+        return exp * SUB_BUCKETS + sub;
+    }
+
+    // --- 桶上界（微秒） ---
+    private static long upperBound(int bucket) {
+        int exp = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        if (exp < 2) return 2L << exp;
+        return (1L << exp) + ((long) (sub + 1) << (exp - 2));
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public double meanMillis() {
+        long n = calls.sum();
+        return n == 0 ? 0.0 : totalMicros.sum() / 1000.0 / n;
+    }
+
+    public double maxMillis() {
+        return maxMicros / 1000.0;
+    }
+
+    // --- 分位数按所在桶上界估计，且不超过实际最大值 ---
+    public double percentileMillis(double q) {
+        long n = calls.sum();
+        if (n == 0) return 0.0;
+        long rank = (long) Math.ceil(q * n);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts.get(b);
+            if (seen >= rank) return Math.min(upperBound(b), maxMicros) / 1000.0;
+        }
+        return maxMillis();
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.master.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+// 主控到 worker 的 RPC 客户端：共享连接池的 HttpClient，异步发送；
+// 每次调用带超时，连接失败（请求未送达）总是重试，其他 IO 错误只对幂等调用重试；按端点路径统计延迟
+public class WorkerClient implements AutoCloseable {
+
+    private static final String OCTET_STREAM = "application/octet-stream";
+    private static final String JSON = "application/json";
+    private static final long BACKOFF_MILLIS = 100;
+
+    // 统计类接口的 JSON 对象响应
+    public static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final HttpClient http;
+    private final ExecutorService executor;
+    private final ObjectMapper json = new ObjectMapper();
+    private final Duration timeout;
+    private final int retries;
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    public WorkerClient(Duration timeout, int retries) {
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "worker-client-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        this.timeout = timeout;
+        this.retries = retries;
+    }
+
+    // --- graph.rpc.timeoutSeconds（默认 600）与 graph.rpc.retries（默认 2） ---
+    public static WorkerClient fromSystemProperties() {
+        return new WorkerClient(Duration.ofSeconds(Long.getLong("graph.rpc.timeoutSeconds", 600)),
+                Integer.getInteger("graph.rpc.retries", 2));
+    }
+
+    // ---------- 调用 ----------
+
+    // --- body 为 null 时发送空请求体；String / byte[] 响应直接返回，其余按 JSON 解析 ---
+    public <T> CompletableFuture<T> post(String url, Object body, Class<T> type) {
+        return postJson(url, body).thenApply(bytes -> convert(bytes, type));
+    }
+
+    // --- 同上，响应按泛型类型解析（如 JSON_OBJECT） ---
+    public <T> CompletableFuture<T> post(String url, Object body, ParameterizedTypeReference<T> type) {
+        return postJson(url, body).thenApply(bytes -> convert(bytes, type));
+    }
+
+    private CompletableFuture<byte[]> postJson(String url, Object body) {
+        byte[] payload;
+        try {
+            payload = body == null ? new byte[0] : json.writeValueAsBytes(body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(request(url).header("Content-Type", JSON).POST(HttpRequest.BodyPublishers.ofByteArray(payload)),
+                false, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    public CompletableFuture<String> post(String url) {
+        return post(url, null, String.class);
+    }
+
+    public CompletableFuture<byte[]> postBytes(String url, byte[] body) {
+        return send(request(url).header("Content-Type", OCTET_STREAM).POST(HttpRequest.BodyPublishers.ofByteArray(body)),
+                false, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    public <T> CompletableFuture<T> get(String url, Class<T> type) {
+        return getBytes(url).thenApply(bytes -> convert(bytes, type));
+    }
+
+    public <T> CompletableFuture<T> get(String url, ParameterizedTypeReference<T> type) {
+        return getBytes(url).thenApply(bytes -> convert(bytes, type));
+    }
+
+    public CompletableFuture<byte[]> getBytes(String url) {
+        return send(request(url).GET(), true, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // --- 响应头到达（即 worker 完成计算）时完成，返回响应体流；延迟只计到响应头 ---
+    public CompletableFuture<InputStream> openStream(String method, String url) {
+        HttpRequest.Builder builder = request(url).method(method, HttpRequest.BodyPublishers.noBody());
+        return send(builder, "GET".equals(method), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    // --- 同上，POST 带 JSON 请求体 ---
+    public CompletableFuture<InputStream> openStream(String url, Object body) {
+        byte[] payload;
+        try {
+            payload = json.writeValueAsBytes(body);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        HttpRequest.Builder builder = request(url).header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload));
+        return send(builder, false, HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    // --- 请求体由 writer 边写边发（分块传输），不在内存中组装；每次（重）发送都重新调用 writer ---
+    public interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    public CompletableFuture<String> postStream(String url, BodyWriter writer) {
+        HttpRequest.Builder builder = request(url).header("Content-Type", OCTET_STREAM)
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> pipe(writer)));
+        return send(builder, false, HttpResponse.BodyHandlers.ofByteArray()).thenApply(String::new);
+    }
+
+    // --- writer 失败时读端在管道末尾抛出其异常而不是正常结束，请求中止、future 以失败完成，
+    //     不会把截断的请求体当作完整上传 ---
+    private InputStream pipe(BodyWriter writer) {
+        try {
+            AtomicReference<IOException> failure = new AtomicReference<>();
+            PipedInputStream in = new PipedInputStream(1 << 16) {
+                @Override
+                public synchronized int read() throws IOException {
+                    return checked(super.read());
+                }
+
+                @Override
+                public synchronized int read(byte[] b, int off, int len) throws IOException {
+                    return checked(super.read(b, off, len));
+                }
+
+                private int checked(int n) throws IOException {
+                    IOException e = failure.get();
+                    if (n < 0 && e != null) throw new IOException("Request body writer failed", e);
+                    return n;
+                }
+            };
+            PipedOutputStream out = new PipedOutputStream(in);
+            executor.execute(() -> {
+                try {
+                    writer.writeTo(out);
+                } catch (IOException | RuntimeException e) {
+                    failure.set(e instanceof IOException io ? io : new IOException(e));
+                } finally {
+                    // 先记录失败再关闭写端，读端看到管道结束时一定能看到失败
+                    try {
+                        out.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            });
+            return in;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------- 扇出 ----------
+
+    // --- 同时向所有 worker 发起调用，按 worker 顺序返回结果；总耗时取决于最慢的 worker ---
+    public <T> List<T> fanOut(List<String> workers, BiFunction<Integer, String, CompletableFuture<T>> call)
+            throws ExecutionException, InterruptedException {
+        List<CompletableFuture<T>> futures = new ArrayList<>(workers.size());
+        for (int i = 0; i < workers.size(); i++) futures.add(call.apply(i, workers.get(i)));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get();
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> f : futures) results.add(f.get());
+        return results;
+    }
+
+    // ---------- 发送与重试 ----------
+
+    private HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(timeout);
+    }
+
+    private <T> CompletableFuture<T> send(HttpRequest.Builder builder, boolean idempotent,
+                                          HttpResponse.BodyHandler<T> handler) {
+        HttpRequest request = builder.build();
+        LatencyHistogram hist = latencies.computeIfAbsent(request.uri().getPath(), k -> new LatencyHistogram());
+        return attempt(request, idempotent, handler, hist, 0);
+    }
+
+    private <T> CompletableFuture<T> attempt(HttpRequest request, boolean idempotent,
+                                             HttpResponse.BodyHandler<T> handler, LatencyHistogram hist, int tried) {
+        long t0 = System.nanoTime();
+        return http.sendAsync(request, handler).handle((resp, err) -> {
+            long nanos = System.nanoTime() - t0;
+            if (err == null && resp.statusCode() / 100 == 2) {
+                hist.record(nanos, false);
+                return CompletableFuture.completedFuture(resp.body());
+            }
+            hist.record(nanos, true);
+            Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+            if (cause != null && tried < retries && (cause instanceof ConnectException
+                    || (idempotent && cause instanceof IOException))) {
+                hist.recordRetry();
+                long delay = BACKOFF_MILLIS << tried;
+                return CompletableFuture.supplyAsync(() -> null,
+                                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor))
+                        .thenCompose(x -> attempt(request, idempotent, handler, hist, tried + 1));
+            }
+            if (cause != null) {
+                return CompletableFuture.<T>failedFuture(new IllegalStateException(
+                        request.method() + " " + request.uri() + " failed after " + (tried + 1) + " attempt(s)", cause));
+            }
+            closeQuietly(resp.body());
+            return CompletableFuture.<T>failedFuture(new IllegalStateException(
+                    request.method() + " " + request.uri() + " returned HTTP " + resp.statusCode()));
+        }).thenCompose(f -> f);
+    }
+
+    private static void closeQuietly(Object body) {
+        if (body instanceof InputStream in) {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T convert(byte[] bytes, Class<T> type) {
+        if (type == byte[].class) return (T) bytes;
+        if (type == String.class) return (T) new String(bytes);
+        if (bytes.length == 0) return null;
+        try {
+            return json.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T convert(byte[] bytes, ParameterizedTypeReference<T> type) {
+        if (bytes.length == 0) return null;
+        try {
+            return json.readValue(bytes, json.constructType(type.getType()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------- 延迟统计 ----------
+
+    public Map<String, LatencyHistogram> getLatencies() {
+        return new TreeMap<>(latencies);
+    }
+
+    public void writeLatencyCSV(String fileName) {
+        try (PrintWriter writer = new PrintWriter(fileName)) {
+            writer.println("endpoint,calls,errors,retries,mean_ms,p50_ms,p90_ms,p99_ms,max_ms");
+            for (Map.Entry<String, LatencyHistogram> e : getLatencies().entrySet()) {
+                LatencyHistogram h = e.getValue();
+                writer.println(String.format(Locale.US, "%s,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f", e.getKey(),
+                        h.getCalls(), h.getErrors(), h.getRetries(), h.meanMillis(), h.percentileMillis(0.5),
+                        h.percentileMillis(0.9), h.percentileMillis(0.99), h.maxMillis()));
+            }
+            System.out.println("Exported " + fileName);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.master.metrics;
+
+import com.example.master.client.WorkerClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+
+// 按阶段拆分的 worker 耗时：每轮测试结束（清图之前）抓取各 worker 的 /metrics/phases，
+// 与上次抓取的累计值做差，得到本轮每个 (算法, 阶段) 的调用次数、各 worker 总耗时与最慢 worker 耗时
+public class PhaseBreakdown {
+
+    private final WorkerClient client;
+    // worker -> (algorithm|phase -> {count, totalMs}) 的上次累计值
+    private final Map<String, Map<String, double[]>> previous = new TreeMap<>();
+    private final List<String> phaseLines = new ArrayList<>();
+    private final List<String> memoryLines = new ArrayList<>();
+
+    public PhaseBreakdown(WorkerClient client) {
+        this.client = client;
+        phaseLines.add("workers,nodes,algorithm,phase,calls,total_ms_sum,total_ms_max_worker");
+        memoryLines.add("workers,nodes,worker,csr_bytes,nodes_local,edges,remote_edges");
+    }
+
+    @SuppressWarnings("unchecked")
+    public void scrape(List<String> workers, int totalNodes) throws ExecutionException, InterruptedException {
+        List<Map<String, Object>> snapshots = client.fanOut(workers, (i, w) ->
+                client.get(w + "/metrics/phases", WorkerClient.JSON_OBJECT));
+        // algorithm|phase -> {calls, sum, max}
+        Map<String, double[]> rows = new TreeMap<>();
+        for (int i = 0; i < workers.size(); i++) {
+            Map<String, Object> snap = snapshots.get(i);
+            Map<String, double[]> prev = previous.computeIfAbsent(workers.get(i), k -> new TreeMap<>());
+            for (Map<String, Object> p : (List<Map<String, Object>>) snap.get("phases")) {
+                String key = p.get("algorithm") + "|" + p.get("phase");
+                double count = ((Number) p.get("count")).doubleValue();
+                double totalMs = ((Number) p.get("totalMs")).doubleValue();
+                double[] last = prev.getOrDefault(key, new double[2]);
+                prev.put(key, new double[]{count, totalMs});
+                if (count <= last[0]) continue;
+                double[] row = rows.computeIfAbsent(key, k -> new double[3]);
+                row[0] += count - last[0];
+                row[1] += totalMs - last[1];
+                row[2] = Math.max(row[2], totalMs - last[1]);
+            }
+            memoryLines.add(String.format(Locale.US, "%d,%d,%s,%d,%d,%d,%d", workers.size(), totalNodes,
+                    workers.get(i), ((Number) snap.get("csrBytes")).longValue(),
+                    ((Number) snap.get("nodes")).longValue(), ((Number) snap.get("edges")).longValue(),
+                    ((Number) snap.get("remoteEdges")).longValue()));
+        }
+        for (Map.Entry<String, double[]> e : rows.entrySet()) {
+            String[] key = e.getKey().split("\\|", 2);
+            double[] row = e.getValue();
+            phaseLines.add(String.format(Locale.US, "%d,%d,%s,%s,%d,%.3f,%.3f",
+                    workers.size(), totalNodes, key[0], key[1], (long) row[0], row[1], row[2]));
+        }
+    }
+
+    public List<String> getPhaseLines() {
+        return phaseLines;
+    }
+
+    public List<String> getMemoryLines() {
+        return memoryLines;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.master.partition;
+
+import com.example.common.EdgeList;
+
+// 度感知顶点切分（DBH）：每条边按度数较小端点的哈希分配，高度数顶点被复制而低度数顶点尽量不被切分；
+// 顶点主副本按 v % numWorkers。仅用于评估复制因子，不能直接下发给按源顶点存边的 worker
+public class DegreeVertexCutPartitioner implements Partitioner {
+
+    @Override
+    public String getName() {
+        return "dbh";
+    }
+
+    @Override
+    public boolean isVertexCut() {
+        return true;
+    }
+
+    @Override
+    public PartitionPlan partition(EdgeList edges, int numNodes, int numWorkers) {
+        int m = edges.size();
+        int[] degree = new int[numNodes];
+        for (int e = 0; e < m; e++) {
+            degree[edges.source(e)]++;
+            degree[edges.target(e)]++;
+        }
+        int[] owner = new int[numNodes];
+        for (int v = 0; v < numNodes; v++) owner[v] = Math.floorMod(v, numWorkers);
+        int[] edgeOwner = new int[m];
+        for (int e = 0; e < m; e++) {
+            int u = edges.source(e);
+            int v = edges.target(e);
+            edgeOwner[e] = owner[degree[v] < degree[u] ? v : u];
+        }
+        return new PartitionPlan(numWorkers, owner, edgeOwner);
+    }
+}
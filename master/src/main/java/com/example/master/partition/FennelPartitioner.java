@@ -0,0 +1,25 @@
+package com.example.master.partition;
+
+// Fennel：邻居数减去随分区大小超线性增长的代价 alpha * gamma * |P|^(gamma-1)，
+// gamma = 1.5，alpha = sqrt(k) * m / n^1.5
+public class FennelPartitioner extends StreamingPartitioner {
+
+    private static final double GAMMA = 1.5;
+
+    private double alpha;
+
+    @Override
+    public String getName() {
+        return "fennel";
+    }
+
+    @Override
+    void prepare(int numNodes, long edges, int numWorkers) {
+        alpha = Math.sqrt(numWorkers) * edges / Math.pow(Math.max(1, numNodes), GAMMA);
+    }
+
+    @Override
+    double score(int neighbours, long load, double capacity) {
+        return neighbours - alpha * GAMMA * Math.pow(load, GAMMA - 1);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.master.partition;
+
+import com.example.common.EdgeList;
+
+// 取模划分（原有行为）：owner = v % numWorkers，负载均匀但几乎不保留局部性
+public class HashPartitioner implements Partitioner {
+
+    @Override
+    public String getName() {
+        return "hash";
+    }
+
+    @Override
+    public PartitionPlan partition(EdgeList edges, int numNodes, int numWorkers) {
+        int[] owner = new int[numNodes];
+        for (int v = 0; v < numNodes; v++) owner[v] = Math.floorMod(v, numWorkers);
+        return new PartitionPlan(numWorkers, owner, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.master.partition;
+
+// 线性确定性贪心（LDG）：邻居数按分区剩余容量比例加权
+public class LDGPartitioner extends StreamingPartitioner {
+
+    @Override
+    public String getName() {
+        return "ldg";
+    }
+
+    @Override
+    double score(int neighbours, long load, double capacity) {
+        return neighbours * (1.0 - load / capacity);
+    }
+}
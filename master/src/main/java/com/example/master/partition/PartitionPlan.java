@@ -0,0 +1,36 @@
+package com.example.master.partition;
+
+import com.example.common.EdgeList;
+
+// 划分结果：owner[v] 为顶点所属 worker；边切分下边随源顶点存放，顶点切分下 edgeOwner[e] 给出边所在 worker
+public class PartitionPlan {
+
+    public final int numWorkers;
+    public final int[] owner;
+    public final int[] edgeOwner;
+
+    public PartitionPlan(int numWorkers, int[] owner, int[] edgeOwner) {
+        this.numWorkers = numWorkers;
+        this.owner = owner;
+        this.edgeOwner = edgeOwner;
+    }
+
+    public int workerOf(EdgeList edges, int e) {
+        return edgeOwner != null ? edgeOwner[e] : owner[edges.source(e)];
+    }
+
+    // --- 按 worker 分组的边下标（计数排序，组内保持原顺序） ---
+    public int[][] edgesByWorker(EdgeList edges) {
+        int m = edges.size();
+        int[] counts = new int[numWorkers];
+        for (int e = 0; e < m; e++) counts[workerOf(edges, e)]++;
+        int[][] groups = new int[numWorkers][];
+        for (int w = 0; w < numWorkers; w++) groups[w] = new int[counts[w]];
+        int[] fill = new int[numWorkers];
+        for (int e = 0; e < m; e++) {
+            int w = workerOf(edges, e);
+            groups[w][fill[w]++] = e;
+        }
+        return groups;
+    }
+}
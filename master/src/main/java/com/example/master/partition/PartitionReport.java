@@ -0,0 +1,98 @@
+package com.example.master.partition;
+
+import com.example.common.EdgeList;
+
+import java.util.Locale;
+
+// 划分质量：边切比例（端点属于不同 worker 的边占比）、复制因子（每个顶点平均出现在几个 worker 上，
+// 含远端边引入的镜像）以及各 worker 边数 / 顶点数相对均值的最大倍数
+public class PartitionReport {
+
+    public final String partitioner;
+    public final int numWorkers;
+    public final double edgeCutRatio;
+    public final double replicationFactor;
+    public final double edgeImbalance;
+    public final double vertexImbalance;
+    public final long[] edgesPerWorker;
+    public final long[] verticesPerWorker;
+    public final long millis;
+
+    private PartitionReport(String partitioner, int numWorkers, double edgeCutRatio, double replicationFactor,
+                            long[] edgesPerWorker, long[] verticesPerWorker, long millis) {
+        this.partitioner = partitioner;
+        this.numWorkers = numWorkers;
+        this.edgeCutRatio = edgeCutRatio;
+        this.replicationFactor = replicationFactor;
+        this.edgesPerWorker = edgesPerWorker;
+        this.verticesPerWorker = verticesPerWorker;
+        this.edgeImbalance = imbalance(edgesPerWorker);
+        this.vertexImbalance = imbalance(verticesPerWorker);
+        this.millis = millis;
+    }
+
+    // --- 顶点在各 worker 的出现情况用位掩码记录（worker 数 <= 64），超出时只统计主副本 ---
+    public static PartitionReport evaluate(String partitioner, EdgeList edges, PartitionPlan plan, long millis) {
+        int k = plan.numWorkers;
+        int n = plan.owner.length;
+        int m = edges.size();
+        long[] edgesPer = new long[k];
+        long[] verticesPer = new long[k];
+        long[] present = k <= 64 ? new long[n] : null;
+        for (int v = 0; v < n; v++) {
+            verticesPer[plan.owner[v]]++;
+            if (present != null) present[v] = 1L << plan.owner[v];
+        }
+        long cut = 0;
+        for (int e = 0; e < m; e++) {
+            int u = edges.source(e);
+            int v = edges.target(e);
+            int w = plan.workerOf(edges, e);
+            edgesPer[w]++;
+            if (plan.owner[u] != plan.owner[v]) cut++;
+            if (present != null) {
+                present[u] |= 1L << w;
+                present[v] |= 1L << w;
+            }
+        }
+        long replicas = n;
+        if (present != null) {
+            replicas = 0;
+            for (int v = 0; v < n; v++) replicas += Long.bitCount(present[v]);
+        }
+        return new PartitionReport(partitioner, k, m == 0 ? 0.0 : (double) cut / m,
+                n == 0 ? 1.0 : (double) replicas / n, edgesPer, verticesPer, millis);
+    }
+
+    public static PartitionReport run(Partitioner partitioner, EdgeList edges, int numNodes, int numWorkers) {
+        long t0 = System.nanoTime();
+        PartitionPlan plan = partitioner.partition(edges, numNodes, numWorkers);
+        long millis = (System.nanoTime() - t0) / 1_000_000;
+        return evaluate(partitioner.getName(), edges, plan, millis);
+    }
+
+    private static double imbalance(long[] perWorker) {
+        long max = 0;
+        long total = 0;
+        for (long c : perWorker) {
+            max = Math.max(max, c);
+            total += c;
+        }
+        return total == 0 ? 1.0 : (double) max * perWorker.length / total;
+    }
+
+    public static String csvHeader() {
+        return "partitioner,workers,nodes,edges,edge_cut_ratio,replication_factor,edge_imbalance,vertex_imbalance,partition_ms";
+    }
+
+    public String toCsv(int nodes, long edges) {
+        return String.format(Locale.US, "%s,%d,%d,%d,%.4f,%.4f,%.4f,%.4f,%d", partitioner, numWorkers, nodes, edges,
+                edgeCutRatio, replicationFactor, edgeImbalance, vertexImbalance, millis);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s: edge cut %.2f%%, replication %.3f, edge imbalance %.3f, vertex imbalance %.3f (%d ms)",
+                partitioner, 100 * edgeCutRatio, replicationFactor, edgeImbalance, vertexImbalance, millis);
+    }
+}
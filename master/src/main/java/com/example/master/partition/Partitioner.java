@@ -0,0 +1,35 @@
+package com.example.master.partition;
+
+import com.example.common.EdgeList;
+
+import java.util.Locale;
+
+// 图划分策略：在边发往 worker 之前，根据全局边表为顶点（以及顶点切分策略下的边）分配 worker
+public interface Partitioner {
+
+    String getName();
+
+    // --- 顶点切分策略只用于评估，当前 worker 模型要求出边与源顶点同处一个分区 ---
+    default boolean isVertexCut() {
+        return false;
+    }
+
+    // --- 节点 ID 取值 0..numNodes-1 ---
+    PartitionPlan partition(EdgeList edges, int numNodes, int numWorkers);
+
+    static Partitioner byName(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "hash" -> new HashPartitioner();
+            case "range" -> new RangePartitioner();
+            case "ldg" -> new LDGPartitioner();
+            case "fennel" -> new FennelPartitioner();
+            case "dbh", "vertex-cut" -> new DegreeVertexCutPartitioner();
+            default -> throw new IllegalArgumentException("Unknown partitioner " + name);
+        };
+    }
+
+    static Partitioner[] all() {
+        return new Partitioner[]{new HashPartitioner(), new RangePartitioner(), new LDGPartitioner(),
+                new FennelPartitioner(), new DegreeVertexCutPartitioner()};
+    }
+}
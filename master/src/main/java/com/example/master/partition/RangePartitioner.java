@@ -0,0 +1,19 @@
+package com.example.master.partition;
+
+import com.example.common.EdgeList;
+
+// 连续区间划分：ID 相邻的顶点落在同一 worker，适合 ID 本身带局部性的图
+public class RangePartitioner implements Partitioner {
+
+    @Override
+    public String getName() {
+        return "range";
+    }
+
+    @Override
+    public PartitionPlan partition(EdgeList edges, int numNodes, int numWorkers) {
+        int[] owner = new int[numNodes];
+        for (int v = 0; v < numNodes; v++) owner[v] = (int) ((long) v * numWorkers / numNodes);
+        return new PartitionPlan(numWorkers, owner, null);
+    }
+}
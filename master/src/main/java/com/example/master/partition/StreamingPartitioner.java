@@ -0,0 +1,69 @@
+package com.example.master.partition;
+
+import com.example.common.EdgeList;
+
+import java.util.Arrays;
+
+// 流式顶点划分的公共部分：按 ID 顺序逐个到达顶点，统计已放置邻居在各分区的个数，
+// 按子类的打分放入得分最高的未满分区（同分取当前顶点数最少者）；边按无向处理，自环忽略
+abstract class StreamingPartitioner implements Partitioner {
+
+    // 每个分区容量上限 = SLACK * numNodes / numWorkers
+    static final double SLACK = 1.1;
+
+    @Override
+    public PartitionPlan partition(EdgeList edges, int numNodes, int numWorkers) {
+        int[] index = new int[numNodes + 1];
+        int m = edges.size();
+        for (int e = 0; e < m; e++) {
+            int u = edges.source(e);
+            int v = edges.target(e);
+            if (u == v) continue;
+            index[u + 1]++;
+            index[v + 1]++;
+        }
+        for (int v = 0; v < numNodes; v++) index[v + 1] += index[v];
+        int[] adj = new int[index[numNodes]];
+        int[] fill = Arrays.copyOf(index, numNodes);
+        for (int e = 0; e < m; e++) {
+            int u = edges.source(e);
+            int v = edges.target(e);
+            if (u == v) continue;
+            adj[fill[u]++] = v;
+            adj[fill[v]++] = u;
+        }
+
+        int[] owner = new int[numNodes];
+        Arrays.fill(owner, -1);
+        long[] load = new long[numWorkers];
+        int[] hits = new int[numWorkers];
+        double capacity = Math.ceil(SLACK * numNodes / numWorkers);
+        prepare(numNodes, index[numNodes] / 2L, numWorkers);
+
+        for (int v = 0; v < numNodes; v++) {
+            for (int j = index[v]; j < index[v + 1]; j++) {
+                int o = owner[adj[j]];
+                if (o >= 0) hits[o]++;
+            }
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int p = 0; p < numWorkers; p++) {
+                if (load[p] >= capacity) continue;
+                double s = score(hits[p], load[p], capacity);
+                if (s > bestScore || (s == bestScore && load[p] < load[best])) {
+                    best = p;
+                    bestScore = s;
+                }
+            }
+            owner[v] = best;
+            load[best]++;
+            Arrays.fill(hits, 0);
+        }
+        return new PartitionPlan(numWorkers, owner, null);
+    }
+
+    // --- 打分前按图规模初始化参数；edges 为无向非自环边数 ---
+    void prepare(int numNodes, long edges, int numWorkers) {}
+
+    abstract double score(int neighbours, long load, double capacity);
+}
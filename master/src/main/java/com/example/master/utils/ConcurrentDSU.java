@@ -0,0 +1,64 @@
+package com.example.master.utils;
+
+import com.example.common.ComponentLabels;
+import com.example.common.ConcurrentUnionFind;
+import com.example.common.IntIntHashMap;
+
+import java.util.Arrays;
+
+// 无锁并查集：节点集合在构造时确定（ID 表只读），多线程可同时 union，父指针用 CAS 更新
+public class ConcurrentDSU {
+
+    private final int[] ids;
+    private final IntIntHashMap index;
+    private final ConcurrentUnionFind uf;
+
+    public ConcurrentDSU(int[] nodeIds) {
+        this.index = new IntIntHashMap(nodeIds.length);
+        int[] distinct = new int[nodeIds.length];
+        int count = 0;
+        for (int id : nodeIds) {
+            if (index.putIfAbsent(id, count) < 0) distinct[count++] = id;
+        }
+        this.ids = Arrays.copyOf(distinct, count);
+        this.uf = new ConcurrentUnionFind(count);
+    }
+
+    private int indexOf(int x) {
+        int i = index.get(x);
+        if (i < 0) throw new IllegalArgumentException("Unknown node " + x);
+        return i;
+    }
+
+    public int find(int x) {
+        return ids[uf.find(indexOf(x))];
+    }
+
+    // --- 线程安全的合并；仅当本次调用连接了两个不同集合时返回 true ---
+    public boolean union(int x, int y) {
+        return uf.union(indexOf(x), indexOf(y));
+    }
+
+    public int nodeCount() {
+        return ids.length;
+    }
+
+    public int[] nodeIds() {
+        return ids.clone();
+    }
+
+    // --- 在所有 union 完成后调用 ---
+    public ComponentLabels labels() {
+        int n = ids.length;
+        int[] label = new int[n];
+        int[] rootLabel = new int[n];
+        Arrays.fill(rootLabel, -1);
+        int next = 0;
+        for (int i = 0; i < n; i++) {
+            int r = uf.find(i);
+            if (rootLabel[r] < 0) rootLabel[r] = next++;
+            label[i] = rootLabel[r];
+        }
+        return new ComponentLabels(label, next);
+    }
+}
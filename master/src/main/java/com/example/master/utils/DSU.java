@@ -1,34 +1,108 @@
 package com.example.master.utils;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import com.example.common.ComponentLabels;
+import com.example.common.IntIntHashMap;
 
+import java.util.Arrays;
+
+// 并查集：节点 ID 重映射为稠密下标，数组存放父节点与集合大小；迭代路径减半 + 按大小合并
 public class DSU {
-    private final Map<Integer, Integer> parent = new HashMap<>();
 
+    private final IntIntHashMap index;
+    private int[] ids;
+    private int[] parent;
+    private int[] size;
+    private int count;
+    private int sets;
+
+    public DSU() {
+        this(16);
+    }
+
+    public DSU(int expectedNodes) {
+        int cap = Math.max(16, expectedNodes);
+        this.index = new IntIntHashMap(cap);
+        this.ids = new int[cap];
+        this.parent = new int[cap];
+        this.size = new int[cap];
+    }
+
+    // --- 节点 ID -> 稠密下标，首次出现时建立单元素集合 ---
+    private int indexOf(int x) {
+        int i = index.putIfAbsent(x, count);
+        if (i >= 0) return i;
+        if (count == ids.length) {
+            int cap = ids.length * 2;
+            ids = Arrays.copyOf(ids, cap);
+            parent = Arrays.copyOf(parent, cap);
+            size = Arrays.copyOf(size, cap);
+        }
+        ids[count] = x;
+        parent[count] = count;
+        size[count] = 1;
+        sets++;
+        return count++;
+    }
+
+    private int root(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // --- 返回根节点 ID ---
     public int find(int x) {
-        parent.putIfAbsent(x, x);
-        if (x != parent.get(x)) {
-            parent.put(x, find(parent.get(x)));
+        int r = root(indexOf(x));   // 先建下标再取数组：indexOf 可能扩容
+        return ids[r];
+    }
+
+    // --- 合并；两者原本不在同一集合时返回 true ---
+    public boolean union(int x, int y) {
+        int a = root(indexOf(x));
+        int b = root(indexOf(y));
+        if (a == b) return false;
+        if (size[a] < size[b]) {
+            int t = a;
+            a = b;
+            b = t;
         }
-        return parent.get(x);
+        parent[b] = a;
+        size[a] += size[b];
+        sets--;
+        return true;
+    }
+
+    public int componentSize(int x) {
+        int r = root(indexOf(x));
+        return size[r];
+    }
+
+    public int nodeCount() {
+        return count;
+    }
+
+    public int setCount() {
+        return sets;
     }
 
-    public void union(int x, int y) {
-        parent.putIfAbsent(x, x);
-        parent.putIfAbsent(y, y);
-        int rootX = find(x), rootY = find(y);
-        if (rootX != rootY) parent.put(rootX, rootY);
+    // --- 稠密下标对应的节点 ID，与 labels() 下标一致 ---
+    public int[] nodeIds() {
+        return Arrays.copyOf(ids, count);
     }
 
-    public Map<Integer, Set<Integer>> getComponents() {
-        Map<Integer, Set<Integer>> comps = new HashMap<>();
-        for (int node : parent.keySet()) {
-            int root = find(node);
-            comps.computeIfAbsent(root, k -> new HashSet<>()).add(node);
+    // --- 紧凑分量标号：按稠密下标给出 0..sets-1 的分量编号及各分量大小 ---
+    public ComponentLabels labels() {
+        int[] label = new int[count];
+        int[] rootLabel = new int[count];
+        Arrays.fill(rootLabel, -1);
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            int r = root(i);
+            if (rootLabel[r] < 0) rootLabel[r] = next++;
+            label[i] = rootLabel[r];
         }
-        return comps;
+        return new ComponentLabels(label, next);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.example.master.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 流式上传：请求体 writer 中途失败时请求必须失败，不能把截断的请求体当作完整上传
+class WorkerClientTest {
+
+    private HttpServer server;
+    private WorkerClient client;
+    private String url;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/upload", exchange -> {
+            long received;
+            try (InputStream in = exchange.getRequestBody()) {
+                received = in.transferTo(OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                exchange.close();
+                return;
+            }
+            byte[] reply = Long.toString(received).getBytes();
+            exchange.sendResponseHeaders(200, reply.length);
+            exchange.getResponseBody().write(reply);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/upload";
+        client = new WorkerClient(Duration.ofSeconds(10), 0);
+    }
+
+    @AfterEach
+    void stop() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void completeBodyIsUploaded() throws Exception {
+        String reply = client.postStream(url, out -> out.write(new byte[100_000])).get();
+        assertEquals("100000", reply);
+    }
+
+    @Test
+    void writerFailureFailsTheRequest() {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> client.postStream(url, out -> {
+            out.write(new byte[100_000]);
+            throw new IOException("source went away");
+        }).get());
+        Throwable cause = e;
+        boolean found = false;
+        while (cause != null) {
+            if ("source went away".equals(cause.getMessage())) found = true;
+            cause = cause.getCause();
+        }
+        assertTrue(found, "writer failure should be the cause: " + e);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.worker;
+
+import com.example.common.BinaryCodec;
+import com.example.common.ComputeScheduler;
+import com.example.common.Graph;
+import com.example.common.OwnerMap;
+import com.example.common.PartitionedBFS;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// 分布式 BFS 的 worker 端会话：扩展本地前沿，并把远端前沿顶点按所属 worker 批量发送
+class DistributedBFSSession {
+
+    private final PartitionedBFS state;
+    private final List<String> workers;
+    private final int self;
+    private final RestTemplate rest = new RestTemplate();
+    private final ExecutorService sender;
+
+    DistributedBFSSession(Graph graph, List<String> workers, int self, OwnerMap owners, boolean directionOptimizing) {
+        this.workers = workers;
+        this.self = self;
+        this.state = graph.partitionedBFS(owners, self, directionOptimizing);
+        this.sender = Executors.newFixedThreadPool(Math.max(1, Math.min(workers.size() - 1, 8)));
+    }
+
+    PartitionedBFS getState() {
+        return state;
+    }
+
+    // --- 超步：扩展一层后把远端候选 ID 发给各目标 worker ---
+    Map<String, Object> step() throws ExecutionException, InterruptedException {
+        long t0 = System.nanoTime();
+        try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("dbfs_step")) {
+            state.expand(job);
+        }
+        long t1 = System.nanoTime();
+
+        List<Future<Integer>> futures = new ArrayList<>();
+        long remote = 0;
+        for (int w = 0; w < workers.size(); w++) {
+            if (w == self) continue;
+            int[] ids = state.outboundIds(w);
+            if (ids == null) continue;
+            remote += ids.length;
+            final int target = w;
+            futures.add(sender.submit(() -> {
+                byte[] body = BinaryCodec.encodeInts(ids);
+                rest.postForEntity(workers.get(target) + "/dbfs/inbox?from=" + self, body, String.class);
+                return body.length;
+            }));
+        }
+        long bytes = 0;
+        for (Future<Integer> f : futures) bytes += f.get();
+        long t2 = System.nanoTime();
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("remoteVertices", remote);
+        info.put("messages", futures.size());
+        info.put("bytes", bytes);
+        info.put("computeMillis", (t1 - t0) / 1_000_000.0);
+        info.put("sendMillis", (t2 - t1) / 1_000_000.0);
+        return info;
+    }
+
+    void close() {
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.worker;
+
+import com.example.common.BinaryCodec;
+import com.example.common.ComputeScheduler;
+import com.example.common.Graph;
+import com.example.common.OwnerMap;
+import com.example.common.PartitionedPageRank;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// 分布式 PageRank 的 worker 端会话：持有本分区状态，负责与其他 worker 交换二进制批量消息
+class DistributedPageRankSession {
+
+    private final PartitionedPageRank state;
+    private final List<String> workers;
+    private final int self;
+    private final RestTemplate rest = new RestTemplate();
+    private final ExecutorService sender;
+
+    DistributedPageRankSession(Graph graph, List<String> workers, int self, OwnerMap owners) {
+        this.workers = workers;
+        this.self = self;
+        this.state = graph.partitionedPageRank(owners, self);
+        this.sender = Executors.newFixedThreadPool(Math.max(1, Math.min(workers.size() - 1, 8)));
+    }
+
+    PartitionedPageRank getState() {
+        return state;
+    }
+
+    // --- 向每个目标 worker 注册槽位 ID，并按返回结果丢弃不存在的目标 ---
+    Map<String, Object> connect() throws ExecutionException, InterruptedException {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < workers.size(); w++) {
+            if (w == self) continue;
+            int[] ids = state.slotIdsFor(w);
+            if (ids.length == 0) continue;
+            final int target = w;
+            futures.add(sender.submit(() -> {
+                byte[] flags = rest.postForObject(workers.get(target) + "/dpr/register?from=" + self,
+                        BinaryCodec.encodeInts(ids), byte[].class);
+                boolean[] exists = new boolean[ids.length];
+                for (int i = 0; i < ids.length; i++) exists[i] = flags != null && flags[i] != 0;
+                synchronized (state) {
+                    state.dropSlots(target, exists);
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("localVertices", state.getLocalVertexCount());
+        info.put("droppedEdges", state.getDroppedEdges());
+        return info;
+    }
+
+    // --- 超步：本地计算后把远端槽位值批量发给各目标 worker ---
+    Map<String, Object> step() throws ExecutionException, InterruptedException {
+        long t0 = System.nanoTime();
+        double dangling;
+        try (ComputeScheduler.Job job = ComputeScheduler.shared().openJob("dpr_step")) {
+            dangling = state.step(job);
+        }
+        long t1 = System.nanoTime();
+
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int w = 0; w < workers.size(); w++) {
+            if (w == self) continue;
+            double[] values = state.outboundValues(w);
+            if (values == null) continue;
+            final int target = w;
+            futures.add(sender.submit(() -> {
+                byte[] body = BinaryCodec.encodeDoubles(values, 0, values.length);
+                rest.postForEntity(workers.get(target) + "/dpr/inbox?from=" + self, body, String.class);
+                return body.length;
+            }));
+        }
+        long bytes = 0;
+        for (Future<Integer> f : futures) bytes += f.get();
+        long t2 = System.nanoTime();
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("dangling", dangling);
+        info.put("messages", futures.size());
+        info.put("bytes", bytes);
+        info.put("computeMillis", (t1 - t0) / 1_000_000.0);
+        info.put("sendMillis", (t2 - t1) / 1_000_000.0);
+        return info;
+    }
+
+    void close() {
+        sender.shutdown();
+    }
+}
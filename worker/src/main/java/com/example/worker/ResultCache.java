@@ -0,0 +1,122 @@
+package com.example.worker;
+
+import com.example.common.ComponentLabels;
+import com.example.common.PageRankResult;
+import com.example.common.ShortestPathResult;
+import com.example.common.SpanningForest;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+// 算法结果缓存：键为 (图版本, 算法, 参数)，值为原始数组形式的结果对象；按估算字节数做 LRU 淘汰。
+// 图版本只增不减，出现更新的版本时旧版本条目全部丢弃；计算在锁外进行，并发未命中可能重复计算同一键
+class ResultCache {
+
+    private final long maxBytes;
+    private final Listener listener;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long version = -1;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record Entry(Object value, long bytes, String algorithm) {
+    }
+
+    interface Listener {
+        void lookup(String algorithm, boolean hit);
+    }
+
+    ResultCache(long maxBytes, Listener listener) {
+        this.maxBytes = maxBytes;
+        this.listener = listener;
+    }
+
+    // --- 命中直接返回；未命中时计算并按 size 估算的字节数放入（超过总上限的结果不缓存） ---
+    @SuppressWarnings("unchecked")
+    <T> T get(long graphVersion, String algorithm, String params, ToLongFunction<T> size, Supplier<T> compute) {
+        String key = algorithm + '|' + params;
+        synchronized (this) {
+            advance(graphVersion);
+            Entry e = graphVersion == version ? entries.get(key) : null;
+            if (e != null) hits++;
+            else misses++;
+            listener.lookup(algorithm, e != null);
+            if (e != null) return (T) e.value;
+        }
+        T value = compute.get();
+        long b = size.applyAsLong(value) + 64L + 2L * key.length();
+        synchronized (this) {
+            advance(graphVersion);
+            if (graphVersion != version || b > maxBytes) return value;
+            Entry old = entries.put(key, new Entry(value, b, algorithm));
+            if (old != null) bytes -= old.bytes;
+            bytes += b;
+            Iterator<Entry> it = entries.values().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                bytes -= it.next().bytes;
+                it.remove();
+                evictions++;
+            }
+        }
+        return value;
+    }
+
+    private void advance(long graphVersion) {
+        if (graphVersion <= version) return;
+        invalidate();
+        version = graphVersion;
+    }
+
+    // --- 加载、构建、清空时整体失效（版本号之外再主动释放内存） ---
+    synchronized void invalidate() {
+        evictions += entries.size();
+        entries.clear();
+        bytes = 0;
+    }
+
+    synchronized long getBytes() {
+        return bytes;
+    }
+
+    synchronized int getEntries() {
+        return entries.size();
+    }
+
+    synchronized Map<String, Object> stats() {
+        Map<String, Long> perAlgorithm = new LinkedHashMap<>();
+        for (Entry e : entries.values()) perAlgorithm.merge(e.algorithm, e.bytes, Long::sum);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("version", version);
+        out.put("entries", entries.size());
+        out.put("bytes", bytes);
+        out.put("maxBytes", maxBytes);
+        out.put("hits", hits);
+        out.put("misses", misses);
+        out.put("evictions", evictions);
+        out.put("bytesByAlgorithm", perAlgorithm);
+        return out;
+    }
+
+    // ---------- 结果对象的估算字节数（数组负载，不含对象头） ----------
+
+    static long bytes(ComponentLabels c) {
+        return 4L * c.label.length + 4L * c.sizes.length;
+    }
+
+    static long bytes(PageRankResult r) {
+        return 8L * r.rank.length + bytes(r.components);
+    }
+
+    static long bytes(ShortestPathResult r) {
+        return 8L * r.distance.length;
+    }
+
+    static long bytes(SpanningForest f) {
+        return 4L * f.source.length + 4L * f.target.length + 8L * f.weight.length;
+    }
+}
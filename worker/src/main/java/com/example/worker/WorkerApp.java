@@ -1,52 +1,327 @@
 package com.example.worker;
 
+import com.example.common.BFSResult;
+import com.example.common.BinaryCodec;
+import com.example.common.ComponentLabels;
+import com.example.common.CompressedBitmap;
+import com.example.common.ComputeScheduler;
+import com.example.common.CsvWriter;
+import com.example.common.EdgeStreamCodec;
 import com.example.common.Graph;
+import com.example.common.LandmarkIndex;
+import com.example.common.MultiSourceBFSResult;
+import com.example.common.OwnerMap;
+import com.example.common.PageRankResult;
+import com.example.common.PartitionedComponents;
+import com.example.common.PathQueryResult;
+import com.example.common.ShortestPathResult;
+import com.example.common.SpanningForest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 @RestController
 @SpringBootApplication
 public class WorkerApp {
 
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+    private static final Logger log = LoggerFactory.getLogger(WorkerApp.class);
+
     private final Graph graph = new Graph();
+    private volatile DistributedPageRankSession prSession;
+    private volatile DistributedBFSSession bfsSession;
+    private volatile PartitionedComponents ccState;
+    private volatile OwnerMap ownerTable;   // 主控下发的顶点归属表，未下发时按取模
+    private final WorkerMetrics metrics;
+    private final RestTemplate peers = new RestTemplate();     // worker 之间的直接调用（线程安全，共用连接）
+    private ResultCache cache;
 
     @Value("${server.port}")
     private String serverPort;
 
+    // 计算线程池并行度，<= 0 时使用 CPU 核数
+    @Value("${graph.compute.parallelism:0}")
+    private int computeParallelism;
+
+    // 增量层累计到该操作数时在后台合并进 CSR
+    @Value("${graph.delta.compactThreshold:65536}")
+    private long compactThreshold;
+
+    // 算法调用前是否同步合并未合并的增量：false（默认）时算法在已合并的 CSR 上运行并在后台触发合并，
+    // 更新后的第一次查询可能看不到最近的写入；true 时读到最新写入，但每次有增量后的读都要等一次 O(n + m) 的合并
+    @Value("${graph.delta.compactOnRead:false}")
+    private boolean compactOnRead;
+
+    // 算法结果缓存上限（估算字节数）
+    @Value("${graph.cache.maxBytes:67108864}")
+    private long cacheMaxBytes;
+
+    // 点对点查询的 ALT 地标数（0 表示不建地标表）：finalize 与打开快照时立即构建，增量合并与重排后在后台重建
+    @Value("${graph.landmarks.count:0}")
+    private int landmarkCount;
+
+    // 地标选点的随机种子，同一张图上选出的地标与查询统计可复现
+    @Value("${graph.landmarks.seed:1}")
+    private long landmarkSeed;
+
+    // finalize 时对 CSR 下标施加的顶点重排（none / degree / hub / rcm）
+    @Value("${graph.csr.ordering:none}")
+    private String vertexOrdering;
+
+    // 启动时自动打开的 CSR 快照（为空则不打开）
+    @Value("${graph.snapshot.path:}")
+    private String snapshotPath;
+
+    public WorkerApp(MeterRegistry registry) {
+        this.metrics = new WorkerMetrics(registry, graph);
+    }
+
     public static void main(String[] args) {
         SpringApplication.run(WorkerApp.class, args);
     }
 
+    @PostConstruct
+    public void initComputeScheduler() {
+        ComputeScheduler.configure(computeParallelism);
+        graph.setCompactionThreshold(compactThreshold);
+        graph.setCompactOnRead(compactOnRead);
+        graph.setVertexOrdering(vertexOrdering);
+        graph.setLandmarks(landmarkCount, landmarkSeed);
+    }
+
+    @PostConstruct
+    public void initResultCache() {
+        cache = new ResultCache(cacheMaxBytes, metrics::cacheLookup);
+        metrics.registerCache(cache);
+    }
+
+    @PostConstruct
+    public void openSnapshotOnStartup() throws IOException {
+        if (snapshotPath.isBlank() || !Files.exists(Path.of(snapshotPath))) return;
+        metrics.timeIO(WorkerMetrics.IO, "snapshot_open", () -> {
+            graph.openSnapshot(Path.of(snapshotPath));
+            return null;
+        });
+        log.debug("Opened snapshot {}: {} nodes, {} edges. {}", snapshotPath, graph.getNodeCount(),
+                graph.getEdgeCount(), prepareConfiguredLandmarks());
+    }
+
+    @GetMapping("/compute_stats")
+    public ResponseEntity<Map<String, Number>> computeStats() {
+        return ResponseEntity.ok(ComputeScheduler.shared().metrics());
+    }
+
+    // --- 各阶段计时器累计值（调用次数、总毫秒）与 CSR 内存、边数，主控每轮抓取后做差 ---
+    @GetMapping("/metrics/phases")
+    public ResponseEntity<Map<String, Object>> phaseMetrics() {
+        return ResponseEntity.ok(metrics.snapshot());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(cache.stats());
+    }
+
     // ---------- 图加载与初始化 ----------
 
     @PostMapping("/load")
     public ResponseEntity<String> loadGraph(@RequestBody List<int[]> edges) {
+        cache.invalidate();
         for (int[] edge : edges) graph.addEdge(edge[0], edge[1]);
         return ResponseEntity.ok("Edges loaded.");
     }
 
+    // --- 二进制流式加载：边在到达时直接解析进原始缓冲，不经过 JSON 与装箱 ---
+    @PostMapping(value = "/load_stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<String> loadGraphStream(InputStream body) throws IOException {
+        cache.invalidate();
+        long t0 = System.nanoTime();
+        long edges = metrics.timeIO(WorkerMetrics.DESERIALIZE, "load",
+                () -> EdgeStreamCodec.read(body, graph::addEdges));
+        double seconds = Math.max(1e-9, (System.nanoTime() - t0) / 1e9);
+        return ResponseEntity.ok(String.format(Locale.US,
+                "Streamed %d edges in %.1f ms (%.0f edges/s).", edges, seconds * 1000, edges / seconds));
+    }
+
     @PostMapping("/finalize")
     public ResponseEntity<String> finalizeGraph() {
-        graph.buildCSR();
-        return ResponseEntity.ok("CSR structure built.");
+        cache.invalidate();
+        metrics.timer(WorkerMetrics.BUILD_CSR, "load").record(graph::buildCSR);
+        return ResponseEntity.ok(String.format(Locale.US,
+                "CSR structure built: %d nodes, %d edges in %d ms, peak %.1f MB. %s",
+                graph.getNodeCount(), graph.getEdgeCount(), graph.getBuildMillis(),
+                graph.getBuildPeakBytes() / (1024.0 * 1024.0), prepareConfiguredLandmarks()).trim());
+    }
+
+    // --- 配置了地标数时（启动配置或最近一次 POST /landmarks）为新 CSR 立即建表，第一批点对点查询即可用 ALT ---
+    private String prepareConfiguredLandmarks() {
+        int count = graph.getLandmarkCount();
+        return count > 0 ? prepareLandmarks(count) : "";
+    }
+
+    // --- 立即构建 ALT 地标表（点对点查询用）；负权图上无法建表，只返回提示 ---
+    private String prepareLandmarks(int count) {
+        try {
+            metrics.timer(WorkerMetrics.BUILD_CSR, "landmarks")
+                    .record(() -> graph.prepareLandmarks(count, landmarkSeed));
+        } catch (IllegalArgumentException e) {
+            return "Landmarks disabled: " + e.getMessage() + ".";
+        }
+        LandmarkIndex lm = graph.getLandmarks();
+        return lm == null ? "No landmarks." : String.format(Locale.US, "%d landmarks in %d ms (%.1f MB).",
+                lm.size(), lm.getBuildMillis(), lm.memoryBytes() / (1024.0 * 1024.0));
+    }
+
+    @PostMapping("/landmarks")
+    public ResponseEntity<String> rebuildLandmarks(@RequestParam(defaultValue = "8") int count) {
+        return ResponseEntity.ok(prepareLandmarks(count));
+    }
+
+    // --- 对已构建的 CSR 重新排列顶点下标（真实 ID 不变）；下标全部改变，结果缓存清空，地标表在后台重建 ---
+    @PostMapping("/reorder")
+    public ResponseEntity<String> reorder(@RequestParam String ordering) {
+        cache.invalidate();
+        metrics.timer(WorkerMetrics.BUILD_CSR, "reorder").record(() -> graph.reorder(ordering));
+        return ResponseEntity.ok(String.format(Locale.US,
+                "Reordered %d nodes by %s in %d ms, average edge span %.1f.",
+                graph.getNodeCount(), graph.getVertexOrdering(), graph.getReorderMillis(), graph.getAverageEdgeSpan()));
+    }
+
+    // --- 主控按非取模策略划分时下发归属表：owners[nodeId] = worker 编号（二进制 int） ---
+    @PostMapping(value = "/partition/owners", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<String> setOwners(@RequestParam int workers, @RequestBody byte[] body) {
+        ownerTable = OwnerMap.table(workers, BinaryCodec.decodeInts(body));
+        return ResponseEntity.ok("Owner table installed for " + workers + " workers.");
+    }
+
+    private OwnerMap owners(int numWorkers) {
+        OwnerMap table = ownerTable;
+        return table != null && table.getNumWorkers() == numWorkers ? table : OwnerMap.modulo(numWorkers);
+    }
+
+    // ---------- 增量更新（CSR 构建后按批插入 / 删除，不重建；达到阈值或下一次算法调用时在后台合并） ----------
+
+    // --- 二进制边流（与 /load_stream 相同格式）；耗时只与批大小有关。
+    //     默认合并前的算法结果不含本批更新，需要立即可见时调用 /compact（或配置 graph.delta.compactOnRead） ---
+    @PostMapping(value = "/edges/insert", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<String> insertEdges(InputStream body) throws IOException {
+        long edges = metrics.timeIO(WorkerMetrics.DESERIALIZE, "update",
+                () -> EdgeStreamCodec.read(body, graph::insertEdges));
+        return ResponseEntity.ok(String.format(Locale.US, "Inserted %d edges (%d pending updates, version %d).",
+                edges, graph.getPendingUpdates(), graph.getVersion()));
+    }
+
+    // --- 删除 u -> v 的全部平行边；边流中的权重被忽略。可见性与 /edges/insert 相同 ---
+    @PostMapping(value = "/edges/delete", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<String> deleteEdges(InputStream body) throws IOException {
+        long edges = metrics.timeIO(WorkerMetrics.DESERIALIZE, "update",
+                () -> EdgeStreamCodec.read(body, (src, dst, weights, count) -> graph.deleteEdges(src, dst, count)));
+        return ResponseEntity.ok(String.format(Locale.US, "Deleted %d edges (%d pending updates, version %d).",
+                edges, graph.getPendingUpdates(), graph.getVersion()));
+    }
+
+    // --- 立即合并增量层（通常由后台按阈值或下一次算法调用触发）：耗时 O(n + m)，返回后的算法调用读到此前的全部更新 ---
+    @PostMapping("/compact")
+    public ResponseEntity<String> compact() {
+        boolean merged = metrics.time(WorkerMetrics.BUILD_CSR, "compact", graph::compact);
+        return ResponseEntity.ok(merged
+                ? String.format(Locale.US, "Compacted in %d ms: %d nodes, %d edges.",
+                        graph.getLastCompactionMillis(), graph.getNodeCount(), graph.getEdgeCount())
+                : "Nothing to compact.");
+    }
+
+    @GetMapping("/delta/stats")
+    public ResponseEntity<Map<String, Number>> deltaStats() {
+        return ResponseEntity.ok(Map.of(
+                "pendingUpdates", graph.getPendingUpdates(),
+                "version", graph.getVersion(),
+                "resultVersion", graph.getResultVersion(),
+                "compactions", graph.getCompactions(),
+                "lastCompactionMillis", graph.getLastCompactionMillis()));
+    }
+
+    // ---------- CSR 快照 ----------
+
+    @PostMapping("/snapshot/save")
+    public ResponseEntity<String> saveSnapshot(@RequestParam(required = false) String path) {
+        Path file = snapshotFile(path);
+        long t0 = System.nanoTime();
+        try {
+            metrics.timeIO(WorkerMetrics.IO, "snapshot_save", () -> {
+                graph.saveSnapshot(file);
+                return null;
+            });
+            return ResponseEntity.ok(String.format(Locale.US, "Snapshot %s saved (%d bytes) in %.1f ms.",
+                    file, Files.size(file), (System.nanoTime() - t0) / 1e6));
+        } catch (IOException | IllegalStateException e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().body("Failed to save snapshot " + file);
+        }
+    }
+
+    @PostMapping("/snapshot/open")
+    public ResponseEntity<String> openSnapshot(@RequestParam(required = false) String path) {
+        Path file = snapshotFile(path);
+        long t0 = System.nanoTime();
+        try {
+            cache.invalidate();
+            metrics.timeIO(WorkerMetrics.IO, "snapshot_open", () -> {
+                graph.openSnapshot(file);
+                return null;
+            });
+            double millis = (System.nanoTime() - t0) / 1e6;
+            return ResponseEntity.ok(String.format(Locale.US, "Snapshot %s opened: %d nodes, %d edges in %.1f ms. %s",
+                    file, graph.getNodeCount(), graph.getEdgeCount(), millis, prepareConfiguredLandmarks()).trim());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().body("Failed to open snapshot " + file);
+        }
+    }
+
+    private Path snapshotFile(String path) {
+        if (path != null && !path.isBlank()) return Path.of(path);
+        if (!snapshotPath.isBlank()) return Path.of(snapshotPath);
+        return Path.of("graph_worker_" + serverPort + ".snap");
     }
 
     // ---------- 单点遍历 ----------
 
     @PostMapping("/bfs")
     public ResponseEntity<Set<Integer>> bfs(@RequestBody Map<String, Integer> body) {
-        return ResponseEntity.ok(graph.parallelBFS(body.get("start")));
+        return ResponseEntity.ok(toNodeIdSet(graph.parallelBFS(body.get("start"))));
+    }
+
+    // --- 多源 BFS：一次请求带一组源节点 ID，按 64 个一批位并行遍历，边算边以二进制距离矩阵流式返回 ---
+    @PostMapping(value = "/msbfs", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> multiSourceBFS(@RequestBody int[] sources) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(metrics.timed(WorkerMetrics.COMPUTE, "msbfs", out -> {
+                    MultiSourceBFSResult r = graph.writeDistanceMatrix(sources, out);
+                    log.debug("MS-BFS {} sources in {} batches ({} levels, {} reached pairs, {} top-down / {} bottom-up "
+                                    + "steps, {} edges scanned)", r.sources.length, r.batches, r.levels, r.reached,
+                            r.topDownSteps, r.bottomUpSteps, r.edgesScanned);
+                }));
     }
 
     @PostMapping("/dfs")
@@ -58,7 +333,7 @@ public class WorkerApp {
 
     @PostMapping("/bfs_all")
     public ResponseEntity<Set<Integer>> bfsAll() {
-        return ResponseEntity.ok(graph.fullParallelBFS());
+        return ResponseEntity.ok(toNodeIdSet(graph.fullParallelBFS()));
     }
 
     @PostMapping("/dfs_all")
@@ -66,11 +341,48 @@ public class WorkerApp {
         return ResponseEntity.ok(graph.fullParallelDFS());
     }
 
+    // --- 压缩位图结果：序列化的已访问节点集合，或仅返回基数 ---
+    @PostMapping(value = "/bfs_all/bitmap", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> bfsAllBitmap() {
+        BFSResult result = metrics.time(WorkerMetrics.COMPUTE, "bfs_all", graph::fullParallelBFS);
+        return ResponseEntity.ok(metrics.time(WorkerMetrics.FORMAT, "bfs_all",
+                () -> graph.toNodeIdBitmap(result).serialize()));
+    }
+
+    @PostMapping("/bfs_all/cardinality")
+    public ResponseEntity<Long> bfsAllCardinality() {
+        return ResponseEntity.ok((long) metrics.time(WorkerMetrics.COMPUTE, "bfs_all", graph::fullParallelBFS).reached);
+    }
+
+    @PostMapping(value = "/dfs_all/bitmap", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> dfsAllBitmap() {
+        CompressedBitmap visited = metrics.time(WorkerMetrics.COMPUTE, "dfs_all", graph::fullParallelDFSBitmap);
+        return ResponseEntity.ok(metrics.time(WorkerMetrics.FORMAT, "dfs_all", visited::serialize));
+    }
+
+    @PostMapping("/dfs_all/cardinality")
+    public ResponseEntity<Long> dfsAllCardinality() {
+        return ResponseEntity.ok((long) metrics.time(WorkerMetrics.COMPUTE, "dfs_all", graph::fullParallelDFSCount));
+    }
+
+    private Set<Integer> toNodeIdSet(BFSResult result) {
+        Set<Integer> ids = new HashSet<>(result.reached * 2);
+        for (int i = 0; i < result.distance.length; i++) {
+            if (result.distance[i] >= 0) ids.add(result.nodeIds[i]);
+        }
+        return ids;
+    }
+
     // ---------- 图分析 ----------
 
     @PostMapping("/components")
     public ResponseEntity<List<Set<Integer>>> connectedComponents() {
-        return ResponseEntity.ok(graph.getConnectedComponentsBFS());
+        ComponentLabels labels = cache.get(graph.getResultVersion(), "components", "", ResultCache::bytes,
+                () -> metrics.time(WorkerMetrics.COMPUTE, "components", graph::componentLabels));
+        List<Set<Integer>> components = new ArrayList<>(labels.count);
+        for (int c = 0; c < labels.count; c++) components.add(new HashSet<>(labels.sizes[c] * 2));
+        for (int i = 0; i < labels.label.length; i++) components.get(labels.label[i]).add(labels.nodeIds[i]);
+        return ResponseEntity.ok(components);
     }
 
     @GetMapping("/edges")
@@ -78,129 +390,339 @@ public class WorkerApp {
         return ResponseEntity.ok(graph.getAllEdges());
     }
 
-    // ---------- PageRank + 写文件 (数组优化版) ----------
+    // ---------- 结果流式输出：一次请求完成计算，并直接从内存数组写出 CSV ----------
 
     @PostMapping("/pagerank_csv")
-    public ResponseEntity<String> pageRankToCSV() {
-        List<Set<Integer>> components = graph.getConnectedComponentsBFS();
-        int maxIter = 10;
-        double damping = 0.85;
-        String fileName = "pagerank_worker_" + serverPort + ".csv";
-
-        ExecutorService executor = Executors.newFixedThreadPool(Math.min(components.size(), 4));
-        List<Future<List<String>>> futures = new ArrayList<>();
-
-        for (int cid = 0; cid < components.size(); cid++) {
-            final int finalCid = cid;
-            Set<Integer> comp = components.get(cid);
-            futures.add(executor.submit(() -> {
-                Map<Integer, Double> ranks = graph.computePageRank(comp, maxIter, damping);
-                List<String> lines = new ArrayList<>();
-                for (var entry : ranks.entrySet()) {
-                    lines.add(entry.getKey() + "," + finalCid + "," + entry.getValue());
+    public ResponseEntity<StreamingResponseBody> pageRankToCSV(
+            @RequestParam(defaultValue = "0.85") double damping,
+            @RequestParam(defaultValue = "1e-6") double tolerance,
+            @RequestParam(defaultValue = "100") int maxIter,
+            @RequestParam(defaultValue = "false") boolean incremental) {
+        // incremental=true：从上一次结果热启动，只推送变化附近的残差；图版本未变时直接复用上次结果
+        // 完整计算按 (图版本, 参数) 进结果缓存；分量标号在 Graph 内按版本复用
+        PageRankResult result = incremental
+                ? computePageRank("pagerank_incremental", () -> graph.incrementalPageRank(damping, tolerance, maxIter))
+                : cache.get(graph.getResultVersion(), "pagerank", damping + "," + tolerance + "," + maxIter, ResultCache::bytes,
+                        () -> computePageRank("pagerank", () -> graph.pageRank(damping, tolerance, maxIter)));
+        int[] component = result.components.label;
+        int[] ids = result.components.nodeIds;
+        log.debug("PageRank {} rows ({}, {} iterations, residual {}, touched {} vertices, {} vertex updates)",
+                result.rank.length, result.mode, result.iterations, result.residual, result.touched, result.updates);
+        return csv(incremental ? "pagerank_incremental" : "pagerank", out -> {
+            CsvWriter writer = new CsvWriter(out).header("node_id,component_id,pagerank");
+            for (int i = 0; i < result.rank.length; i++) {
+                writer.field(ids[i]).field(component[i]).field(result.rank[i]).endRow();
+            }
+            writer.flush();
+        });
+    }
+
+    private PageRankResult computePageRank(String algorithm, Supplier<PageRankResult> body) {
+        PageRankResult result = metrics.time(WorkerMetrics.COMPUTE, algorithm, body);
+        metrics.recordPageRank(result);
+        return result;
+    }
+
+    @PostMapping("/mst_csv")
+    public ResponseEntity<StreamingResponseBody> mstToCSV() {
+        SpanningForest mst = cache.get(graph.getResultVersion(), "mst", "", ResultCache::bytes,
+                () -> metrics.time(WorkerMetrics.COMPUTE, "mst", graph::minimumSpanningTree));
+        log.debug("MST {} edges (total weight {}, {} rounds)", mst.edgeCount, mst.totalWeight, mst.rounds);
+        return csv("mst", out -> {
+            CsvWriter writer = new CsvWriter(out).header("u,v,weight");
+            for (int i = 0; i < mst.edgeCount; i++) {
+                writer.field(mst.source[i]).field(mst.target[i]).field(mst.weight[i]).endRow();
+            }
+            writer.flush();
+        });
+    }
+
+    // 分布式 MST：返回本地最小生成森林与跨分区边（带权二进制边流），由主控合并。
+    // 跨分区边的目标先按归属表向归属 worker 确认存在，不存在的（任何 worker 都没有）不作为候选；
+    // 各归属 worker 的确认请求并行发出，耗时取决于最慢的 worker 而不是 worker 数
+    @PostMapping(value = "/mst/candidates", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<StreamingResponseBody> mstCandidates(@RequestBody Map<String, Object> body)
+            throws ExecutionException, InterruptedException {
+        List<String> workers = (List<String>) body.get("workers");
+        int self = ((Number) body.get("self")).intValue();
+        int[][] byOwner = graph.remoteTargetsByOwner(owners(workers.size()));
+        int total = 0;
+        for (int[] ids : byOwner) total += ids.length;
+        int[] existing = new int[total];
+        int count = 0;
+        ExecutorService sender = Executors.newFixedThreadPool(Math.max(1, Math.min(workers.size() - 1, 8)));
+        try {
+            List<Future<byte[]>> flags = new ArrayList<>(workers.size());
+            for (int w = 0; w < workers.size(); w++) {
+                String target = workers.get(w);
+                byte[] request = w == self || byOwner[w].length == 0 ? null : BinaryCodec.encodeInts(byOwner[w]);
+                flags.add(request == null ? null
+                        : sender.submit(() -> peers.postForObject(target + "/nodes/contains", request, byte[].class)));
+            }
+            for (int w = 0; w < workers.size(); w++) {
+                byte[] f = flags.get(w) == null ? null : flags.get(w).get();
+                if (f == null) continue;
+                for (int i = 0; i < byOwner[w].length; i++) {
+                    if (f[i] != 0) existing[count++] = byOwner[w][i];
                 }
-                return lines;
-            }));
+            }
+        } finally {
+            sender.shutdown();
         }
+        int[] confirmed = Arrays.copyOf(existing, count);
+        Arrays.sort(confirmed);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(metrics.timed(WorkerMetrics.COMPUTE, "mst_distributed",
+                        out -> graph.writeSpanningCandidates(confirmed, out)));
+    }
 
-        List<String> allLines = new ArrayList<>();
-        allLines.add("node_id,component_id,pagerank");
-        for (Future<List<String>> f : futures) {
-            try { allLines.addAll(f.get()); }
-            catch (InterruptedException | ExecutionException e) { e.printStackTrace(); }
-        }
-        executor.shutdown();
+    // --- 批量确认节点 ID 是否为本地顶点（二进制 int），每个 ID 返回一个字节 0 / 1 ---
+    @PostMapping(value = "/nodes/contains", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> containsNodes(@RequestBody byte[] body) {
+        int[] ids = BinaryCodec.decodeInts(body);
+        byte[] flags = new byte[ids.length];
+        for (int i = 0; i < ids.length; i++) flags[i] = (byte) (graph.indexOf(ids[i]) >= 0 ? 1 : 0);
+        return ResponseEntity.ok(flags);
+    }
 
-        // 写入本地 CSV 文件
-        try (PrintWriter writer = new PrintWriter(new File(fileName))) {
-            for (String line : allLines) writer.println(line);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Failed to write CSV");
+    @PostMapping("/ssp_csv")
+    public ResponseEntity<StreamingResponseBody> sspToCSV(
+            @RequestParam int start,
+            @RequestParam(defaultValue = "Infinity") double bound,
+            @RequestParam(defaultValue = "0") double delta) {
+        ShortestPathResult sp = cache.get(graph.getResultVersion(), "sssp", start + "," + bound + "," + delta, ResultCache::bytes,
+                () -> metrics.time(WorkerMetrics.COMPUTE, "sssp", () -> graph.singleSourceShortestPath(start, bound, delta)));
+        log.debug("SSSP {} entries ({} reached, {} buckets, {} phases, delta {})",
+                sp.distance.length, sp.reached, sp.buckets, sp.phases, sp.delta);
+        return csv("sssp", out -> {
+            CsvWriter writer = new CsvWriter(out).header("node,distance_from_" + start);
+            for (int i = 0; i < sp.distance.length; i++) {
+                writer.field(sp.nodeIds[i]).field(sp.distance[i]).endRow();
+            }
+            writer.flush();
+        });
+    }
+
+    // --- 点对点最短路：双向 Dijkstra + ALT 地标下界，只搜索 s、t 之间的区域 ---
+    @PostMapping("/path")
+    public ResponseEntity<Map<String, Object>> shortestPath(@RequestParam int source, @RequestParam int target) {
+        long t0 = System.nanoTime();
+        PathQueryResult r = metrics.time(WorkerMetrics.COMPUTE, "p2p",
+                () -> graph.shortestPaths(new int[]{source}, new int[]{target}));
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("source", source);
+        out.put("target", target);
+        out.put("distance", r.distance[0]);
+        out.put("settled", r.settled[0]);
+        out.put("landmarks", r.landmarks);
+        out.put("micros", (System.nanoTime() - t0) / 1000);
+        return ResponseEntity.ok(out);
+    }
+
+    // --- 批量点对点查询：请求体为 [[s, t], ...]，按查询并行，结果按请求顺序写成 CSV ---
+    @PostMapping("/paths_csv")
+    public ResponseEntity<StreamingResponseBody> shortestPathsToCSV(@RequestBody int[][] pairs) {
+        int[] sources = new int[pairs.length];
+        int[] targets = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            sources[i] = pairs[i][0];
+            targets[i] = pairs[i][1];
         }
+        PathQueryResult r = metrics.time(WorkerMetrics.COMPUTE, "p2p", () -> graph.shortestPaths(sources, targets));
+        if (log.isDebugEnabled()) {
+            long settled = 0;
+            for (int x : r.settled) settled += x;
+            log.debug("{} point-to-point queries ({} landmarks, {} settled)", pairs.length, r.landmarks, settled);
+        }
+        return csv("p2p", out -> {
+            CsvWriter writer = new CsvWriter(out).header("source,target,distance");
+            for (int i = 0; i < pairs.length; i++) writer.field(sources[i]).field(targets[i]).field(r.distance[i]).endRow();
+            writer.flush();
+        });
+    }
 
-        return ResponseEntity.ok(serverPort + ": CSV written with " + (allLines.size() - 1) + " rows.");
+    // --- CSV 响应体在写出时按 format 阶段计时 ---
+    private ResponseEntity<StreamingResponseBody> csv(String algorithm, StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(TEXT_CSV).body(metrics.timed(WorkerMetrics.FORMAT, algorithm, body));
     }
 
-    // ---------- 获取 PageRank CSV 内容 ----------
+    // ---------- 分布式 PageRank（BSP，由主控驱动超步） ----------
 
-    @GetMapping("/pagerank_csv")
-    public ResponseEntity<String> getPageRankCSV() {
-        String fileName = "pagerank_worker_" + serverPort + ".csv";
-        try {
-            String content = Files.readString(Path.of(fileName));
-            return ResponseEntity.ok(content);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Error reading " + fileName);
-        }
+    @PostMapping("/dpr/prepare")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<String> preparePageRank(@RequestBody Map<String, Object> body) {
+        List<String> workers = (List<String>) body.get("workers");
+        int self = ((Number) body.get("self")).intValue();
+        if (prSession != null) prSession.close();
+        prSession = new DistributedPageRankSession(graph, workers, self, owners(workers.size()));
+        return ResponseEntity.ok("Distributed PageRank prepared.");
     }
 
-    // ---------- 最小生成树 CSV ----------
+    @PostMapping("/dpr/connect")
+    public ResponseEntity<Map<String, Object>> connectPageRank() throws Exception {
+        return ResponseEntity.ok(prSession.connect());
+    }
 
-    @PostMapping("/mst_csv")
-    public ResponseEntity<String> mstToCSV() {
-        String fileName = "mst_worker_" + serverPort + ".csv";
-        List<double[]> mst = graph.minimumSpanningTree();
-        try (PrintWriter writer = new PrintWriter(new File(fileName))) {
-            writer.println("u,v,weight");
-            for (double[] edge : mst) {
-                writer.printf(Locale.US, "%d,%d,%.4f\n", (int) edge[0], (int) edge[1], edge[2]);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Failed to write MST CSV");
-        }
-        return ResponseEntity.ok(serverPort + ": MST CSV written with " + mst.size() + " edges.");
+    @PostMapping("/dpr/register")
+    public ResponseEntity<byte[]> registerPageRankPeer(@RequestParam int from, @RequestBody byte[] body) {
+        boolean[] exists = prSession.getState().registerInbound(from, BinaryCodec.decodeInts(body));
+        byte[] flags = new byte[exists.length];
+        for (int i = 0; i < exists.length; i++) flags[i] = (byte) (exists[i] ? 1 : 0);
+        return ResponseEntity.ok(flags);
     }
 
-    @GetMapping("/mst_csv")
-    public ResponseEntity<String> getMSTCSV() {
-        String fileName = "mst_worker_" + serverPort + ".csv";
-        try {
-            String content = Files.readString(Path.of(fileName));
-            return ResponseEntity.ok(content);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Error reading " + fileName);
-        }
+    @PostMapping("/dpr/start")
+    public ResponseEntity<String> startPageRank(@RequestBody Map<String, Number> body) {
+        prSession.getState().start(body.get("totalVertices").longValue());
+        return ResponseEntity.ok("Distributed PageRank started.");
     }
 
-    @PostMapping("/ssp_csv")
-    public ResponseEntity<String> sspToCSV(@RequestBody Map<String, Integer> body) {
-        int start = body.get("start");
-        Map<Integer, Integer> distances = graph.singleSourceShortestPath(start);
-        String fileName = "ssp_worker_" + serverPort + ".csv";
-        try (PrintWriter writer = new PrintWriter(new File(fileName))) {
-            writer.println("node,distance_from_" + start);
-            for (Map.Entry<Integer, Integer> e : distances.entrySet()) {
-                writer.println(e.getKey() + "," + e.getValue());
+    @PostMapping("/dpr/step")
+    public ResponseEntity<Map<String, Object>> pageRankStep() throws Exception {
+        return ResponseEntity.ok(metrics.timer(WorkerMetrics.EXCHANGE, "pagerank_distributed")
+                .recordCallable(prSession::step));
+    }
+
+    @PostMapping("/dpr/inbox")
+    public ResponseEntity<String> pageRankInbox(@RequestParam int from, @RequestBody byte[] body) {
+        prSession.getState().receive(from, BinaryCodec.decodeDoubles(body));
+        return ResponseEntity.ok("ok");
+    }
+
+    @PostMapping("/dpr/apply")
+    public ResponseEntity<Map<String, Double>> applyPageRankStep(@RequestBody Map<String, Number> body) {
+        double delta = metrics.time(WorkerMetrics.COMPUTE, "pagerank_distributed",
+                () -> prSession.getState().apply(body.get("damping").doubleValue(),
+                        body.get("dangling").doubleValue()));
+        return ResponseEntity.ok(Map.of("delta", delta));
+    }
+
+    @GetMapping("/dpr/result")
+    public ResponseEntity<StreamingResponseBody> pageRankResult() {
+        double[] rank = prSession.getState().getRank();
+        int[] ids = prSession.getState().getNodeIds();
+        return csv("pagerank_distributed", out -> {
+            CsvWriter writer = new CsvWriter(out).header("node_id,pagerank");
+            for (int i = 0; i < rank.length; i++) writer.field(ids[i]).field(rank[i]).endRow();
+            writer.flush();
+        });
+    }
+
+    // ---------- 分布式 BFS（层同步，由主控驱动超步） ----------
+
+    @PostMapping("/dbfs/prepare")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<String> prepareBFS(@RequestBody Map<String, Object> body) {
+        List<String> workers = (List<String>) body.get("workers");
+        int self = ((Number) body.get("self")).intValue();
+        boolean directionOptimizing = !Boolean.FALSE.equals(body.get("directionOptimizing"));
+        if (bfsSession != null) bfsSession.close();
+        bfsSession = new DistributedBFSSession(graph, workers, self, owners(workers.size()), directionOptimizing);
+        return ResponseEntity.ok("Distributed BFS prepared.");
+    }
+
+    @PostMapping("/dbfs/start")
+    public ResponseEntity<Map<String, Object>> startBFS(@RequestBody Map<String, Number> body) {
+        boolean owned = bfsSession.getState().start(body.get("source").intValue());
+        return ResponseEntity.ok(Map.of("owned", owned, "frontier", owned ? 1 : 0));
+    }
+
+    @PostMapping("/dbfs/step")
+    public ResponseEntity<Map<String, Object>> bfsStep() throws Exception {
+        return ResponseEntity.ok(metrics.timer(WorkerMetrics.EXCHANGE, "bfs_distributed")
+                .recordCallable(bfsSession::step));
+    }
+
+    @PostMapping("/dbfs/inbox")
+    public ResponseEntity<String> bfsInbox(@RequestParam int from, @RequestBody byte[] body) {
+        bfsSession.getState().receive(BinaryCodec.decodeInts(body));
+        return ResponseEntity.ok("ok");
+    }
+
+    @PostMapping("/dbfs/apply")
+    public ResponseEntity<Map<String, Integer>> applyBFSStep() {
+        int frontier = metrics.time(WorkerMetrics.COMPUTE, "bfs_distributed", bfsSession.getState()::apply);
+        return ResponseEntity.ok(Map.of("frontier", frontier, "level", bfsSession.getState().getLevel()));
+    }
+
+    // --- 本分区已到达顶点的全局跳数距离 ---
+    @GetMapping("/dbfs/result")
+    public ResponseEntity<StreamingResponseBody> bfsResult() {
+        BFSResult result = bfsSession.getState().getResult();
+        int[] distance = result.distance;
+        return csv("bfs_distributed", out -> {
+            CsvWriter writer = new CsvWriter(out).header("node_id,distance");
+            for (int i = 0; i < distance.length; i++) {
+                if (distance[i] >= 0) writer.field(result.nodeIds[i]).field(distance[i]).endRow();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Failed to write SSP CSV");
-        }
-        return ResponseEntity.ok(serverPort + ": SSP CSV written with " + distances.size() + " entries.");
+            writer.flush();
+        });
     }
 
-    @GetMapping("/ssp_csv")
-    public ResponseEntity<String> getSSPCSV() {
-        String fileName = "ssp_worker_" + serverPort + ".csv";
-        try {
-            String content = Files.readString(Path.of(fileName));
-            return ResponseEntity.ok(content);
-        } catch (IOException e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Error reading " + fileName);
-        }
+    // ---------- 分布式连通分量（本地标号 + 主控并查集合并） ----------
+
+    @PostMapping("/cc/prepare")
+    public ResponseEntity<Map<String, Integer>> prepareComponents() {
+        ccState = metrics.time(WorkerMetrics.COMPUTE, "components", graph::partitionedComponents);
+        return ResponseEntity.ok(Map.of("localComponents", ccState.getLocalComponentCount()));
     }
 
+    // --- 边界对 [本地代表, 远端节点 ID]（二进制） ---
+    @GetMapping("/cc/boundary")
+    public ResponseEntity<byte[]> componentBoundary() {
+        return ResponseEntity.ok(BinaryCodec.encodeInts(
+                metrics.time(WorkerMetrics.EXCHANGE, "components", ccState::boundaryPairs)));
+    }
+
+    @PostMapping("/cc/resolve")
+    public ResponseEntity<byte[]> resolveComponents(@RequestBody byte[] body) {
+        return ResponseEntity.ok(BinaryCodec.encodeInts(metrics.time(WorkerMetrics.EXCHANGE, "components",
+                () -> ccState.resolve(BinaryCodec.decodeInts(body)))));
+    }
+
+    @PostMapping("/cc/apply")
+    public ResponseEntity<String> applyComponents(@RequestBody byte[] body) {
+        int[] pairs = BinaryCodec.decodeInts(body);
+        metrics.timer(WorkerMetrics.COMPUTE, "components").record(() -> ccState.applyLabels(pairs));
+        return ResponseEntity.ok("ok");
+    }
+
+    // --- 按全局标号的 [标号, 节点数, ID 之和] 三元组（二进制 long） ---
+    @GetMapping("/cc/summary")
+    public ResponseEntity<byte[]> componentSummary() {
+        long[] summary = metrics.time(WorkerMetrics.FORMAT, "components", ccState::summary);
+        return ResponseEntity.ok(BinaryCodec.encodeLongs(summary));
+    }
+
+    @GetMapping("/cc/result")
+    public ResponseEntity<StreamingResponseBody> componentResult() {
+        int[] label = ccState.getLabels();
+        int[] ids = ccState.getNodeIds();
+        return csv("components", out -> {
+            CsvWriter writer = new CsvWriter(out).header("node_id,component");
+            for (int i = 0; i < label.length; i++) writer.field(ids[i]).field(label[i]).endRow();
+            writer.flush();
+        });
+    }
 
     // ---------- 清理图结构 ----------
 
     @PostMapping("/clear")
     public ResponseEntity<String> clearGraph() {
+        if (prSession != null) {
+            prSession.close();
+            prSession = null;
+        }
+        if (bfsSession != null) {
+            bfsSession.close();
+            bfsSession = null;
+        }
+        ccState = null;
+        ownerTable = null;
         graph.clear();
+        cache.invalidate();
         return ResponseEntity.ok("Graph cleared.");
     }
 
@@ -0,0 +1,130 @@
+package com.example.worker;
+
+import com.example.common.Graph;
+import com.example.common.PageRankResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// worker 热点路径计时：graph.phase 计时器按 (phase, algorithm) 打标签，另有 CSR 内存与边数 gauge；
+// 通过 /actuator/metrics 暴露，主控从 /metrics/phases 一次取回全部累计值
+class WorkerMetrics {
+
+    static final String PHASE_TIMER = "graph.phase";
+
+    // 阶段：反序列化、CSR 构建、计算、worker 间交换、结果格式化、文件 I/O
+    static final String DESERIALIZE = "deserialize";
+    static final String BUILD_CSR = "build_csr";
+    static final String COMPUTE = "compute";
+    static final String EXCHANGE = "exchange";
+    static final String FORMAT = "format";
+    static final String IO = "io";
+
+    private final MeterRegistry registry;
+    private final Graph graph;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private ResultCache cache;
+
+    WorkerMetrics(MeterRegistry registry, Graph graph) {
+        this.registry = registry;
+        this.graph = graph;
+        Gauge.builder("graph.csr.bytes", graph, Graph::getMemoryBytes).baseUnit("bytes").register(registry);
+        Gauge.builder("graph.nodes", graph, Graph::getNodeCount).register(registry);
+        Gauge.builder("graph.edges", graph, Graph::getEdgeCount).register(registry);
+        Gauge.builder("graph.remote.edges", graph, Graph::getRemoteEdgeCount).register(registry);
+        Gauge.builder("graph.delta.pending", graph, Graph::getPendingUpdates).register(registry);
+    }
+
+    Timer timer(String phase, String algorithm) {
+        return timers.computeIfAbsent(phase + '|' + algorithm, k -> Timer.builder(PHASE_TIMER)
+                .tag("phase", phase)
+                .tag("algorithm", algorithm)
+                .register(registry));
+    }
+
+    // --- PageRank 工作量：按计算方式累计被更新过的顶点数与顶点更新次数，便于对比增量与完整计算 ---
+    void recordPageRank(PageRankResult result) {
+        registry.counter("graph.pagerank.touched", "mode", result.mode).increment(result.touched);
+        registry.counter("graph.pagerank.updates", "mode", result.mode).increment(result.updates);
+        registry.counter("graph.pagerank.runs", "mode", result.mode).increment();
+    }
+
+    // --- 结果缓存：按算法统计命中 / 未命中，另有占用字节数与条目数 gauge ---
+    void registerCache(ResultCache cache) {
+        this.cache = cache;
+        Gauge.builder("graph.cache.bytes", cache, ResultCache::getBytes).baseUnit("bytes").register(registry);
+        Gauge.builder("graph.cache.entries", cache, ResultCache::getEntries).register(registry);
+    }
+
+    void cacheLookup(String algorithm, boolean hit) {
+        registry.counter("graph.cache.requests", "algorithm", algorithm, "result", hit ? "hit" : "miss").increment();
+    }
+
+    <T> T time(String phase, String algorithm, Supplier<T> body) {
+        return timer(phase, algorithm).record(body);
+    }
+
+    interface IOAction<T> {
+        T run() throws IOException;
+    }
+
+    <T> T timeIO(String phase, String algorithm, IOAction<T> body) throws IOException {
+        long t0 = System.nanoTime();
+        try {
+            return body.run();
+        } finally {
+            timer(phase, algorithm).record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // --- 流式响应体在写出时计时（Spring 在控制器返回后才调用 writeTo） ---
+    StreamingResponseBody timed(String phase, String algorithm, StreamingResponseBody body) {
+        return out -> timeIO(phase, algorithm, () -> {
+            body.writeTo(out);
+            return null;
+        });
+    }
+
+    // --- 全部阶段计时器的累计值与当前 gauge，供主控抓取后做差 ---
+    Map<String, Object> snapshot() {
+        List<Map<String, Object>> phases = new ArrayList<>();
+        for (Timer t : registry.find(PHASE_TIMER).timers()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("phase", t.getId().getTag("phase"));
+            row.put("algorithm", t.getId().getTag("algorithm"));
+            row.put("count", t.count());
+            row.put("totalMs", t.totalTime(TimeUnit.MILLISECONDS));
+            phases.add(row);
+        }
+        List<Map<String, Object>> pagerank = new ArrayList<>();
+        for (Counter c : registry.find("graph.pagerank.runs").counters()) {
+            String mode = c.getId().getTag("mode");
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("mode", mode);
+            row.put("runs", (long) c.count());
+            row.put("touched", (long) registry.counter("graph.pagerank.touched", "mode", mode).count());
+            row.put("updates", (long) registry.counter("graph.pagerank.updates", "mode", mode).count());
+            pagerank.add(row);
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("phases", phases);
+        out.put("pagerank", pagerank);
+        if (cache != null) out.put("cache", cache.stats());
+        out.put("csrBytes", graph.getMemoryBytes());
+        out.put("nodes", graph.getNodeCount());
+        out.put("edges", graph.getEdgeCount());
+        out.put("remoteEdges", graph.getRemoteEdgeCount());
+        return out;
+    }
+}